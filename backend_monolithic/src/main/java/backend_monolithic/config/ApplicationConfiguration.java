@@ -15,6 +15,7 @@ import org.springframework.security.web.authentication.www.BasicAuthenticationFi
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import backend_monolithic.config.JwtTokenValidator;
+import backend_monolithic.service.UserDirectory;
 
 import java.util.Arrays;
 import java.util.List;
@@ -26,7 +27,7 @@ public class ApplicationConfiguration {
     private String allowedOriginPatterns;
 
     @Bean
-    SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
+    SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity, UserDirectory userDirectory) throws Exception {
         httpSecurity.sessionManagement(
                         managment -> managment.sessionCreationPolicy(
                                 SessionCreationPolicy.STATELESS)
@@ -51,7 +52,8 @@ public class ApplicationConfiguration {
                         .requestMatchers("/api/users/experts").hasAnyAuthority("EXPERT", "ACCOUNTANT", "DIRECTOR")
                         
                         // Просмотр заявок (tasks) - все авторизованные кроме EMPTY
-                        .requestMatchers(HttpMethod.GET, "/api/tasks", "/api/tasks/{id}", "/api/tasks/search", "/api/tasks/my")
+                        .requestMatchers(HttpMethod.GET, "/api/tasks", "/api/tasks/stream", "/api/tasks/{id}", "/api/tasks/search",
+                                "/api/tasks/search/scroll", "/api/tasks/my", "/api/tasks/my/scroll")
                                 .hasAnyAuthority("EXPERT", "ACCOUNTANT", "DIRECTOR", "REGISTRAR")
                         
                         // Создание и изменение заявок - только EXPERT и DIRECTOR
@@ -102,13 +104,17 @@ public class ApplicationConfiguration {
                         .requestMatchers("/api/applicants/search", "/api/manufacturers/search", "/api/representatives/search")
                                 .hasAnyAuthority("EXPERT", "ACCOUNTANT", "DIRECTOR")
                         
+                        // Метрики приложения - только DIRECTOR
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasAuthority("DIRECTOR")
+
                         // Все остальные API эндпоинты - блокируем EMPTY (требуют роли отличной от EMPTY)
                         .requestMatchers("/api/**").hasAnyAuthority("EXPERT", "ACCOUNTANT", "DIRECTOR", "REGISTRAR")
                         
                         // Все остальные запросы разрешены
                         .anyRequest().permitAll()
                 )
-                .addFilterBefore(new JwtTokenValidator(), BasicAuthenticationFilter.class)
+                .addFilterBefore(new JwtTokenValidator(userDirectory), BasicAuthenticationFilter.class)
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> cors.configurationSource(CorsConfigurationSource()))
                 .httpBasic(Customizer.withDefaults())
@@ -0,0 +1,21 @@
+package backend_monolithic.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+// Функция match_against(колонка, запрос) для спецификаций: MySQL MATCH ... AGAINST в булевом режиме.
+// Условие match_against(...) > 0 оптимизатор выполняет через FULLTEXT-индекс.
+public class FullTextFunctionContributor implements FunctionContributor {
+
+    public static final String MATCH_AGAINST = "match_against";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(
+                MATCH_AGAINST,
+                "match(?1) against(?2 in boolean mode)",
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.DOUBLE)
+        );
+    }
+}
@@ -0,0 +1,28 @@
+package backend_monolithic.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+// Публикует счётчики кэша проверенных JWT: jwt.cache.requests{result=hit|miss} и jwt.cache.size
+@Component
+public class JwtCacheMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        JwtClaimsCache cache = JwtProvider.getClaimsCache();
+        FunctionCounter.builder("jwt.cache.requests", cache, JwtClaimsCache::getHits)
+                .tag("result", "hit")
+                .description("Проверки JWT, обслуженные из кэша")
+                .register(registry);
+        FunctionCounter.builder("jwt.cache.requests", cache, JwtClaimsCache::getMisses)
+                .tag("result", "miss")
+                .description("Проверки JWT с полным разбором подписи")
+                .register(registry);
+        Gauge.builder("jwt.cache.size", cache, JwtClaimsCache::size)
+                .description("Количество токенов в кэше")
+                .register(registry);
+    }
+}
@@ -0,0 +1,20 @@
+package backend_monolithic.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+
+// Проверенные данные токена: всё, что нужно фильтру и сервисам, без повторного разбора подписи
+@Getter
+@AllArgsConstructor
+public class JwtClaims {
+    private final String email;
+    private final List<String> authorities;
+    private final Instant expiresAt;
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+}
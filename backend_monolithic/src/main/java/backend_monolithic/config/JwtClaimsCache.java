@@ -0,0 +1,79 @@
+package backend_monolithic.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// Ограниченный кэш результатов проверки JWT. Ключ - SHA-256 токена, сам токен в памяти не хранится.
+// Запись живёт не дольше срока действия токена. При переполнении вытесняется токен,
+// который дольше всех не предъявляли (LRU), поэтому активные сессии остаются в кэше.
+public class JwtClaimsCache {
+
+    private final int maxEntries;
+    private final Map<String, JwtClaims> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public JwtClaimsCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, JwtClaims> eldest) {
+                return size() > JwtClaimsCache.this.maxEntries;
+            }
+        };
+    }
+
+    public JwtClaims get(String jwt, Function<String, JwtClaims> verifier) {
+        String key = hash(jwt);
+        Instant now = Instant.now();
+
+        synchronized (entries) {
+            JwtClaims cached = entries.get(key);
+            if (cached != null) {
+                if (!cached.isExpired(now)) {
+                    hits.increment();
+                    return cached;
+                }
+                entries.remove(key);
+            }
+        }
+
+        // Проверка подписи выполняется вне блокировки
+        misses.increment();
+        JwtClaims claims = verifier.apply(jwt);
+        synchronized (entries) {
+            entries.put(key, claims);
+        }
+        return claims;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static String hash(String jwt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(jwt.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
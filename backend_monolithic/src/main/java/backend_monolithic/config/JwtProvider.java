@@ -1,6 +1,7 @@
 package backend_monolithic.config;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.security.core.Authentication;
@@ -15,6 +16,13 @@ import java.util.stream.Collectors;
 public class JwtProvider {
     static SecretKey key = Keys.hmacShaKeyFor(JwtConstant.SECRET_KEY.getBytes());
 
+    // Парсер неизменяемый и потокобезопасный, поэтому создаётся один раз
+    private static final JwtParser parser = Jwts.parser()
+            .verifyWith(key)
+            .build();
+
+    private static final JwtClaimsCache claimsCache = new JwtClaimsCache(10_000);
+
     public static String generateToken(Authentication auth) {
         List<String> authorities = auth.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
@@ -31,11 +39,26 @@ public class JwtProvider {
 
     public static String getEmailFromJwtToken(String jwt) {
         jwt = jwt.substring(7); // Удаление "Bearer "
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(jwt)
-                .getPayload();
-        return (String) claims.get("email");
+        return verify(jwt).getEmail();
+    }
+
+    // Проверяет подпись и срок действия токена (без префикса "Bearer "), повторные запросы с тем же токеном берутся из кэша
+    public static JwtClaims verify(String jwt) {
+        return claimsCache.get(jwt, JwtProvider::parse);
+    }
+
+    public static JwtClaimsCache getClaimsCache() {
+        return claimsCache;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JwtClaims parse(String jwt) {
+        Claims claims = parser.parseSignedClaims(jwt).getPayload();
+        List<String> authorities = (List<String>) claims.get("authorities");
+        return new JwtClaims(
+                (String) claims.get("email"),
+                authorities != null ? List.copyOf(authorities) : List.of(),
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        );
     }
 }
@@ -1,27 +1,30 @@
 package backend_monolithic.config;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 import backend_monolithic.config.JwtConstant;
+import backend_monolithic.model.User;
+import backend_monolithic.service.UserDirectory;
 
-import javax.crypto.SecretKey;
 import java.io.IOException;
 import java.util.List;
 import java.util.stream.Collectors;
 
 public class JwtTokenValidator extends OncePerRequestFilter {
 
+    private final UserDirectory userDirectory;
+
+    public JwtTokenValidator(UserDirectory userDirectory) {
+        this.userDirectory = userDirectory;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -34,20 +37,14 @@ public class JwtTokenValidator extends OncePerRequestFilter {
                 // Убираем префикс "Bearer "
                 String jwt = jwtHeader.substring(7);
 
-                SecretKey key = Keys.hmacShaKeyFor(JwtConstant.SECRET_KEY.getBytes());
-
-                // Парсим токен с актуальным API JJWT
-                Claims claims = Jwts.parser()
-                        .verifyWith(key)
-                        .build()
-                        .parseSignedClaims(jwt)
-                        .getPayload();
+                // Подпись проверяется один раз на токен, далее данные берутся из кэша
+                JwtClaims claims = JwtProvider.verify(jwt);
 
                 // Извлекаем email
-                String email = (String) claims.get("email");
+                String email = claims.getEmail();
 
                 // Получаем authorities как список строк
-                List<String> authorities = (List<String>) claims.get("authorities");
+                List<String> authorities = claims.getAuthorities();
 
                 // Преобразуем в GrantedAuthority
                 List<GrantedAuthority> grantedAuthorities = authorities.stream()
@@ -55,9 +52,13 @@ public class JwtTokenValidator extends OncePerRequestFilter {
                         .collect(Collectors.toList());
 
                 // Создаем аутентификацию
-                Authentication authentication =
+                UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(email, null, grantedAuthorities);
 
+                // Пользователь загружается один раз на запрос, сервисы берут его из SecurityContext
+                User user = userDirectory.findByEmail(email);
+                authentication.setDetails(user);
+
                 SecurityContextHolder.getContext().setAuthentication(authentication);
 
             } catch (Exception e) {
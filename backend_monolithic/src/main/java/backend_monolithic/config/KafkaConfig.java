@@ -8,7 +8,6 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
-import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -19,31 +18,40 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
+    @Value("${kafka.producer.linger-ms:20}")
+    private int lingerMs;
+
+    @Value("${kafka.producer.batch-size:65536}")
+    private int batchSize;
+
+    // Уведомления уходят из outbox уже сериализованными в JSON, поэтому значение — строка
     @Bean
-    public ProducerFactory<String, Object> producerFactory() {
+    public ProducerFactory<String, String> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        
-        // Настройка JsonSerializer без добавления информации о типе
-        JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
-        jsonSerializer.setAddTypeInfo(false); // Отключаем добавление информации о типе
-        
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, jsonSerializer.getClass());
-        
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+
         // At least once delivery guarantees
         configProps.put(ProducerConfig.ACKS_CONFIG, "all"); // Ждем подтверждения от всех реплик
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3); // Количество повторных попыток
-        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 1); // Одно сообщение в полете для гарантии порядка
+        // С идемпотентностью брокер сохраняет порядок при повторах и для 5 запросов в полете
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
         configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true); // Идемпотентность для предотвращения дубликатов
-        configProps.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, 30000); // Таймаут запроса
-        configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, 120000); // Таймаут доставки
-        
-        return new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(), jsonSerializer);
+
+        // Relay отправляет пачку outbox целиком: копим сообщения в крупные батчи
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, 10000); // send() не ждет метаданные брокера дольше 10 секунд
+        configProps.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, 15000); // Таймаут запроса
+        // Недоставленная рассылка останется в outbox и будет отправлена повторно
+        configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, 30000);
+
+        return new DefaultKafkaProducerFactory<>(configProps);
     }
 
     @Bean
-    public KafkaTemplate<String, Object> kafkaTemplate() {
+    public KafkaTemplate<String, String> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
 }
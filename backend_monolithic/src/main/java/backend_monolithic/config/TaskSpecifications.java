@@ -1,9 +1,11 @@
 package backend_monolithic.config;
 
 import backend_monolithic.model.Task;
-import backend_monolithic.model.User;
+import backend_monolithic.model.TaskListView;
+import backend_monolithic.model.dto.TaskCursor;
 import backend_monolithic.model.dto.TaskFilter;
 import backend_monolithic.model.enums.TaskStatus;
+import backend_monolithic.service.TaskSearchText;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Predicate;
@@ -15,6 +17,8 @@ import org.springframework.stereotype.Component;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeParseException;
+import java.util.Set;
+import java.util.function.Function;
 
 @Component
 public class TaskSpecifications {
@@ -113,55 +117,28 @@ public class TaskSpecifications {
         };
     }
 
-    public static Specification<Task> withAssignedUser(String assignedUser) {
-        return (root, query, criteriaBuilder) -> {
-            if (assignedUser == null || assignedUser.isEmpty()) {
-                return criteriaBuilder.conjunction();
-            }
-
-            // Если пользователь ввел "не назначен" или подобное
-            if (assignedUser.toLowerCase().contains("не назначен") ||
-                    assignedUser.toLowerCase().contains("не назначен")) {
-                return root.get("assignedUserId").isNull();
-            }
+    // Исполнитель по ФИО ищется заранее по справочнику пользователей в памяти (userIdsByName),
+    // в запрос попадает только список id вместо подзапроса по users с LIKE
+    public static Specification<Task> withAssignedUser(String assignedUser, Function<String, Set<Long>> userIdsByName) {
+        if (assignedUser == null || assignedUser.isEmpty()) {
+            return (root, query, criteriaBuilder) -> criteriaBuilder.conjunction();
+        }
 
-            try {
-                // Пытаемся парсить как ID
-                Long userId = Long.parseLong(assignedUser);
-                return criteriaBuilder.equal(root.get("assignedUserId"), userId);
-            } catch (NumberFormatException e) {
-                // Если не число, ищем по ФИО через подзапрос
-                Subquery<Long> userSubquery = query.subquery(Long.class);
-                Root<User> userRoot = userSubquery.from(User.class);
-                userSubquery.select(userRoot.get("id"));
-
-                // Ищем по фамилии, имени или отчеству
-                Predicate namePredicate = criteriaBuilder.or(
-                        criteriaBuilder.like(
-                                criteriaBuilder.lower(userRoot.get("secondName")),
-                                "%" + assignedUser.toLowerCase() + "%"
-                        ),
-                        criteriaBuilder.like(
-                                criteriaBuilder.lower(userRoot.get("firstName")),
-                                "%" + assignedUser.toLowerCase() + "%"
-                        ),
-                        criteriaBuilder.like(
-                                criteriaBuilder.lower(userRoot.get("patronymic")),
-                                "%" + assignedUser.toLowerCase() + "%"
-                        ),
-                        criteriaBuilder.like(
-                                criteriaBuilder.concat(
-                                        criteriaBuilder.concat(userRoot.get("secondName"), " "),
-                                        criteriaBuilder.concat(userRoot.get("firstName"), " ")
-                                ),
-                                "%" + assignedUser + "%"
-                        )
-                );
+        // Если пользователь ввел "не назначен" или подобное
+        if (assignedUser.toLowerCase().contains("не назначен")) {
+            return (root, query, criteriaBuilder) -> root.get("assignedUserId").isNull();
+        }
 
-                userSubquery.where(namePredicate);
-                return criteriaBuilder.in(root.get("assignedUserId")).value(userSubquery);
-            }
-        };
+        try {
+            // Пытаемся парсить как ID
+            Long userId = Long.parseLong(assignedUser);
+            return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("assignedUserId"), userId);
+        } catch (NumberFormatException e) {
+            Set<Long> userIds = userIdsByName.apply(assignedUser);
+            return (root, query, criteriaBuilder) -> userIds.isEmpty()
+                    ? criteriaBuilder.disjunction()
+                    : root.get("assignedUserId").in(userIds);
+        }
     }
 
     public static Specification<Task> withStatus(TaskStatus status) {
@@ -268,12 +245,28 @@ public class TaskSpecifications {
         };
     }
 
-    public static Specification<Task> buildSpecification(TaskFilter filter) {
+    // Keyset-условие: задачи строго "после" курсора в порядке (createdAt DESC, id DESC)
+    public static Specification<Task> withCursorAfter(TaskCursor cursor) {
+        return (root, query, criteriaBuilder) -> {
+            if (cursor == null) {
+                return criteriaBuilder.conjunction();
+            }
+            return criteriaBuilder.or(
+                    criteriaBuilder.lessThan(root.get("createdAt"), cursor.getCreatedAt()),
+                    criteriaBuilder.and(
+                            criteriaBuilder.equal(root.get("createdAt"), cursor.getCreatedAt()),
+                            criteriaBuilder.lessThan(root.get("id"), cursor.getId())
+                    )
+            );
+        };
+    }
+
+    public static Specification<Task> buildSpecification(TaskFilter filter, Function<String, Set<Long>> userIdsByName) {
         Specification<Task> spec = Specification.where(null);
 
         // Если задан быстрый поиск, используем его
         if (filter.getQuickSearch() != null && !filter.getQuickSearch().isEmpty()) {
-            spec = spec.and(withQuickSearch(filter.getQuickSearch()));
+            spec = spec.and(withQuickSearch(filter.getQuickSearch(), userIdsByName));
         } else {
             // Иначе используем отдельные фильтры
             spec = spec.and(withNumber(filter.getNumber()))
@@ -283,7 +276,7 @@ public class TaskSpecifications {
                     .and(withMark(filter.getMark()))
                     .and(withTypeName(filter.getTypeName()))
                     .and(withRepresentative(filter.getRepresentative()))
-                    .and(withAssignedUser(filter.getAssignedUser()))
+                    .and(withAssignedUser(filter.getAssignedUser(), userIdsByName))
                     .and(withStatus(filter.getStatus()))
                     .and(withPaymentStatus(filter.getPaymentStatus()))
                     .and(withApplicationDateBetween(filter.getApplicationDateFrom(), filter.getApplicationDateTo()))
@@ -294,11 +287,55 @@ public class TaskSpecifications {
         return spec;
     }
 
-    public static Specification<Task> withQuickSearch(String quickSearch) {
+    // Фильтр задач как условие на task_list_view: id in (select t.id from tasks t where ...).
+    // Условия остаются теми же, что и для Task, а страница читается из read-model без загрузки связей.
+    public static Specification<TaskListView> forListView(Specification<Task> taskSpec) {
         return (root, query, criteriaBuilder) -> {
-            if (quickSearch == null || quickSearch.isEmpty()) {
-                return criteriaBuilder.conjunction();
+            Subquery<Long> taskSubquery = query.subquery(Long.class);
+            Root<Task> taskRoot = taskSubquery.from(Task.class);
+            taskSubquery.select(taskRoot.get("id"));
+            Predicate taskPredicate = taskSpec.toPredicate(taskRoot, query, criteriaBuilder);
+            if (taskPredicate != null) {
+                taskSubquery.where(taskPredicate);
             }
+            return root.get("id").in(taskSubquery);
+        };
+    }
+
+    // Быстрый поиск по FULLTEXT-индексу tasks.search_text; запрос без слов из двух и более символов ищется через LIKE
+    public static Specification<Task> withQuickSearch(String quickSearch, Function<String, Set<Long>> userIdsByName) {
+        String fullTextQuery = TaskSearchText.toBooleanQuery(quickSearch);
+        if (fullTextQuery == null) {
+            return withQuickSearchLike(quickSearch, userIdsByName);
+        }
+        String exactSubstring = TaskSearchText.exactSubstring(quickSearch);
+        return (root, query, criteriaBuilder) -> {
+            Predicate textPredicate = criteriaBuilder.greaterThan(
+                    criteriaBuilder.function(FullTextFunctionContributor.MATCH_AGAINST, Double.class,
+                            root.get("searchText"), criteriaBuilder.literal(fullTextQuery)),
+                    0.0
+            );
+            if (exactSubstring != null) {
+                // "ТС-123" не должен находить задачу "ТС-5" с договором "Д-123": кандидаты из индекса проверяются как подстрока
+                textPredicate = criteriaBuilder.and(textPredicate,
+                        criteriaBuilder.like(root.get("searchText"), "%" + exactSubstring + "%"));
+            }
+            try {
+                // Число может быть и ID исполнителя
+                Long userId = Long.parseLong(quickSearch.trim());
+                return criteriaBuilder.or(textPredicate, criteriaBuilder.equal(root.get("assignedUserId"), userId));
+            } catch (NumberFormatException e) {
+                return textPredicate;
+            }
+        };
+    }
+
+    private static Specification<Task> withQuickSearchLike(String quickSearch, Function<String, Set<Long>> userIdsByName) {
+        if (quickSearch == null || quickSearch.isEmpty()) {
+            return (root, query, criteriaBuilder) -> criteriaBuilder.conjunction();
+        }
+        Set<Long> userIdsMatchingName = isNumber(quickSearch) ? Set.of() : userIdsByName.apply(quickSearch);
+        return (root, query, criteriaBuilder) -> {
 
             String searchPattern = "%" + quickSearch.toLowerCase() + "%";
 
@@ -322,20 +359,10 @@ public class TaskSpecifications {
                 Long userId = Long.parseLong(quickSearch);
                 assignedUserPredicate = criteriaBuilder.equal(root.get("assignedUserId"), userId);
             } catch (NumberFormatException e) {
-                // Если не число, ищем по ФИО пользователя через подзапрос
-                Subquery<Long> userSubquery = query.subquery(Long.class);
-                Root<User> userRoot = userSubquery.from(User.class);
-                userSubquery.select(userRoot.get("id"));
-
-                Predicate userSearchPredicate = criteriaBuilder.or(
-                        criteriaBuilder.like(criteriaBuilder.lower(userRoot.get("secondName")), searchPattern),
-                        criteriaBuilder.like(criteriaBuilder.lower(userRoot.get("firstName")), searchPattern),
-                        criteriaBuilder.like(criteriaBuilder.lower(userRoot.get("patronymic")), searchPattern),
-                        criteriaBuilder.like(criteriaBuilder.lower(userRoot.get("email")), searchPattern)
-                );
-
-                userSubquery.where(userSearchPredicate);
-                assignedUserPredicate = criteriaBuilder.in(root.get("assignedUserId")).value(userSubquery);
+                // Если не число, ищем по ФИО и почте пользователя; id найдены заранее по справочнику в памяти
+                assignedUserPredicate = userIdsMatchingName.isEmpty()
+                        ? criteriaBuilder.disjunction()
+                        : root.get("assignedUserId").in(userIdsMatchingName);
             }
 
             // LEFT JOIN, чтобы поиск по номеру заявки работал и для задач без договора
@@ -364,4 +391,13 @@ public class TaskSpecifications {
             );
         };
     }
+
+    private static boolean isNumber(String value) {
+        try {
+            Long.parseLong(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
 }
@@ -13,17 +13,14 @@ import org.springframework.web.bind.annotation.*;
 import backend_monolithic.config.JwtProvider;
 import backend_monolithic.error.ErrorResponse;
 import backend_monolithic.model.User;
-import backend_monolithic.model.dto.UserRegistrationNotification;
 import backend_monolithic.model.enums.Role;
 import backend_monolithic.repository.UserRepository;
 import backend_monolithic.request.LoginRequest;
 import backend_monolithic.response.AuthResponse;
 import backend_monolithic.service.CustomUserServiceImplementation;
-import backend_monolithic.service.NotificationProducerService;
 import backend_monolithic.service.UserService;
 
 import java.util.Collections;
-import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
@@ -34,7 +31,6 @@ public class AuthController {
     private final PasswordEncoder passwordEncoder;
     private final CustomUserServiceImplementation customUserServiceImplementation;
     private final UserService userService;
-    private final NotificationProducerService notificationProducerService;
 
     @PostMapping("/signup")
     public ResponseEntity<?> createUserHandler(
@@ -59,34 +55,9 @@ public class AuthController {
         newUser.getRoles().add(Role.EMPTY);
         newUser.setPassword(passwordEncoder.encode(password));
 
-        User savedUser = userRepository.save(newUser);
-
-        // Отправка уведомлений всем пользователям с ролью "Директор"
-        // Обернуто в try-catch, чтобы ошибка отправки не прерывала регистрацию
-        try {
-            List<User> directors = userService.getUsersByRole(Role.DIRECTOR);
-            for (User director : directors) {
-                try {
-                    UserRegistrationNotification notification = new UserRegistrationNotification();
-                    notification.setRecipientEmail(director.getEmail());
-                    notification.setRecipientName(buildShortName(director));
-                    notification.setNewUserEmail(savedUser.getEmail());
-                    notification.setNewUserFirstName(savedUser.getFirstName());
-                    notification.setNewUserSecondName(savedUser.getSecondName());
-                    notification.setNewUserPatronymic(savedUser.getPatronymic());
-                    
-                    notificationProducerService.sendUserRegistrationNotification(notification);
-                } catch (Exception e) {
-                    // Логируем ошибку, но продолжаем регистрацию
-                    System.err.println("Ошибка отправки уведомления директору " + director.getEmail() + ": " + e.getMessage());
-                    e.printStackTrace();
-                }
-            }
-        } catch (Exception e) {
-            // Логируем ошибку, но продолжаем регистрацию
-            System.err.println("Ошибка при отправке уведомлений о регистрации: " + e.getMessage());
-            e.printStackTrace();
-        }
+        // Пользователь и уведомления директорам сохраняются одной транзакцией,
+        // в Kafka уведомления уходят после фиксации через notification_outbox
+        userService.register(newUser);
 
         Authentication authentication = new UsernamePasswordAuthenticationToken(email, password);
         SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -148,24 +119,4 @@ public class AuthController {
         return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
     }
 
-    private String buildShortName(User user) {
-        StringBuilder shortName = new StringBuilder();
-        if (user.getSecondName() != null && !user.getSecondName().isBlank()) {
-            shortName.append(user.getSecondName());
-        }
-        if (user.getFirstName() != null && !user.getFirstName().isBlank()) {
-            if (shortName.length() > 0) {
-                shortName.append(" ");
-            }
-            shortName.append(user.getFirstName().charAt(0)).append(".");
-        }
-        if (user.getPatronymic() != null && !user.getPatronymic().isBlank()) {
-            if (shortName.length() > 0) {
-                shortName.append(" ");
-            }
-            shortName.append(user.getPatronymic().charAt(0)).append(".");
-        }
-        return shortName.toString();
-    }
-
 }
@@ -1,8 +1,6 @@
 package backend_monolithic.controller;
 
 
-import backend_monolithic.model.Contract;
-import backend_monolithic.repository.ContractRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,9 +10,7 @@ import org.springframework.web.bind.annotation.RestController;
 import backend_monolithic.model.Applicant;
 import backend_monolithic.model.Manufacturer;
 import backend_monolithic.model.Representative;
-import backend_monolithic.repository.ApplicantRepository;
-import backend_monolithic.repository.ManufacturerRepository;
-import backend_monolithic.repository.RepresentativeRepository;
+import backend_monolithic.service.DirectoryAutocomplete;
 
 import java.util.List;
 
@@ -24,33 +20,31 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SupportingController {
 
-    private final ApplicantRepository applicantRepository;
-    private final ManufacturerRepository manufacturerRepository;
-    private final RepresentativeRepository representativeRepository;
+    private static final int MAX_SUGGESTIONS = 100;
 
+    private final DirectoryAutocomplete directoryAutocomplete;
 
+    // Подсказки при вводе: без строки поиска — первые limit записей, а не вся таблица
     @GetMapping("/applicants/search")
-    public List<Applicant> searchApplicants(@RequestParam(required = false) String search) {
-        if (search != null && !search.isEmpty()) {
-            return applicantRepository.findByNameContainingIgnoreCase(search);
-        }
-        return applicantRepository.findAll();
+    public List<Applicant> searchApplicants(@RequestParam(required = false) String search,
+                                            @RequestParam(defaultValue = "20") int limit) {
+        return directoryAutocomplete.searchApplicants(search, boundedLimit(limit));
     }
 
     @GetMapping("/manufacturers/search")
-    public List<Manufacturer> searchManufacturers(@RequestParam(required = false) String search) {
-        if (search != null && !search.isEmpty()) {
-            return manufacturerRepository.findByNameContainingIgnoreCase(search);
-        }
-        return manufacturerRepository.findAll();
+    public List<Manufacturer> searchManufacturers(@RequestParam(required = false) String search,
+                                                  @RequestParam(defaultValue = "20") int limit) {
+        return directoryAutocomplete.searchManufacturers(search, boundedLimit(limit));
     }
 
     @GetMapping("/representatives/search")
-    public List<Representative> searchRepresentatives(@RequestParam(required = false) String search) {
-        if (search != null && !search.isEmpty()) {
-            return representativeRepository.findByNameContainingIgnoreCase(search);
-        }
-        return representativeRepository.findAll();
+    public List<Representative> searchRepresentatives(@RequestParam(required = false) String search,
+                                                      @RequestParam(defaultValue = "20") int limit) {
+        return directoryAutocomplete.searchRepresentatives(search, boundedLimit(limit));
+    }
+
+    private static int boundedLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
     }
 
 }
@@ -5,14 +5,23 @@ import backend_monolithic.error.TaskNotFoundException;
 import backend_monolithic.model.dto.*;
 import backend_monolithic.model.enums.TaskStatus;
 import backend_monolithic.service.TaskService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
@@ -23,7 +32,14 @@ import java.util.Map;
 @RequestMapping("/tasks")
 @RequiredArgsConstructor
 public class TaskController {
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final int STREAM_BATCH_SIZE = 200;
+
     private final TaskService taskService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.tasks.stream.timeout-ms:600000}")
+    private long streamTimeoutMs;
 
     @PostMapping
     public ResponseEntity<?> createTask(
@@ -59,6 +75,21 @@ public class TaskController {
         return ResponseEntity.ok(taskService.getAllTasks(jwt));
     }
 
+    // Потоковая выгрузка всех задач в формате NDJSON (одна задача на строку).
+    // Задачи читаются из БД пачками, поэтому потребление памяти не зависит от количества задач.
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllTasks(
+            @RequestHeader("Authorization") String jwt,
+            HttpServletRequest request) {
+        // Длинный таймаут асинхронной обработки нужен только выгрузке, остальные запросы живут с таймаутом по умолчанию
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(streamTimeoutMs);
+        StreamingResponseBody body = outputStream ->
+                taskService.streamAllTasks(STREAM_BATCH_SIZE, batch -> writeNdjsonBatch(batch, outputStream));
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<TaskResponse> getTaskById(@PathVariable Long id) {
         return ResponseEntity.ok(taskService.getTaskById(id));
@@ -196,22 +227,9 @@ public class TaskController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
 
-        TaskFilter filter = new TaskFilter();
-        filter.setQuickSearch(quickSearch);
-        filter.setNumber(number);
-        filter.setDocumentNumber(documentNumber);
-        filter.setApplicant(applicant);
-        filter.setManufacturer(manufacturer);
-        filter.setMark(mark);
-        filter.setTypeName(typeName);
-        filter.setRepresentative(representative);
-        filter.setAssignedUser(assignedUser);
-        filter.setStatus(status);
-        filter.setPaymentStatus(paymentStatus);
-        filter.setHasContract(hasContract);
-        filter.setContractNumber(contractNumber);
-        filter.setApplicationDateFrom(applicationDateFrom);
-        filter.setApplicationDateTo(applicationDateTo);
+        TaskFilter filter = buildFilter(quickSearch, number, documentNumber, applicant, manufacturer, mark, typeName,
+                representative, assignedUser, status, paymentStatus, hasContract, contractNumber,
+                applicationDateFrom, applicationDateTo);
 
         PageResponse<TaskResponse> response = taskService.getFilteredTasks(filter, jwt, page, size);
         return ResponseEntity.ok(response);
@@ -228,6 +246,47 @@ public class TaskController {
         return ResponseEntity.ok(response);
     }
 
+    // Курсорная (keyset) пагинация: следующая страница запрашивается по токену after из предыдущего ответа.
+    // Общее количество не считается, если явно не запрошено withTotal=true.
+    @GetMapping("/search/scroll")
+    public ResponseEntity<CursorPageResponse<TaskResponse>> scrollTasks(
+            @RequestHeader("Authorization") String jwt,
+            @RequestParam(required = false) String quickSearch,
+            @RequestParam(required = false) String number,
+            @RequestParam(required = false) String documentNumber,
+            @RequestParam(required = false) String applicant,
+            @RequestParam(required = false) String manufacturer,
+            @RequestParam(required = false) String mark,
+            @RequestParam(required = false) String typeName,
+            @RequestParam(required = false) String representative,
+            @RequestParam(required = false) String assignedUser,
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) Boolean paymentStatus,
+            @RequestParam(required = false) Boolean hasContract,
+            @RequestParam(required = false) String contractNumber,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate applicationDateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate applicationDateTo,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+
+        TaskFilter filter = buildFilter(quickSearch, number, documentNumber, applicant, manufacturer, mark, typeName,
+                representative, assignedUser, status, paymentStatus, hasContract, contractNumber,
+                applicationDateFrom, applicationDateTo);
+
+        return ResponseEntity.ok(taskService.scrollFilteredTasks(filter, jwt, after, size, withTotal));
+    }
+
+    @PostMapping("/search/scroll")
+    public ResponseEntity<CursorPageResponse<TaskResponse>> scrollTasksPost(
+            @RequestHeader("Authorization") String jwt,
+            @RequestBody TaskFilter filter,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        return ResponseEntity.ok(taskService.scrollFilteredTasks(filter, jwt, after, size, withTotal));
+    }
+
     @PostMapping("/check-duplicates")
     public ResponseEntity<List<TaskDuplicateInfo>> checkDuplicates(
             @Valid @RequestBody TaskRequest request) {
@@ -243,4 +302,49 @@ public class TaskController {
         PageResponse<TaskResponse> response = taskService.getMyTasks(jwt, page, size);
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/my/scroll")
+    public ResponseEntity<CursorPageResponse<TaskResponse>> scrollMyTasks(
+            @RequestHeader("Authorization") String jwt,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        return ResponseEntity.ok(taskService.scrollMyTasks(jwt, after, size, withTotal));
+    }
+
+    private void writeNdjsonBatch(List<TaskResponse> batch, OutputStream outputStream) {
+        try {
+            for (TaskResponse task : batch) {
+                outputStream.write(objectMapper.writeValueAsBytes(task));
+                outputStream.write('\n');
+            }
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private TaskFilter buildFilter(String quickSearch, String number, String documentNumber, String applicant,
+                                   String manufacturer, String mark, String typeName, String representative,
+                                   String assignedUser, TaskStatus status, Boolean paymentStatus,
+                                   Boolean hasContract, String contractNumber,
+                                   LocalDate applicationDateFrom, LocalDate applicationDateTo) {
+        TaskFilter filter = new TaskFilter();
+        filter.setQuickSearch(quickSearch);
+        filter.setNumber(number);
+        filter.setDocumentNumber(documentNumber);
+        filter.setApplicant(applicant);
+        filter.setManufacturer(manufacturer);
+        filter.setMark(mark);
+        filter.setTypeName(typeName);
+        filter.setRepresentative(representative);
+        filter.setAssignedUser(assignedUser);
+        filter.setStatus(status);
+        filter.setPaymentStatus(paymentStatus);
+        filter.setHasContract(hasContract);
+        filter.setContractNumber(contractNumber);
+        filter.setApplicationDateFrom(applicationDateFrom);
+        filter.setApplicationDateTo(applicationDateTo);
+        return filter;
+    }
+}
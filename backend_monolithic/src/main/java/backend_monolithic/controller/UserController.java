@@ -7,6 +7,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import backend_monolithic.model.User;
 import backend_monolithic.model.dto.ProfileAnalyticsResponse;
+import backend_monolithic.model.dto.TeamAnalyticsResponse;
 import backend_monolithic.model.dto.UserInfo;
 import backend_monolithic.model.enums.Role;
 import backend_monolithic.service.ProfileAnalyticsService;
@@ -101,6 +102,20 @@ public class UserController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/analytics")
+    public ResponseEntity<?> getTeamAnalytics(
+            @RequestHeader("Authorization") String jwt,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        User requester = userService.getUserProfile(jwt);
+        if (requester.getRoles() == null || !requester.getRoles().contains(Role.DIRECTOR)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("message", "Доступ разрешен только пользователям с ролью 'Руководитель'"));
+        }
+        TeamAnalyticsResponse response = profileAnalyticsService.getTeamAnalytics(startDate, endDate);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}/analytics")
     public ResponseEntity<?> getUserAnalytics(
             @PathVariable("id") Long id,
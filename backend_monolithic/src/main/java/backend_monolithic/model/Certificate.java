@@ -14,7 +14,12 @@ import java.util.List;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "certificates")
+@Table(name = "certificates", indexes = {
+        @Index(name = "idx_certificates_duplicate_fingerprint", columnList = "duplicate_fingerprint"),
+        @Index(name = "idx_certificates_assigned_user_created_at", columnList = "assigned_user_id, created_at"),
+        @Index(name = "idx_certificates_registered_by_registered_at",
+                columnList = "registered_by_user_id, certificate_registered_at")
+})
 public class Certificate {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -51,6 +56,10 @@ public class Certificate {
     private Long createdBy;
     private LocalDateTime createdAt;
 
+    // Хеш полей для проверки дубликатов, см. DuplicateFingerprint
+    @Column(name = "duplicate_fingerprint", length = 64)
+    private String duplicateFingerprint;
+
     @Enumerated(EnumType.STRING)
     private CertificateStatus status;
 
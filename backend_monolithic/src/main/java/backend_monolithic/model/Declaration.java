@@ -14,7 +14,10 @@ import java.util.List;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "declarations")
+@Table(name = "declarations", indexes = {
+        @Index(name = "idx_declarations_duplicate_fingerprint", columnList = "duplicate_fingerprint"),
+        @Index(name = "idx_declarations_assigned_user_created_at", columnList = "assigned_user_id, created_at")
+})
 public class Declaration {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -50,6 +53,10 @@ public class Declaration {
     private Long createdBy;
     private LocalDateTime createdAt;
 
+    // Хеш полей для проверки дубликатов, см. DuplicateFingerprint
+    @Column(name = "duplicate_fingerprint", length = 64)
+    private String duplicateFingerprint;
+
     @Enumerated(EnumType.STRING)
     private DeclarationStatus status;
 
@@ -0,0 +1,47 @@
+package backend_monolithic.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Запись outbox: рассылка уведомлений, сохранённая в одной транзакции с бизнес-изменением.
+// Одна строка на рассылку, payload — JSON-массив уведомлений.
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "notification_outbox", indexes = {
+        @Index(name = "idx_notification_outbox_pending", columnList = "sent_at, id")
+})
+public class NotificationOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 128)
+    private String type;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "LONGTEXT")
+    private String payload;
+
+    private int messageCount;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    // Строка занята relay до этого момента: отправка идёт вне транзакции, без блокировки строки
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    private int attempts;
+
+    @Column(length = 1000)
+    private String lastError;
+}
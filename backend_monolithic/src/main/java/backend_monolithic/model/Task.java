@@ -9,6 +9,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import backend_monolithic.model.Representative;
 import backend_monolithic.model.enums.TaskStatus;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
@@ -22,7 +23,13 @@ import java.util.stream.Collectors;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_duplicate_fingerprint", columnList = "duplicate_fingerprint"),
+        @Index(name = "idx_tasks_created_at", columnList = "created_at, id"),
+        @Index(name = "idx_tasks_assigned_user_status", columnList = "assigned_user_id, status"),
+        @Index(name = "idx_tasks_assigned_user_created_at", columnList = "assigned_user_id, created_at"),
+        @Index(name = "idx_tasks_status", columnList = "status")
+})
 public class Task {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -46,7 +53,9 @@ public class Task {
     @JoinColumn(name = "manufacturer_id")
     private Manufacturer manufacturer;
 
+    // Категории страницы задач загружаются одним IN-запросом, а не по запросу на задачу
     @ElementCollection
+    @BatchSize(size = 100)
     private List<String> categories;
 
     private String mark;
@@ -72,6 +81,15 @@ public class Task {
     @Column(length = 64)
     private TaskStatus status;
 
+    // Хеш полей для проверки дубликатов, см. DuplicateFingerprint
+    @Column(name = "duplicate_fingerprint", length = 64)
+    private String duplicateFingerprint;
+
+    // Текст для быстрого поиска (FULLTEXT ngram), см. TaskSearchText
+    @Column(name = "search_text", length = 2000)
+    private String searchText;
+
+    @Column(nullable = false)
     private LocalDateTime createdAt;
     private LocalDate decisionAt;
     private LocalDate completedAt;
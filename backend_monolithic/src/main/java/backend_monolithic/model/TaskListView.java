@@ -0,0 +1,68 @@
+package backend_monolithic.model;
+
+import backend_monolithic.model.enums.PaymentStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Строка списка задач с уже подставленными названиями справочников и данными договора.
+// Поиск задач читает страницу отсюда одним запросом вместо загрузки Task со всеми связями.
+// Пользователи хранятся идентификаторами: ФИО подставляются из UserDirectory при чтении.
+// Таблицу поддерживает TaskListProjection.
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "task_list_view", indexes = {
+        @Index(name = "idx_task_list_view_created_at", columnList = "created_at, id")
+})
+public class TaskListView {
+    // Совпадает с tasks.id
+    @Id
+    private Long id;
+
+    private String number;
+    private String documentNumber;
+    private String docType;
+    private String applicantName;
+    private String manufacturerName;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    private List<String> categories;
+
+    private String mark;
+    private String typeName;
+    private String processType;
+    private String previousProcessType;
+    private String previousNumber;
+    private String representativeName;
+    private LocalDate applicationDate;
+    private LocalDate decisionAt;
+    private LocalDate completedAt;
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(length = 64)
+    private String status;
+
+    private Long createdBy;
+    private Long assignedUserId;
+
+    private Long contractId;
+    private String contractNumber;
+    private LocalDate contractDate;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(length = 32)
+    private PaymentStatus contractPaymentStatus;
+
+    private String contractApplicantName;
+}
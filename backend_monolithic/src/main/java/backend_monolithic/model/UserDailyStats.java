@@ -0,0 +1,43 @@
+package backend_monolithic.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+// Дневные агрегаты аналитики по пользователю.
+// active_* — приращения числа активных документов за день: текущее значение равно сумме по всем дням.
+// completed_* — число документов, завершённых в этот день.
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@IdClass(UserDailyStats.Key.class)
+@Table(name = "user_daily_stats")
+public class UserDailyStats {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "stat_date")
+    private LocalDate statDate;
+
+    private int activeTasks;
+    private int activeDeclarations;
+    private int activeCertificates;
+    private int completedTasks;
+    private int completedDeclarations;
+    private int completedCertificates;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private LocalDate statDate;
+    }
+}
@@ -9,7 +9,7 @@ import java.time.LocalDate;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class CertificateRegisteredNotification {
+public class CertificateRegisteredNotification implements Notification {
     private String recipientEmail;
     private String recipientName;
     private String applicationNumber;
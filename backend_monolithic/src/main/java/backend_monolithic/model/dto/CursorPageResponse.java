@@ -0,0 +1,17 @@
+package backend_monolithic.model.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+// Страница в режиме курсорной (keyset) пагинации: без COUNT-запроса и без OFFSET
+@Data
+public class CursorPageResponse<T> {
+    private List<T> content;
+    private int pageSize;
+    private boolean hasNext;
+    // Непрозрачный токен для запроса следующей страницы (null, если страниц больше нет)
+    private String nextCursor;
+    // Общее количество заполняется только по запросу и может быть взято из кэша
+    private Long totalElements;
+}
@@ -0,0 +1,6 @@
+package backend_monolithic.model.dto;
+
+// Общий интерфейс уведомлений, отправляемых в Kafka: ключ сообщения — email получателя
+public interface Notification {
+    String getRecipientEmail();
+}
@@ -7,7 +7,7 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class TaskAssignmentNotification {
+public class TaskAssignmentNotification implements Notification {
     private String recipientEmail;
     private String recipientName;
     private Long taskId;
@@ -0,0 +1,44 @@
+package backend_monolithic.model.dto;
+
+import backend_monolithic.error.BusinessException;
+import backend_monolithic.model.Task;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Позиция последней отданной задачи в порядке (createdAt DESC, id DESC)
+@Data
+@AllArgsConstructor
+public class TaskCursor {
+    private LocalDateTime createdAt;
+    private Long id;
+
+    public static TaskCursor of(Task task) {
+        return new TaskCursor(task.getCreatedAt(), task.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator <= 0) {
+                throw new BusinessException("Некорректный курсор страницы");
+            }
+            return new TaskCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException("Некорректный курсор страницы");
+        }
+    }
+}
@@ -9,7 +9,7 @@ import java.time.LocalDate;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class TaskDecisionNotification {
+public class TaskDecisionNotification implements Notification {
     private String recipientEmail;
     private String recipientName;
     private Long taskId;
@@ -0,0 +1,18 @@
+package backend_monolithic.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamAnalyticsResponse {
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+
+    private List<UserAnalyticsResponse> users;
+}
@@ -0,0 +1,20 @@
+package backend_monolithic.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserAnalyticsResponse {
+    private UserInfo user;
+
+    private long activeTasks;
+    private long activeDeclarations;
+    private long activeCertificates;
+
+    private long completedTasks;
+    private long completedDeclarations;
+    private long completedCertificates;
+}
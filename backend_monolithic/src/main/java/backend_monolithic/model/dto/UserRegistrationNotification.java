@@ -7,7 +7,7 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class UserRegistrationNotification {
+public class UserRegistrationNotification implements Notification {
     private String recipientEmail;
     private String recipientName;
     private String newUserEmail;
@@ -16,6 +16,9 @@ public interface CertificateRepository extends JpaRepository<Certificate, Long>
 
     List<Certificate> findByStatusNot(CertificateStatus status);
 
+    // Проверка дубликатов по индексированному отпечатку
+    List<Certificate> findByDuplicateFingerprintAndStatusNot(String duplicateFingerprint, CertificateStatus status);
+
     List<Certificate> findByAssignedUserIdOrRegisteredByUserIdOrderByCreatedAtDesc(Long assignedUserId, Long registeredByUserId);
 
     @Query("""
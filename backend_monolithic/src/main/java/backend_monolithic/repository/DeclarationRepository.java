@@ -14,6 +14,9 @@ public interface DeclarationRepository extends JpaRepository<Declaration, Long>
 
     List<Declaration> findByStatusNot(DeclarationStatus status);
 
+    // Проверка дубликатов по индексированному отпечатку
+    List<Declaration> findByDuplicateFingerprintAndStatusNot(String duplicateFingerprint, DeclarationStatus status);
+
     List<Declaration> findByAssignedUserIdOrderByCreatedAtDesc(Long assignedUserId);
 
     long countByAssignedUserIdAndStatusNot(Long assignedUserId, DeclarationStatus status);
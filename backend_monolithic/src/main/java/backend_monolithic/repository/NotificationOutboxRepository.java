@@ -0,0 +1,36 @@
+package backend_monolithic.repository;
+
+import backend_monolithic.model.NotificationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    // Блокируем пачку неотправленных записей без действующей аренды; строки, занятые другим экземпляром, пропускаются.
+    // Блокировка держится только до коммита транзакции, в которой relay проставляет claimed_until
+    @Query(value = """
+            SELECT * FROM notification_outbox
+            WHERE sent_at IS NULL AND attempts < :maxAttempts
+              AND (claimed_until IS NULL OR claimed_until < :now)
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<NotificationOutbox> lockPendingBatch(@Param("maxAttempts") int maxAttempts,
+                                              @Param("now") LocalDateTime now,
+                                              @Param("limit") int limit);
+
+    long countBySentAtIsNull();
+
+    // Рассылки, исчерпавшие попытки: relay их больше не берёт, нужен разбор оператором
+    long countBySentAtIsNullAndAttemptsGreaterThanEqual(int attempts);
+
+    @Modifying
+    @Query("DELETE FROM NotificationOutbox o WHERE o.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,19 @@
+package backend_monolithic.repository;
+
+import backend_monolithic.model.TaskListView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface TaskListViewRepository extends JpaRepository<TaskListView, Long>, JpaSpecificationExecutor<TaskListView> {
+
+    // Строки задач, которых уже нет в tasks
+    @Modifying
+    @Query(value = """
+            DELETE v FROM task_list_view v
+            LEFT JOIN tasks t ON t.id = v.id
+            WHERE t.id IS NULL
+            """, nativeQuery = true)
+    int deleteOrphans();
+}
@@ -0,0 +1,19 @@
+package backend_monolithic.repository;
+
+import backend_monolithic.model.Task;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.repository.Repository;
+
+// Страницы задач для ответа API: связи "к одному" подтягиваются тем же select через entity graph,
+// категории страницы догружаются одним IN-запросом (@BatchSize на Task.categories).
+// Граф применяется только к выборке страницы, count-запрос остаётся без join.
+public interface TaskPageRepository extends Repository<Task, Long>, JpaSpecificationExecutor<Task> {
+
+    @Override
+    @EntityGraph(attributePaths = {"applicant", "manufacturer", "representative", "contract", "contract.applicant"})
+    Page<Task> findAll(Specification<Task> spec, Pageable pageable);
+}
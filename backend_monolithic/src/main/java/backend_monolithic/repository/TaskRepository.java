@@ -12,6 +12,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -22,6 +23,25 @@ public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificat
 
     List<Task> findByStatusNot(TaskStatus status);
 
+    // Проверка дубликатов по индексированному отпечатку
+    List<Task> findByDuplicateFingerprintAndStatusNot(String duplicateFingerprint, TaskStatus status);
+
+    // Сверка task_list_view: задачи читаются пачками по id, связи подтягиваются одним запросом на пачку
+    @Query("SELECT t.id FROM Task t WHERE t.id > :afterId ORDER BY t.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("""
+            SELECT DISTINCT t FROM Task t
+            LEFT JOIN FETCH t.applicant
+            LEFT JOIN FETCH t.manufacturer
+            LEFT JOIN FETCH t.representative
+            LEFT JOIN FETCH t.categories
+            LEFT JOIN FETCH t.contract c
+            LEFT JOIN FETCH c.applicant
+            WHERE t.id IN :ids
+            """)
+    List<Task> findAllForListViewByIdIn(@Param("ids") Collection<Long> ids);
+
     // Находим задачи без договора (One-to-Many)
     List<Task> findByContractIsNull();
 
@@ -35,6 +55,33 @@ public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificat
     List<Task> findAll(Specification<Task> spec);
     List<Task> findAll(Specification<Task> spec, Sort sort);
 
+    // Выгрузка всех задач пачками в порядке создания (новые первыми), keyset-условием по (createdAt, id).
+    // Условие полагается на NOT NULL created_at (V7): строка с NULL не прошла бы ни одно сравнение и выпала бы из выгрузки.
+    // Связи "к одному" подтягиваются тем же запросом, категории пачки — через @BatchSize.
+    @Query("""
+            SELECT t FROM Task t
+            LEFT JOIN FETCH t.applicant
+            LEFT JOIN FETCH t.manufacturer
+            LEFT JOIN FETCH t.representative
+            LEFT JOIN FETCH t.contract c
+            LEFT JOIN FETCH c.applicant
+            ORDER BY t.createdAt DESC, t.id DESC
+            """)
+    List<Task> findExportBatch(Pageable pageable);
+
+    @Query("""
+            SELECT t FROM Task t
+            LEFT JOIN FETCH t.applicant
+            LEFT JOIN FETCH t.manufacturer
+            LEFT JOIN FETCH t.representative
+            LEFT JOIN FETCH t.contract c
+            LEFT JOIN FETCH c.applicant
+            WHERE t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)
+            ORDER BY t.createdAt DESC, t.id DESC
+            """)
+    List<Task> findExportBatchAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                    Pageable pageable);
+
     // Загружаем задачу с договором (One-to-Many)
     @Query("SELECT DISTINCT t FROM Task t LEFT JOIN FETCH t.contract WHERE t.id = :id")
     Optional<Task> findByIdWithContract(@Param("id") Long id);
@@ -0,0 +1,166 @@
+package backend_monolithic.repository;
+
+import backend_monolithic.model.UserDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface UserDailyStatsRepository extends JpaRepository<UserDailyStats, UserDailyStats.Key> {
+
+    interface Totals {
+        Long getActiveTasks();
+        Long getActiveDeclarations();
+        Long getActiveCertificates();
+        Long getCompletedTasks();
+        Long getCompletedDeclarations();
+        Long getCompletedCertificates();
+    }
+
+    // Активные — сумма приращений за всё время, завершённые — только за период
+    @Query("""
+            select coalesce(sum(s.activeTasks), 0) as activeTasks,
+                   coalesce(sum(s.activeDeclarations), 0) as activeDeclarations,
+                   coalesce(sum(s.activeCertificates), 0) as activeCertificates,
+                   coalesce(sum(case when s.statDate between :start and :end then s.completedTasks else 0 end), 0)
+                       as completedTasks,
+                   coalesce(sum(case when s.statDate between :start and :end then s.completedDeclarations else 0 end), 0)
+                       as completedDeclarations,
+                   coalesce(sum(case when s.statDate between :start and :end then s.completedCertificates else 0 end), 0)
+                       as completedCertificates
+            from UserDailyStats s
+            where s.userId = :userId
+            """)
+    Totals findTotals(@Param("userId") Long userId, @Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    interface UserTotals extends Totals {
+        Long getUserId();
+    }
+
+    // То же для всех пользователей одним сгруппированным запросом
+    @Query("""
+            select s.userId as userId,
+                   coalesce(sum(s.activeTasks), 0) as activeTasks,
+                   coalesce(sum(s.activeDeclarations), 0) as activeDeclarations,
+                   coalesce(sum(s.activeCertificates), 0) as activeCertificates,
+                   coalesce(sum(case when s.statDate between :start and :end then s.completedTasks else 0 end), 0)
+                       as completedTasks,
+                   coalesce(sum(case when s.statDate between :start and :end then s.completedDeclarations else 0 end), 0)
+                       as completedDeclarations,
+                   coalesce(sum(case when s.statDate between :start and :end then s.completedCertificates else 0 end), 0)
+                       as completedCertificates
+            from UserDailyStats s
+            group by s.userId
+            """)
+    List<UserTotals> findTotalsByUser(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_daily_stats (user_id, stat_date, active_tasks, active_declarations, active_certificates,
+                                          completed_tasks, completed_declarations, completed_certificates)
+            VALUES (:userId, :statDate, :activeTasks, :activeDeclarations, :activeCertificates,
+                    :completedTasks, :completedDeclarations, :completedCertificates)
+            ON DUPLICATE KEY UPDATE
+                active_tasks = active_tasks + VALUES(active_tasks),
+                active_declarations = active_declarations + VALUES(active_declarations),
+                active_certificates = active_certificates + VALUES(active_certificates),
+                completed_tasks = completed_tasks + VALUES(completed_tasks),
+                completed_declarations = completed_declarations + VALUES(completed_declarations),
+                completed_certificates = completed_certificates + VALUES(completed_certificates)
+            """, nativeQuery = true)
+    void increment(@Param("userId") Long userId,
+                   @Param("statDate") LocalDate statDate,
+                   @Param("activeTasks") int activeTasks,
+                   @Param("activeDeclarations") int activeDeclarations,
+                   @Param("activeCertificates") int activeCertificates,
+                   @Param("completedTasks") int completedTasks,
+                   @Param("completedDeclarations") int completedDeclarations,
+                   @Param("completedCertificates") int completedCertificates);
+
+    // Перестроение из истории. Активные документы записываются на дату перестроения.
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_daily_stats (user_id, stat_date, active_tasks, active_declarations, active_certificates,
+                                          completed_tasks, completed_declarations, completed_certificates)
+            SELECT t.assigned_user_id, :today, COUNT(*), 0, 0, 0, 0, 0
+            FROM tasks t
+            WHERE t.assigned_user_id IS NOT NULL AND t.status NOT IN (:notActiveStatuses)
+            GROUP BY t.assigned_user_id
+            ON DUPLICATE KEY UPDATE active_tasks = active_tasks + VALUES(active_tasks)
+            """, nativeQuery = true)
+    int rebuildActiveTasks(@Param("today") LocalDate today,
+                           @Param("notActiveStatuses") Collection<String> notActiveStatuses);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_daily_stats (user_id, stat_date, active_tasks, active_declarations, active_certificates,
+                                          completed_tasks, completed_declarations, completed_certificates)
+            SELECT t.assigned_user_id, COALESCE(t.completed_at, t.decision_at), 0, 0, 0, COUNT(*), 0, 0
+            FROM tasks t
+            WHERE t.assigned_user_id IS NOT NULL AND t.status = :status
+              AND COALESCE(t.completed_at, t.decision_at) IS NOT NULL
+            GROUP BY t.assigned_user_id, COALESCE(t.completed_at, t.decision_at)
+            ON DUPLICATE KEY UPDATE completed_tasks = completed_tasks + VALUES(completed_tasks)
+            """, nativeQuery = true)
+    int rebuildCompletedTasks(@Param("status") String completedStatus);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_daily_stats (user_id, stat_date, active_tasks, active_declarations, active_certificates,
+                                          completed_tasks, completed_declarations, completed_certificates)
+            SELECT d.assigned_user_id, :today, 0, COUNT(*), 0, 0, 0, 0
+            FROM declarations d
+            WHERE d.assigned_user_id IS NOT NULL AND d.status <> :registeredStatus
+            GROUP BY d.assigned_user_id
+            ON DUPLICATE KEY UPDATE active_declarations = active_declarations + VALUES(active_declarations)
+            """, nativeQuery = true)
+    int rebuildActiveDeclarations(@Param("today") LocalDate today, @Param("registeredStatus") String registeredStatus);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_daily_stats (user_id, stat_date, active_tasks, active_declarations, active_certificates,
+                                          completed_tasks, completed_declarations, completed_certificates)
+            SELECT d.assigned_user_id, d.declaration_registered_at, 0, 0, 0, 0, COUNT(*), 0
+            FROM declarations d
+            WHERE d.assigned_user_id IS NOT NULL AND d.declaration_registered_at IS NOT NULL
+            GROUP BY d.assigned_user_id, d.declaration_registered_at
+            ON DUPLICATE KEY UPDATE completed_declarations = completed_declarations + VALUES(completed_declarations)
+            """, nativeQuery = true)
+    int rebuildCompletedDeclarations();
+
+    // Исполнитель и регистратор сертификата — один и тот же активный документ, если это один пользователь
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_daily_stats (user_id, stat_date, active_tasks, active_declarations, active_certificates,
+                                          completed_tasks, completed_declarations, completed_certificates)
+            SELECT u.user_id, :today, 0, 0, COUNT(*), 0, 0, 0
+            FROM (
+                SELECT c.assigned_user_id AS user_id FROM certificates c
+                WHERE c.assigned_user_id IS NOT NULL AND c.status <> :registeredStatus
+                UNION ALL
+                SELECT c.registered_by_user_id FROM certificates c
+                WHERE c.registered_by_user_id IS NOT NULL AND c.status <> :registeredStatus
+                  AND (c.assigned_user_id IS NULL OR c.assigned_user_id <> c.registered_by_user_id)
+            ) u
+            GROUP BY u.user_id
+            ON DUPLICATE KEY UPDATE active_certificates = active_certificates + VALUES(active_certificates)
+            """, nativeQuery = true)
+    int rebuildActiveCertificates(@Param("today") LocalDate today, @Param("registeredStatus") String registeredStatus);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_daily_stats (user_id, stat_date, active_tasks, active_declarations, active_certificates,
+                                          completed_tasks, completed_declarations, completed_certificates)
+            SELECT c.registered_by_user_id, c.certificate_registered_at, 0, 0, 0, 0, 0, COUNT(*)
+            FROM certificates c
+            WHERE c.registered_by_user_id IS NOT NULL AND c.certificate_registered_at IS NOT NULL
+            GROUP BY c.registered_by_user_id, c.certificate_registered_at
+            ON DUPLICATE KEY UPDATE completed_certificates = completed_certificates + VALUES(completed_certificates)
+            """, nativeQuery = true)
+    int rebuildCompletedCertificates();
+}
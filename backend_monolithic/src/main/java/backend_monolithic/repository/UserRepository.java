@@ -6,6 +6,7 @@ import org.springframework.data.repository.query.Param;
 import backend_monolithic.model.User;
 import backend_monolithic.model.enums.Role;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +15,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
     public Boolean existsByEmail(String email);
     @Query("SELECT u FROM User u JOIN u.roles r WHERE r = :role")
     List<User> findByRole(@Param("role") Role role);
+
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles")
+    List<User> findAllWithRoles();
+
+    // Загружаем пользователей пачкой вместе с ролями одним запросом
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles WHERE u.id IN :ids")
+    List<User> findAllWithRolesByIdIn(@Param("ids") Collection<Long> ids);
 }
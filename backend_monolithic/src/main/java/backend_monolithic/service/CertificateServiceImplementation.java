@@ -32,6 +32,9 @@ public class CertificateServiceImplementation implements CertificateService {
     private final RepresentativeRepository representativeRepository;
     private final UserService userService;
     private final NotificationProducerService notificationProducerService;
+    private final DuplicateFingerprint duplicateFingerprint;
+    private final UserActivityStats userActivityStats;
+    private final DirectoryAutocomplete directoryAutocomplete;
 
     @Override
     @Transactional
@@ -42,8 +45,9 @@ public class CertificateServiceImplementation implements CertificateService {
         certificate.setCreatedBy(user.getId());
         certificate.setCreatedAt(LocalDateTime.now());
         certificate.setStatus(CertificateStatus.RECEIVED);
+        certificate.setDuplicateFingerprint(duplicateFingerprint.forCertificate(certificate));
 
-        return mapEntityToResponse(certificateRepository.save(certificate));
+        return mapEntityToResponse(saveAndRecord(UserActivityStats.Contribution.NONE, certificate));
     }
 
     @Override
@@ -76,6 +80,7 @@ public class CertificateServiceImplementation implements CertificateService {
     public CertificateResponse updateCertificate(Long certificateId, CertificateRequest request) {
         Certificate certificate = certificateRepository.findById(certificateId)
                 .orElseThrow(() -> new EntityNotFoundException("Сертификат не найден"));
+        UserActivityStats.Contribution before = userActivityStats.snapshot(certificate);
 
         if (certificate.getStatus() == CertificateStatus.CERTIFICATE_REGISTERED) {
             throw new BusinessException("Нельзя редактировать зарегистрированный сертификат");
@@ -91,8 +96,9 @@ public class CertificateServiceImplementation implements CertificateService {
         certificate.setCommercialNames(request.getCommercialNames());
         certificate.setStandardSection(requireStandardSection(request.getStandardSection()));
         certificate.setAssignedUserId(request.getAssignedUserId());
+        certificate.setDuplicateFingerprint(duplicateFingerprint.forCertificate(certificate));
 
-        return mapEntityToResponse(certificateRepository.save(certificate));
+        return mapEntityToResponse(saveAndRecord(before, certificate));
     }
 
     @Override
@@ -100,12 +106,14 @@ public class CertificateServiceImplementation implements CertificateService {
     public void deleteCertificate(Long certificateId) {
         Certificate certificate = certificateRepository.findById(certificateId)
                 .orElseThrow(() -> new EntityNotFoundException("Сертификат не найден"));
+        UserActivityStats.Contribution before = userActivityStats.snapshot(certificate);
 
         if (certificate.getStatus() == CertificateStatus.CERTIFICATE_REGISTERED) {
             throw new BusinessException("Нельзя удалить зарегистрированный сертификат");
         }
 
         certificateRepository.delete(certificate);
+        userActivityStats.record(before, UserActivityStats.Contribution.NONE);
     }
 
     @Override
@@ -133,6 +141,7 @@ public class CertificateServiceImplementation implements CertificateService {
     public CertificateResponse updateStatus(Long certificateId, CertificateStatus status, String certificateNumber) {
         Certificate certificate = certificateRepository.findById(certificateId)
                 .orElseThrow(() -> new EntityNotFoundException("Сертификат не найден"));
+        UserActivityStats.Contribution before = userActivityStats.snapshot(certificate);
 
         if (certificate.getStatus() == CertificateStatus.CERTIFICATE_REGISTERED) {
             throw new BusinessException("Нельзя изменить статус зарегистрированного сертификата");
@@ -153,13 +162,13 @@ public class CertificateServiceImplementation implements CertificateService {
             certificate.setCertificateNumber(normalizedCertificateNumber);
             certificate.setCertificateRegisteredAt(LocalDate.now());
             certificate.setStatus(CertificateStatus.CERTIFICATE_REGISTERED);
-            certificate = certificateRepository.save(certificate);
+            certificate = saveAndRecord(before, certificate);
             sendCertificateRegisteredNotifications(certificate);
             return mapEntityToResponse(certificate);
         }
 
         certificate.setStatus(status);
-        return mapEntityToResponse(certificateRepository.save(certificate));
+        return mapEntityToResponse(saveAndRecord(before, certificate));
     }
 
     @Override
@@ -167,6 +176,7 @@ public class CertificateServiceImplementation implements CertificateService {
     public CertificateResponse updateCertificateExpert(Long certificateId, Long assignedUserId) {
         Certificate certificate = certificateRepository.findById(certificateId)
                 .orElseThrow(() -> new EntityNotFoundException("Сертификат не найден"));
+        UserActivityStats.Contribution before = userActivityStats.snapshot(certificate);
 
         if (assignedUserId == null) {
             certificate.setAssignedUserId(null);
@@ -179,7 +189,7 @@ public class CertificateServiceImplementation implements CertificateService {
             certificate.setAssignedUserId(assignedUserId);
         }
 
-        return mapEntityToResponse(certificateRepository.save(certificate));
+        return mapEntityToResponse(saveAndRecord(before, certificate));
     }
 
     @Override
@@ -187,6 +197,7 @@ public class CertificateServiceImplementation implements CertificateService {
     public CertificateResponse updateCertificateRegistrar(Long certificateId, Long registeredByUserId) {
         Certificate certificate = certificateRepository.findById(certificateId)
                 .orElseThrow(() -> new EntityNotFoundException("Сертификат не найден"));
+        UserActivityStats.Contribution before = userActivityStats.snapshot(certificate);
 
         if (registeredByUserId == null) {
             certificate.setRegisteredByUserId(null);
@@ -199,7 +210,7 @@ public class CertificateServiceImplementation implements CertificateService {
             certificate.setRegisteredByUserId(registeredByUserId);
         }
 
-        return mapEntityToResponse(certificateRepository.save(certificate));
+        return mapEntityToResponse(saveAndRecord(before, certificate));
     }
 
     @Override
@@ -215,11 +226,11 @@ public class CertificateServiceImplementation implements CertificateService {
 
     @Override
     public List<CertificateDuplicateInfo> checkDuplicates(CertificateRequest request) {
-        List<Certificate> existing = certificateRepository.findByStatusNot(CertificateStatus.CERTIFICATE_REGISTERED);
         Certificate incoming = mapRequestToEntityForComparison(request);
+        List<Certificate> existing = certificateRepository.findByDuplicateFingerprintAndStatusNot(
+                duplicateFingerprint.forCertificate(incoming), CertificateStatus.CERTIFICATE_REGISTERED);
 
         return existing.stream()
-                .filter(certificate -> areCertificatesDuplicates(certificate, incoming))
                 .map(certificate -> new CertificateDuplicateInfo(
                         certificate.getId(),
                         getDisplayIdentifier(certificate),
@@ -229,6 +240,13 @@ public class CertificateServiceImplementation implements CertificateService {
                 .collect(Collectors.toList());
     }
 
+    // Сохраняет документ и переносит изменение его вклада в агрегаты аналитики
+    private Certificate saveAndRecord(UserActivityStats.Contribution before, Certificate certificate) {
+        Certificate saved = certificateRepository.save(certificate);
+        userActivityStats.record(before, userActivityStats.snapshot(saved));
+        return saved;
+    }
+
     private Certificate mapRequestToEntity(CertificateRequest request) {
         Certificate certificate = new Certificate();
         certificate.setApplicant(getOrCreateApplicant(request.getApplicantName()));
@@ -304,36 +322,6 @@ public class CertificateServiceImplementation implements CertificateService {
         return response;
     }
 
-    private boolean areCertificatesDuplicates(Certificate left, Certificate right) {
-        if (!Objects.equals(left.getMark(), right.getMark())) return false;
-        if (!Objects.equals(left.getTypeName(), right.getTypeName())) return false;
-        if (!Objects.equals(left.getModifications(), right.getModifications())) return false;
-        if (!Objects.equals(left.getCommercialNames(), right.getCommercialNames())) return false;
-        if (!Objects.equals(left.getStandardSection(), right.getStandardSection())) return false;
-
-        String applicant1 = left.getApplicant() != null ? left.getApplicant().getName() : null;
-        String applicant2 = right.getApplicant() != null ? right.getApplicant().getName() : null;
-        if (!Objects.equals(applicant1, applicant2)) return false;
-
-        String manufacturer1 = left.getManufacturer() != null ? left.getManufacturer().getName() : null;
-        String manufacturer2 = right.getManufacturer() != null ? right.getManufacturer().getName() : null;
-        if (!Objects.equals(manufacturer1, manufacturer2)) return false;
-
-        String representative1 = left.getRepresentative() != null ? left.getRepresentative().getName() : "";
-        String representative2 = right.getRepresentative() != null ? right.getRepresentative().getName() : "";
-        if (!Objects.equals(representative1, representative2)) return false;
-
-        if (left.getCategories() == null && right.getCategories() != null) return false;
-        if (left.getCategories() != null && right.getCategories() == null) return false;
-        if (left.getCategories() != null && right.getCategories() != null) {
-            if (!new HashSet<>(left.getCategories()).equals(new HashSet<>(right.getCategories()))) {
-                return false;
-            }
-        }
-
-        return true;
-    }
-
     private String getDisplayIdentifier(Certificate certificate) {
         if (certificate.getNumber() != null && !certificate.getNumber().trim().isEmpty()) {
             return certificate.getNumber();
@@ -348,7 +336,7 @@ public class CertificateServiceImplementation implements CertificateService {
             throw new BusinessException("Имя заявителя обязательно");
         }
         return applicantRepository.findByName(name.trim())
-                .orElseGet(() -> applicantRepository.save(new Applicant(name.trim())));
+                .orElseGet(() -> directoryAutocomplete.register(applicantRepository.save(new Applicant(name.trim()))));
     }
 
     private Manufacturer getOrCreateManufacturer(String name) {
@@ -356,7 +344,7 @@ public class CertificateServiceImplementation implements CertificateService {
             throw new BusinessException("Имя изготовителя обязательно");
         }
         return manufacturerRepository.findByName(name.trim())
-                .orElseGet(() -> manufacturerRepository.save(new Manufacturer(name.trim())));
+                .orElseGet(() -> directoryAutocomplete.register(manufacturerRepository.save(new Manufacturer(name.trim()))));
     }
 
     private Representative getOrCreateRepresentative(String name) {
@@ -364,7 +352,7 @@ public class CertificateServiceImplementation implements CertificateService {
             return null;
         }
         return representativeRepository.findByName(name.trim())
-                .orElseGet(() -> representativeRepository.save(new Representative(name.trim())));
+                .orElseGet(() -> directoryAutocomplete.register(representativeRepository.save(new Representative(name.trim()))));
     }
 
     private String requireStandardSection(String standardSection) {
@@ -403,6 +391,7 @@ public class CertificateServiceImplementation implements CertificateService {
                     .orElse("Не назначен");
         }
 
+        List<CertificateRegisteredNotification> notifications = new ArrayList<>();
         for (User accountant : accountants) {
             CertificateRegisteredNotification notification = new CertificateRegisteredNotification();
             notification.setRecipientEmail(accountant.getEmail());
@@ -414,8 +403,9 @@ public class CertificateServiceImplementation implements CertificateService {
             );
             notification.setCertificateNumber(certificate.getCertificateNumber());
             notification.setExecutorName(executorName);
-            notificationProducerService.sendCertificateRegisteredNotification(notification);
+            notifications.add(notification);
         }
+        notificationProducerService.sendAll(notifications);
     }
 }
 
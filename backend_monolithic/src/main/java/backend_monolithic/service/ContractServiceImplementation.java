@@ -24,6 +24,9 @@ public class ContractServiceImplementation implements ContractService {
     private final TaskRepository taskRepository;
     private final ApplicantRepository applicantRepository;
     private final UserService userService;
+    private final DirectoryAutocomplete directoryAutocomplete;
+    private final TaskSearchText taskSearchText;
+    private final TaskListProjection taskListProjection;
 
     @Override
     public List<ContractSimple> findAllSimple() {
@@ -99,6 +102,15 @@ public class ContractServiceImplementation implements ContractService {
         }
 
         Contract updatedContract = contractRepository.save(contract);
+
+        // Номер договора и заявитель входят в текст быстрого поиска связанных задач
+        List<Task> linkedTasks = taskRepository.findByContractId(id);
+        for (Task task : linkedTasks) {
+            task.setSearchText(taskSearchText.of(task));
+        }
+        taskRepository.saveAll(linkedTasks);
+        taskListProjection.refreshAll(linkedTasks);
+
         return convertToContractResponse(updatedContract);
     }
 
@@ -113,8 +125,10 @@ public class ContractServiceImplementation implements ContractService {
         if (!linkedTasks.isEmpty()) {
             for (Task task : linkedTasks) {
                 task.setContract(null);
+                task.setSearchText(taskSearchText.of(task));
             }
             taskRepository.saveAll(linkedTasks);
+            taskListProjection.refreshAll(linkedTasks);
         }
 
         contractRepository.delete(contract);
@@ -138,6 +152,8 @@ public class ContractServiceImplementation implements ContractService {
                 .orElseThrow(() -> new EntityNotFoundException("Договор не найден"));
         contract.setPaymentStatus(paymentStatus);
         Contract updatedContract = contractRepository.save(contract);
+        // Статус оплаты показывается в списке задач договора
+        taskListProjection.refreshAll(taskRepository.findByContractId(id));
         return convertToContractResponse(updatedContract);
     }
 
@@ -215,6 +231,6 @@ public class ContractServiceImplementation implements ContractService {
 
     private Applicant getOrCreateApplicant(String name) {
         return applicantRepository.findByName(name)
-                .orElseGet(() -> applicantRepository.save(new Applicant(name)));
+                .orElseGet(() -> directoryAutocomplete.register(applicantRepository.save(new Applicant(name))));
     }
 }
\ No newline at end of file
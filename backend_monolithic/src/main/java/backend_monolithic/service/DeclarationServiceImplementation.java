@@ -32,6 +32,9 @@ public class DeclarationServiceImplementation implements DeclarationService {
     private final RepresentativeRepository representativeRepository;
     private final UserService userService;
     private final NotificationProducerService notificationProducerService;
+    private final DuplicateFingerprint duplicateFingerprint;
+    private final UserActivityStats userActivityStats;
+    private final DirectoryAutocomplete directoryAutocomplete;
 
     @Override
     @Transactional
@@ -42,8 +45,9 @@ public class DeclarationServiceImplementation implements DeclarationService {
         declaration.setCreatedBy(user.getId());
         declaration.setCreatedAt(LocalDateTime.now());
         declaration.setStatus(DeclarationStatus.RECEIVED);
+        declaration.setDuplicateFingerprint(duplicateFingerprint.forDeclaration(declaration));
 
-        return mapEntityToResponse(declarationRepository.save(declaration));
+        return mapEntityToResponse(saveAndRecord(UserActivityStats.Contribution.NONE, declaration));
     }
 
     @Override
@@ -74,6 +78,7 @@ public class DeclarationServiceImplementation implements DeclarationService {
     public DeclarationResponse updateDeclaration(Long declarationId, DeclarationRequest request) {
         Declaration declaration = declarationRepository.findById(declarationId)
                 .orElseThrow(() -> new EntityNotFoundException("Декларация не найдена"));
+        UserActivityStats.Contribution before = userActivityStats.snapshot(declaration);
 
         if (declaration.getStatus() == DeclarationStatus.DECLARATION_REGISTERED) {
             throw new BusinessException("Нельзя редактировать зарегистрированную декларацию");
@@ -89,8 +94,9 @@ public class DeclarationServiceImplementation implements DeclarationService {
         declaration.setCommercialNames(request.getCommercialNames());
         declaration.setStandardSection(requireStandardSection(request.getStandardSection()));
         declaration.setAssignedUserId(request.getAssignedUserId());
+        declaration.setDuplicateFingerprint(duplicateFingerprint.forDeclaration(declaration));
 
-        return mapEntityToResponse(declarationRepository.save(declaration));
+        return mapEntityToResponse(saveAndRecord(before, declaration));
     }
 
     @Override
@@ -98,12 +104,14 @@ public class DeclarationServiceImplementation implements DeclarationService {
     public void deleteDeclaration(Long declarationId) {
         Declaration declaration = declarationRepository.findById(declarationId)
                 .orElseThrow(() -> new EntityNotFoundException("Декларация не найдена"));
+        UserActivityStats.Contribution before = userActivityStats.snapshot(declaration);
 
         if (declaration.getStatus() == DeclarationStatus.DECLARATION_REGISTERED) {
             throw new BusinessException("Нельзя удалить зарегистрированную декларацию");
         }
 
         declarationRepository.delete(declaration);
+        userActivityStats.record(before, UserActivityStats.Contribution.NONE);
     }
 
     @Override
@@ -131,6 +139,7 @@ public class DeclarationServiceImplementation implements DeclarationService {
     public DeclarationResponse updateStatus(Long declarationId, DeclarationStatus status, String declarationNumber) {
         Declaration declaration = declarationRepository.findById(declarationId)
                 .orElseThrow(() -> new EntityNotFoundException("Декларация не найдена"));
+        UserActivityStats.Contribution before = userActivityStats.snapshot(declaration);
 
         if (declaration.getStatus() == DeclarationStatus.DECLARATION_REGISTERED) {
             throw new BusinessException("Нельзя изменить статус зарегистрированной декларации");
@@ -151,13 +160,13 @@ public class DeclarationServiceImplementation implements DeclarationService {
             declaration.setDeclarationNumber(normalizedDeclarationNumber);
             declaration.setDeclarationRegisteredAt(LocalDate.now());
             declaration.setStatus(DeclarationStatus.DECLARATION_REGISTERED);
-            declaration = declarationRepository.save(declaration);
+            declaration = saveAndRecord(before, declaration);
             sendDeclarationRegisteredNotifications(declaration);
             return mapEntityToResponse(declaration);
         }
 
         declaration.setStatus(status);
-        return mapEntityToResponse(declarationRepository.save(declaration));
+        return mapEntityToResponse(saveAndRecord(before, declaration));
     }
 
     @Override
@@ -165,6 +174,7 @@ public class DeclarationServiceImplementation implements DeclarationService {
     public DeclarationResponse updateDeclarationExpert(Long declarationId, Long assignedUserId) {
         Declaration declaration = declarationRepository.findById(declarationId)
                 .orElseThrow(() -> new EntityNotFoundException("Декларация не найдена"));
+        UserActivityStats.Contribution before = userActivityStats.snapshot(declaration);
 
         if (assignedUserId == null) {
             declaration.setAssignedUserId(null);
@@ -177,16 +187,16 @@ public class DeclarationServiceImplementation implements DeclarationService {
             declaration.setAssignedUserId(assignedUserId);
         }
 
-        return mapEntityToResponse(declarationRepository.save(declaration));
+        return mapEntityToResponse(saveAndRecord(before, declaration));
     }
 
     @Override
     public List<DeclarationDuplicateInfo> checkDuplicates(DeclarationRequest request) {
-        List<Declaration> existing = declarationRepository.findByStatusNot(DeclarationStatus.DECLARATION_REGISTERED);
         Declaration incoming = mapRequestToEntityForComparison(request);
+        List<Declaration> existing = declarationRepository.findByDuplicateFingerprintAndStatusNot(
+                duplicateFingerprint.forDeclaration(incoming), DeclarationStatus.DECLARATION_REGISTERED);
 
         return existing.stream()
-                .filter(declaration -> areDeclarationsDuplicates(declaration, incoming))
                 .map(declaration -> new DeclarationDuplicateInfo(
                         declaration.getId(),
                         getDisplayIdentifier(declaration),
@@ -196,6 +206,13 @@ public class DeclarationServiceImplementation implements DeclarationService {
                 .collect(Collectors.toList());
     }
 
+    // Сохраняет документ и переносит изменение его вклада в агрегаты аналитики
+    private Declaration saveAndRecord(UserActivityStats.Contribution before, Declaration declaration) {
+        Declaration saved = declarationRepository.save(declaration);
+        userActivityStats.record(before, userActivityStats.snapshot(saved));
+        return saved;
+    }
+
     private Declaration mapRequestToEntity(DeclarationRequest request) {
         Declaration declaration = new Declaration();
         declaration.setApplicant(getOrCreateApplicant(request.getApplicantName()));
@@ -264,36 +281,6 @@ public class DeclarationServiceImplementation implements DeclarationService {
         return response;
     }
 
-    private boolean areDeclarationsDuplicates(Declaration left, Declaration right) {
-        if (!Objects.equals(left.getMark(), right.getMark())) return false;
-        if (!Objects.equals(left.getTypeName(), right.getTypeName())) return false;
-        if (!Objects.equals(left.getModifications(), right.getModifications())) return false;
-        if (!Objects.equals(left.getCommercialNames(), right.getCommercialNames())) return false;
-        if (!Objects.equals(left.getStandardSection(), right.getStandardSection())) return false;
-
-        String applicant1 = left.getApplicant() != null ? left.getApplicant().getName() : null;
-        String applicant2 = right.getApplicant() != null ? right.getApplicant().getName() : null;
-        if (!Objects.equals(applicant1, applicant2)) return false;
-
-        String manufacturer1 = left.getManufacturer() != null ? left.getManufacturer().getName() : null;
-        String manufacturer2 = right.getManufacturer() != null ? right.getManufacturer().getName() : null;
-        if (!Objects.equals(manufacturer1, manufacturer2)) return false;
-
-        String representative1 = left.getRepresentative() != null ? left.getRepresentative().getName() : "";
-        String representative2 = right.getRepresentative() != null ? right.getRepresentative().getName() : "";
-        if (!Objects.equals(representative1, representative2)) return false;
-
-        if (left.getCategories() == null && right.getCategories() != null) return false;
-        if (left.getCategories() != null && right.getCategories() == null) return false;
-        if (left.getCategories() != null && right.getCategories() != null) {
-            if (!new HashSet<>(left.getCategories()).equals(new HashSet<>(right.getCategories()))) {
-                return false;
-            }
-        }
-
-        return true;
-    }
-
     private String getDisplayIdentifier(Declaration declaration) {
         if (declaration.getNumber() != null && !declaration.getNumber().trim().isEmpty()) {
             return declaration.getNumber();
@@ -308,7 +295,7 @@ public class DeclarationServiceImplementation implements DeclarationService {
             throw new BusinessException("Имя заявителя обязательно");
         }
         return applicantRepository.findByName(name.trim())
-                .orElseGet(() -> applicantRepository.save(new Applicant(name.trim())));
+                .orElseGet(() -> directoryAutocomplete.register(applicantRepository.save(new Applicant(name.trim()))));
     }
 
     private Manufacturer getOrCreateManufacturer(String name) {
@@ -316,7 +303,7 @@ public class DeclarationServiceImplementation implements DeclarationService {
             throw new BusinessException("Имя изготовителя обязательно");
         }
         return manufacturerRepository.findByName(name.trim())
-                .orElseGet(() -> manufacturerRepository.save(new Manufacturer(name.trim())));
+                .orElseGet(() -> directoryAutocomplete.register(manufacturerRepository.save(new Manufacturer(name.trim()))));
     }
 
     private Representative getOrCreateRepresentative(String name) {
@@ -324,7 +311,7 @@ public class DeclarationServiceImplementation implements DeclarationService {
             return null;
         }
         return representativeRepository.findByName(name.trim())
-                .orElseGet(() -> representativeRepository.save(new Representative(name.trim())));
+                .orElseGet(() -> directoryAutocomplete.register(representativeRepository.save(new Representative(name.trim()))));
     }
 
     private String requireStandardSection(String standardSection) {
@@ -363,6 +350,7 @@ public class DeclarationServiceImplementation implements DeclarationService {
                     .orElse("Не назначен");
         }
 
+        List<DeclarationRegisteredNotification> notifications = new ArrayList<>();
         for (User accountant : accountants) {
             DeclarationRegisteredNotification notification = new DeclarationRegisteredNotification();
             notification.setRecipientEmail(accountant.getEmail());
@@ -374,7 +362,8 @@ public class DeclarationServiceImplementation implements DeclarationService {
             );
             notification.setDeclarationNumber(declaration.getDeclarationNumber());
             notification.setExecutorName(executorName);
-            notificationProducerService.sendDeclarationRegisteredNotification(notification);
+            notifications.add(notification);
         }
+        notificationProducerService.sendAll(notifications);
     }
 }
@@ -0,0 +1,87 @@
+package backend_monolithic.service;
+
+import backend_monolithic.model.Applicant;
+import backend_monolithic.model.Manufacturer;
+import backend_monolithic.model.Representative;
+import backend_monolithic.repository.ApplicantRepository;
+import backend_monolithic.repository.ManufacturerRepository;
+import backend_monolithic.repository.RepresentativeRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Подсказки заявителей, изготовителей и представителей из памяти вместо LIKE '%...%' по таблицам.
+ * Индексы загружаются при старте; новые записи из getOrCreate* сервисов добавляются после фиксации транзакции.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class DirectoryAutocomplete {
+
+    private final ApplicantRepository applicantRepository;
+    private final ManufacturerRepository manufacturerRepository;
+    private final RepresentativeRepository representativeRepository;
+
+    private final NameAutocomplete<Applicant> applicants =
+            new NameAutocomplete<>(Applicant::getId, Applicant::getName);
+    private final NameAutocomplete<Manufacturer> manufacturers =
+            new NameAutocomplete<>(Manufacturer::getId, Manufacturer::getName);
+    private final NameAutocomplete<Representative> representatives =
+            new NameAutocomplete<>(Representative::getId, Representative::getName);
+
+    @PostConstruct
+    public void load() {
+        applicants.addAll(applicantRepository.findAll());
+        manufacturers.addAll(manufacturerRepository.findAll());
+        representatives.addAll(representativeRepository.findAll());
+        log.info("Подсказки загружены: заявителей {}, изготовителей {}, представителей {}",
+                applicants.size(), manufacturers.size(), representatives.size());
+    }
+
+    public List<Applicant> searchApplicants(String query, int limit) {
+        return applicants.search(query, limit);
+    }
+
+    public List<Manufacturer> searchManufacturers(String query, int limit) {
+        return manufacturers.search(query, limit);
+    }
+
+    public List<Representative> searchRepresentatives(String query, int limit) {
+        return representatives.search(query, limit);
+    }
+
+    public Applicant register(Applicant applicant) {
+        afterCommit(() -> applicants.add(applicant));
+        return applicant;
+    }
+
+    public Manufacturer register(Manufacturer manufacturer) {
+        afterCommit(() -> manufacturers.add(manufacturer));
+        return manufacturer;
+    }
+
+    public Representative register(Representative representative) {
+        afterCommit(() -> representatives.add(representative));
+        return representative;
+    }
+
+    // Запись из откатившейся транзакции не должна попасть в подсказки
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,140 @@
+package backend_monolithic.service;
+
+import backend_monolithic.model.Applicant;
+import backend_monolithic.model.Certificate;
+import backend_monolithic.model.Declaration;
+import backend_monolithic.model.Manufacturer;
+import backend_monolithic.model.Representative;
+import backend_monolithic.model.Task;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Отпечаток полей, по которым заявки, декларации и сертификаты считаются дубликатами.
+ * Значения нормализуются (крайние и повторяющиеся пробелы, порядок категорий) и хешируются SHA-256,
+ * поэтому проверка дубликатов сводится к поиску по индексированной колонке.
+ * Регистр сохраняется, как в прежнем сравнении через Objects.equals: «ООО Ромашка» и «ооо ромашка» — разные записи.
+ */
+@Component
+public class DuplicateFingerprint {
+
+    // Разделители полей и элементов списка, которые не встречаются во вводе пользователя
+    private static final char FIELD_SEPARATOR = '\u001F';
+    private static final char ITEM_SEPARATOR = '\u001E';
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // Ключевые поля каждой сущности. Порядок полей менять нельзя: сохранённые отпечатки перестанут совпадать.
+    // Отсутствующий представитель и пустое имя дают одно и то же значение.
+    private static final List<Function<Task, Object>> TASK_KEY = List.of(
+            Task::getDocType,
+            Task::getMark,
+            Task::getTypeName,
+            Task::getProcessType,
+            task -> name(task.getApplicant()),
+            task -> name(task.getManufacturer()),
+            Task::getCategories,
+            task -> name(task.getRepresentative()),
+            Task::getPreviousNumber,
+            Task::getPreviousProcessType
+    );
+
+    private static final List<Function<Declaration, Object>> DECLARATION_KEY = List.of(
+            Declaration::getMark,
+            Declaration::getTypeName,
+            Declaration::getModifications,
+            Declaration::getCommercialNames,
+            Declaration::getStandardSection,
+            declaration -> name(declaration.getApplicant()),
+            declaration -> name(declaration.getManufacturer()),
+            declaration -> name(declaration.getRepresentative()),
+            Declaration::getCategories
+    );
+
+    private static final List<Function<Certificate, Object>> CERTIFICATE_KEY = List.of(
+            Certificate::getMark,
+            Certificate::getTypeName,
+            Certificate::getModifications,
+            Certificate::getCommercialNames,
+            Certificate::getStandardSection,
+            certificate -> name(certificate.getApplicant()),
+            certificate -> name(certificate.getManufacturer()),
+            certificate -> name(certificate.getRepresentative()),
+            Certificate::getCategories
+    );
+
+    public String forTask(Task task) {
+        return compute(task, TASK_KEY);
+    }
+
+    public String forDeclaration(Declaration declaration) {
+        return compute(declaration, DECLARATION_KEY);
+    }
+
+    public String forCertificate(Certificate certificate) {
+        return compute(certificate, CERTIFICATE_KEY);
+    }
+
+    private <T> String compute(T entity, List<Function<T, Object>> key) {
+        StringBuilder builder = new StringBuilder();
+        for (Function<T, Object> field : key) {
+            if (builder.length() > 0) {
+                builder.append(FIELD_SEPARATOR);
+            }
+            Object value = field.apply(entity);
+            if (value instanceof Collection<?> items) {
+                builder.append(normalizeItems(items));
+            } else {
+                builder.append(normalize(value != null ? value.toString() : null));
+            }
+        }
+        return hash(builder.toString());
+    }
+
+    private static String name(Applicant applicant) {
+        return applicant != null ? applicant.getName() : null;
+    }
+
+    private static String name(Manufacturer manufacturer) {
+        return manufacturer != null ? manufacturer.getName() : null;
+    }
+
+    private static String name(Representative representative) {
+        return representative != null ? representative.getName() : null;
+    }
+
+    private String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return WHITESPACE.matcher(value.trim()).replaceAll(" ");
+    }
+
+    private String normalizeItems(Collection<?> items) {
+        TreeSet<String> sorted = new TreeSet<>();
+        for (Object item : items) {
+            String normalized = normalize(item != null ? item.toString() : null);
+            if (!normalized.isEmpty()) {
+                sorted.add(normalized);
+            }
+        }
+        return String.join(String.valueOf(ITEM_SEPARATOR), sorted);
+    }
+
+    private String hash(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+}
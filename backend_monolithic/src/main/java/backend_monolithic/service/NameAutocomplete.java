@@ -0,0 +1,211 @@
+package backend_monolithic.service;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Индекс названий для подсказок при вводе.
+ * Названия нормализуются (регистр, ё/е, знаки препинания), для каждого хранятся его триграммы.
+ * Поиск подстроки берёт самый редкий триграмм запроса и проверяет только названия из его списка;
+ * запросы короче трёх символов просматривают все названия. Результат ограничен limit и упорядочен:
+ * точное совпадение, начало названия, начало слова, подстрока; внутри группы — короткие названия выше.
+ * Названия только добавляются: справочники заявителей, изготовителей и представителей не удаляются.
+ */
+@RequiredArgsConstructor
+public class NameAutocomplete<T> {
+
+    private static final int GRAM = 3;
+
+    private static final int EXACT = 0;
+    private static final int NAME_PREFIX = 1;
+    private static final int WORD_PREFIX = 2;
+    private static final int SUBSTRING = 3;
+
+    private final Function<T, Long> idOf;
+    private final Function<T, String> nameOf;
+    private final List<Entry<T>> entries = new ArrayList<>();
+    private final Map<String, List<Integer>> postings = new HashMap<>();
+    private final Set<Long> ids = new HashSet<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void addAll(Collection<T> items) {
+        lock.writeLock().lock();
+        try {
+            items.forEach(this::addLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void add(T item) {
+        lock.writeLock().lock();
+        try {
+            addLocked(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<T> search(String query, int limit) {
+        String normalized = normalize(query);
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Match<T>> top = new PriorityQueue<>(Comparator.<Match<T>>naturalOrder().reversed());
+            if (normalized.length() < GRAM) {
+                for (Entry<T> entry : entries) {
+                    offer(top, entry, normalized, limit);
+                }
+            } else {
+                List<Integer> candidates = rarestPosting(normalized);
+                for (int index : candidates) {
+                    offer(top, entries.get(index), normalized, limit);
+                }
+            }
+
+            List<T> result = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                result.add(top.poll().entry.item);
+            }
+            // Из кучи результаты выходят от худшего к лучшему
+            Collections.reverse(result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Нижний регистр, ё → е, всё кроме букв и цифр — пробел, пробелы схлопываются
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(value.length());
+        boolean space = true;
+        for (int i = 0; i < value.length(); i++) {
+            char c = Character.toLowerCase(value.charAt(i));
+            if (c == 'ё') {
+                c = 'е';
+            }
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(c);
+                space = false;
+            } else if (!space) {
+                normalized.append(' ');
+                space = true;
+            }
+        }
+        int length = normalized.length();
+        if (length > 0 && normalized.charAt(length - 1) == ' ') {
+            normalized.setLength(length - 1);
+        }
+        return normalized.toString();
+    }
+
+    private void addLocked(T item) {
+        Long id = idOf.apply(item);
+        String name = nameOf.apply(item);
+        if (id == null || name == null || !ids.add(id)) {
+            return;
+        }
+        int index = entries.size();
+        String normalized = normalize(name);
+        entries.add(new Entry<>(item, normalized));
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM));
+        }
+        // Индексы растут, поэтому списки остаются упорядоченными
+        grams.forEach(gram -> postings.computeIfAbsent(gram, key -> new ArrayList<>()).add(index));
+    }
+
+    private List<Integer> rarestPosting(String query) {
+        List<Integer> rarest = null;
+        for (int i = 0; i + GRAM <= query.length(); i++) {
+            List<Integer> posting = postings.get(query.substring(i, i + GRAM));
+            if (posting == null) {
+                return List.of();
+            }
+            if (rarest == null || posting.size() < rarest.size()) {
+                rarest = posting;
+            }
+        }
+        return rarest;
+    }
+
+    private static <T> void offer(PriorityQueue<Match<T>> top, Entry<T> entry, String query, int limit) {
+        int rank = rank(entry.normalized, query);
+        if (rank < 0) {
+            return;
+        }
+        Match<T> match = new Match<>(entry, rank);
+        if (top.size() < limit) {
+            top.add(match);
+        } else if (match.compareTo(top.peek()) < 0) {
+            top.poll();
+            top.add(match);
+        }
+    }
+
+    private static int rank(String name, String query) {
+        if (query.isEmpty()) {
+            return SUBSTRING;
+        }
+        int position = name.indexOf(query);
+        if (position < 0) {
+            return -1;
+        }
+        if (position == 0) {
+            return name.length() == query.length() ? EXACT : NAME_PREFIX;
+        }
+        if (name.charAt(position - 1) == ' ') {
+            return WORD_PREFIX;
+        }
+        // Совпадение внутри слова; проверяем, нет ли дальше совпадения с начала слова
+        return name.contains(" " + query) ? WORD_PREFIX : SUBSTRING;
+    }
+
+    @RequiredArgsConstructor
+    private static class Entry<T> {
+        private final T item;
+        private final String normalized;
+    }
+
+    @RequiredArgsConstructor
+    private static class Match<T> implements Comparable<Match<T>> {
+        private final Entry<T> entry;
+        private final int rank;
+
+        @Override
+        public int compareTo(Match<T> other) {
+            if (rank != other.rank) {
+                return Integer.compare(rank, other.rank);
+            }
+            if (entry.normalized.length() != other.entry.normalized.length()) {
+                return Integer.compare(entry.normalized.length(), other.entry.normalized.length());
+            }
+            return entry.normalized.compareTo(other.entry.normalized);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package backend_monolithic.service;
+
+import backend_monolithic.model.NotificationOutbox;
+import backend_monolithic.repository.NotificationOutboxRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Переносит рассылки из таблицы notification_outbox в Kafka.
+ * Пачка строк занимается в короткой транзакции (FOR UPDATE SKIP LOCKED и аренда claimed_until),
+ * сообщения отправляются вне транзакции без ожидания по одному, затем во второй короткой транзакции
+ * строки с подтверждённой отправкой помечаются отправленными, остальные получают попытку и ошибку.
+ * Рассылки, исчерпавшие max-attempts, остаются в таблице и видны в метрике notifications.outbox.exhausted.
+ * Доставка "хотя бы один раз": при частичной ошибке рассылка будет отправлена повторно целиком.
+ * Тип каждого уведомления передаётся в заголовке notificationType, по нему сервис уведомлений
+ * выбирает обработчик; в заголовке notificationId — идентификатор для отбрасывания повторов.
+ */
+@Component
+@Slf4j
+public class NotificationOutboxRelay {
+
+    public static final String TYPE_HEADER = "notificationType";
+    public static final String ID_HEADER = "notificationId";
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter sentMessages;
+    private final Counter failedBatches;
+
+    @Value("${kafka.topic.notifications:task-assignments}")
+    private String notificationsTopic;
+
+    @Value("${app.notifications.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.notifications.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.notifications.outbox.send-timeout-ms:35000}")
+    private long sendTimeoutMs;
+
+    // Аренда строки на время отправки; должна быть больше send-timeout-ms
+    @Value("${app.notifications.outbox.lease-ms:120000}")
+    private long leaseMs;
+
+    @Value("${app.notifications.outbox.retention-days:7}")
+    private int retentionDays;
+
+    public NotificationOutboxRelay(NotificationOutboxRepository outboxRepository,
+                                   KafkaTemplate<String, String> kafkaTemplate,
+                                   ObjectMapper objectMapper,
+                                   TransactionTemplate transactionTemplate,
+                                   MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.sentMessages = Counter.builder("notifications.outbox.sent")
+                .description("Уведомления, отправленные из outbox в Kafka")
+                .register(meterRegistry);
+        this.failedBatches = Counter.builder("notifications.outbox.failed")
+                .description("Рассылки outbox, отправка которых завершилась ошибкой")
+                .register(meterRegistry);
+        Gauge.builder("notifications.outbox.pending", outboxRepository, NotificationOutboxRepository::countBySentAtIsNull)
+                .description("Неотправленные рассылки в outbox")
+                .register(meterRegistry);
+        // maxAttempts внедряется после конструктора, поэтому читается при каждом снятии метрики
+        Gauge.builder("notifications.outbox.exhausted", this,
+                        relay -> relay.outboxRepository.countBySentAtIsNullAndAttemptsGreaterThanEqual(relay.maxAttempts))
+                .description("Рассылки outbox, исчерпавшие попытки отправки; требуют разбора")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.outbox.poll-ms:500}")
+    public void relay() {
+        // Пока пачки отправляются полностью, выбираем следующие без ожидания
+        while (relayBatch() == batchSize) {
+            log.debug("Outbox: пачка отправлена полностью, читаем следующую");
+        }
+    }
+
+    // Возвращает число строк, отправленных успешно
+    public int relayBatch() {
+        List<NotificationOutbox> batch = claimBatch();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        // Отправка и ожидание подтверждений Kafka идут вне транзакции: строки защищены арендой, а не блокировкой
+        Map<Long, List<CompletableFuture<?>>> sends = new LinkedHashMap<>();
+        Map<Long, Exception> failures = new HashMap<>();
+        for (NotificationOutbox entry : batch) {
+            try {
+                sends.put(entry.getId(), send(entry));
+            } catch (Exception e) {
+                failures.put(entry.getId(), e);
+            }
+        }
+        for (Map.Entry<Long, List<CompletableFuture<?>>> send : sends.entrySet()) {
+            try {
+                CompletableFuture.allOf(send.getValue().toArray(CompletableFuture[]::new))
+                        .get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                failures.put(send.getKey(), e);
+            }
+        }
+
+        Integer sent = transactionTemplate.execute(status -> complete(batch, failures));
+        return sent != null ? sent : 0;
+    }
+
+    // Короткая транзакция: блокируем свободные строки, проставляем аренду и сразу отпускаем блокировки
+    private List<NotificationOutbox> claimBatch() {
+        List<NotificationOutbox> batch = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<NotificationOutbox> claimed = outboxRepository.lockPendingBatch(maxAttempts, now, batchSize);
+            LocalDateTime claimedUntil = now.plus(leaseMs, ChronoUnit.MILLIS);
+            claimed.forEach(entry -> entry.setClaimedUntil(claimedUntil));
+            return claimed;
+        });
+        return batch != null ? batch : List.of();
+    }
+
+    // Вторая короткая транзакция: строки перечитываются по id и получают итог отправки
+    private int complete(List<NotificationOutbox> batch, Map<Long, Exception> failures) {
+        List<Long> ids = batch.stream().map(NotificationOutbox::getId).toList();
+        int succeeded = 0;
+        LocalDateTime now = LocalDateTime.now();
+        for (NotificationOutbox entry : outboxRepository.findAllById(ids)) {
+            entry.setClaimedUntil(null);
+            Exception failure = failures.get(entry.getId());
+            if (failure != null) {
+                markFailed(entry, failure);
+            } else {
+                entry.setSentAt(now);
+                sentMessages.increment(entry.getMessageCount());
+                succeeded++;
+            }
+        }
+        return succeeded;
+    }
+
+    @Scheduled(cron = "${app.notifications.outbox.cleanup-cron:0 30 3 * * *}")
+    @Transactional
+    public void deleteSent() {
+        int deleted = outboxRepository.deleteSentBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("Outbox: удалено {} отправленных рассылок", deleted);
+        }
+    }
+
+    private List<CompletableFuture<?>> send(NotificationOutbox entry) throws Exception {
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        int index = 0;
+        for (JsonNode element : objectMapper.readTree(entry.getPayload())) {
+            JsonNode notification = element.get(NotificationProducerService.NOTIFICATION_FIELD);
+            String type;
+            String id;
+            if (notification != null) {
+                type = element.path(NotificationProducerService.TYPE_FIELD).asText(null);
+                id = element.path(NotificationProducerService.ID_FIELD).asText(null);
+            } else {
+                // Строки, записанные до появления конверта: тип известен, только если рассылка однородная
+                notification = element;
+                type = entry.getType().contains(",") ? null : entry.getType();
+                id = null;
+            }
+            if (id == null) {
+                // Позиция в строке outbox не меняется между попытками отправки
+                id = "outbox-" + entry.getId() + "-" + index;
+            }
+            index++;
+
+            ProducerRecord<String, String> record = new ProducerRecord<>(notificationsTopic,
+                    notification.path("recipientEmail").asText(null), objectMapper.writeValueAsString(notification));
+            record.headers().add(ID_HEADER, id.getBytes(StandardCharsets.UTF_8));
+            if (type != null) {
+                record.headers().add(TYPE_HEADER, type.getBytes(StandardCharsets.UTF_8));
+            }
+            futures.add(kafkaTemplate.send(record));
+        }
+        return futures;
+    }
+
+    private void markFailed(NotificationOutbox entry, Exception e) {
+        Throwable cause = e.getCause() != null ? e.getCause() : e;
+        entry.setAttempts(entry.getAttempts() + 1);
+        entry.setLastError(truncate(cause.toString()));
+        failedBatches.increment();
+        if (entry.getAttempts() >= maxAttempts) {
+            log.error("Outbox: рассылка id={} исчерпала {} попыток и больше не отправляется: {}",
+                    entry.getId(), maxAttempts, cause.getMessage());
+        } else {
+            log.warn("Outbox: не удалось отправить рассылку id={}, попытка {} из {}: {}",
+                    entry.getId(), entry.getAttempts(), maxAttempts, cause.getMessage());
+        }
+    }
+
+    private String truncate(String message) {
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
@@ -1,144 +1,93 @@
 package backend_monolithic.service;
 
+import backend_monolithic.model.NotificationOutbox;
+import backend_monolithic.model.dto.Notification;
 import backend_monolithic.model.dto.TaskAssignmentNotification;
 import backend_monolithic.model.dto.CertificateRegisteredNotification;
 import backend_monolithic.model.dto.DeclarationRegisteredNotification;
 import backend_monolithic.model.dto.TaskDecisionNotification;
 import backend_monolithic.model.dto.UserRegistrationNotification;
+import backend_monolithic.repository.NotificationOutboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
-
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
-
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Постановка уведомлений в очередь на отправку.
+ * Рассылка записывается в таблицу notification_outbox в той же транзакции, что и бизнес-изменение,
+ * и уходит в Kafka только если транзакция зафиксирована. Отправкой занимается NotificationOutboxRelay.
+ * Каждое уведомление хранится в конверте {"id": ..., "type": ..., "notification": {...}}: тип — имя класса DTO,
+ * id — постоянный идентификатор, по которому сервис уведомлений отбрасывает повторные доставки.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationProducerService {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    public static final String ID_FIELD = "id";
+    public static final String TYPE_FIELD = "type";
+    public static final String NOTIFICATION_FIELD = "notification";
 
-    @Value("${kafka.topic.notifications:task-assignments}")
-    private String notificationsTopic;
+    private final NotificationOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
 
     public void sendTaskAssignmentNotification(TaskAssignmentNotification notification) {
-        try {
-            // Синхронная отправка с ожиданием подтверждения для гарантии "at least once"
-            // Используем get() для ожидания результата
-            CompletableFuture<SendResult<String, Object>> future = kafkaTemplate.send(
-                    notificationsTopic,
-                    notification.getRecipientEmail(),
-                    notification
-            );
-
-            // Ждем подтверждения отправки (с таймаутом 10 секунд)
-            SendResult<String, Object> result = future.get(10, TimeUnit.SECONDS);
-            
-            log.info("Уведомление успешно отправлено в Kafka: recipient={}, taskId={}, offset={}, partition={}",
-                    notification.getRecipientEmail(), 
-                    notification.getTaskId(),
-                    result.getRecordMetadata().offset(),
-                    result.getRecordMetadata().partition());
-                    
-        } catch (Exception e) {
-            log.error("Ошибка при отправке уведомления в Kafka: recipient={}, taskId={}",
-                    notification.getRecipientEmail(), notification.getTaskId(), e);
-            // Пробрасываем исключение, чтобы вызывающий код знал об ошибке
-            throw new RuntimeException("Не удалось отправить уведомление в Kafka", e);
-        }
+        sendAll(List.of(notification));
     }
 
     public void sendTaskDecisionNotification(TaskDecisionNotification notification) {
-        try {
-            CompletableFuture<SendResult<String, Object>> future = kafkaTemplate.send(
-                    notificationsTopic,
-                    notification.getRecipientEmail(),
-                    notification
-            );
-
-            SendResult<String, Object> result = future.get(10, TimeUnit.SECONDS);
-            
-            log.info("Уведомление о решении успешно отправлено в Kafka: recipient={}, taskId={}, offset={}, partition={}",
-                    notification.getRecipientEmail(), 
-                    notification.getTaskId(),
-                    result.getRecordMetadata().offset(),
-                    result.getRecordMetadata().partition());
-                    
-        } catch (Exception e) {
-            log.error("Ошибка при отправке уведомления о решении в Kafka: recipient={}, taskId={}",
-                    notification.getRecipientEmail(), notification.getTaskId(), e);
-            throw new RuntimeException("Не удалось отправить уведомление о решении в Kafka", e);
-        }
+        sendAll(List.of(notification));
     }
 
     public void sendUserRegistrationNotification(UserRegistrationNotification notification) {
-        try {
-            CompletableFuture<SendResult<String, Object>> future = kafkaTemplate.send(
-                    notificationsTopic,
-                    notification.getRecipientEmail(),
-                    notification
-            );
-
-            SendResult<String, Object> result = future.get(10, TimeUnit.SECONDS);
-            
-            log.info("Уведомление о регистрации пользователя успешно отправлено в Kafka: recipient={}, newUserEmail={}, offset={}, partition={}",
-                    notification.getRecipientEmail(), 
-                    notification.getNewUserEmail(),
-                    result.getRecordMetadata().offset(),
-                    result.getRecordMetadata().partition());
-                    
-        } catch (Exception e) {
-            log.error("Ошибка при отправке уведомления о регистрации пользователя в Kafka: recipient={}, newUserEmail={}",
-                    notification.getRecipientEmail(), notification.getNewUserEmail(), e);
-            throw new RuntimeException("Не удалось отправить уведомление о регистрации пользователя в Kafka", e);
-        }
+        sendAll(List.of(notification));
     }
 
     public void sendDeclarationRegisteredNotification(DeclarationRegisteredNotification notification) {
-        try {
-            CompletableFuture<SendResult<String, Object>> future = kafkaTemplate.send(
-                    notificationsTopic,
-                    notification.getRecipientEmail(),
-                    notification
-            );
-
-            SendResult<String, Object> result = future.get(10, TimeUnit.SECONDS);
-
-            log.info("Уведомление о регистрации декларации отправлено: recipient={}, applicationNumber={}, offset={}, partition={}",
-                    notification.getRecipientEmail(),
-                    notification.getApplicationNumber(),
-                    result.getRecordMetadata().offset(),
-                    result.getRecordMetadata().partition());
-        } catch (Exception e) {
-            log.error("Ошибка при отправке уведомления о регистрации декларации: recipient={}, applicationNumber={}",
-                    notification.getRecipientEmail(), notification.getApplicationNumber(), e);
-            throw new RuntimeException("Не удалось отправить уведомление о регистрации декларации в Kafka", e);
-        }
+        sendAll(List.of(notification));
     }
 
     public void sendCertificateRegisteredNotification(CertificateRegisteredNotification notification) {
-        try {
-            CompletableFuture<SendResult<String, Object>> future = kafkaTemplate.send(
-                    notificationsTopic,
-                    notification.getRecipientEmail(),
-                    notification
-            );
+        sendAll(List.of(notification));
+    }
 
-            SendResult<String, Object> result = future.get(10, TimeUnit.SECONDS);
+    // Вся рассылка сохраняется одной строкой outbox — одна вставка на бизнес-изменение
+    @Transactional
+    public void sendAll(Collection<? extends Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        NotificationOutbox entry = new NotificationOutbox();
+        entry.setType(notifications.stream()
+                .map(notification -> notification.getClass().getSimpleName())
+                .distinct()
+                .collect(Collectors.joining(",")));
+        entry.setPayload(toJson(notifications));
+        entry.setMessageCount(notifications.size());
+        entry.setCreatedAt(LocalDateTime.now());
+        outboxRepository.save(entry);
+
+        log.debug("Рассылка поставлена в outbox: type={}, messages={}", entry.getType(), entry.getMessageCount());
+    }
 
-            log.info("Уведомление о регистрации сертификата отправлено: recipient={}, applicationNumber={}, offset={}, partition={}",
-                    notification.getRecipientEmail(),
-                    notification.getApplicationNumber(),
-                    result.getRecordMetadata().offset(),
-                    result.getRecordMetadata().partition());
-        } catch (Exception e) {
-            log.error("Ошибка при отправке уведомления о регистрации сертификата: recipient={}, applicationNumber={}",
-                    notification.getRecipientEmail(), notification.getApplicationNumber(), e);
-            throw new RuntimeException("Не удалось отправить уведомление о регистрации сертификата в Kafka", e);
+    private String toJson(Collection<? extends Notification> notifications) {
+        ArrayNode envelopes = objectMapper.createArrayNode();
+        for (Notification notification : notifications) {
+            envelopes.addObject()
+                    .put(ID_FIELD, UUID.randomUUID().toString())
+                    .put(TYPE_FIELD, notification.getClass().getSimpleName())
+                    .set(NOTIFICATION_FIELD, objectMapper.valueToTree(notification));
         }
+        return envelopes.toString();
     }
 }
@@ -1,10 +1,12 @@
 package backend_monolithic.service;
 
 import backend_monolithic.model.dto.ProfileAnalyticsResponse;
+import backend_monolithic.model.dto.TeamAnalyticsResponse;
 
 import java.time.LocalDate;
 
 public interface ProfileAnalyticsService {
     ProfileAnalyticsResponse getMyAnalytics(String jwt, LocalDate startDate, LocalDate endDate);
     ProfileAnalyticsResponse getAnalyticsByUserId(Long userId, LocalDate startDate, LocalDate endDate);
+    TeamAnalyticsResponse getTeamAnalytics(LocalDate startDate, LocalDate endDate);
 }
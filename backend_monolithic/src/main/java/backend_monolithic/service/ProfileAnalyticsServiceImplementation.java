@@ -2,34 +2,29 @@ package backend_monolithic.service;
 
 import backend_monolithic.model.User;
 import backend_monolithic.model.dto.ProfileAnalyticsResponse;
-import backend_monolithic.model.enums.CertificateStatus;
-import backend_monolithic.model.enums.DeclarationStatus;
-import backend_monolithic.model.enums.TaskStatus;
-import backend_monolithic.repository.CertificateRepository;
-import backend_monolithic.repository.DeclarationRepository;
-import backend_monolithic.repository.TaskRepository;
+import backend_monolithic.model.dto.TeamAnalyticsResponse;
+import backend_monolithic.model.dto.UserAnalyticsResponse;
+import backend_monolithic.model.dto.UserInfo;
+import backend_monolithic.repository.UserDailyStatsRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ProfileAnalyticsServiceImplementation implements ProfileAnalyticsService {
 
-    private static final Set<TaskStatus> TASK_NOT_ACTIVE_STATUSES = Set.of(
-            TaskStatus.CANCELLED,
-            TaskStatus.REJECTION,
-            TaskStatus.COMPLETED
-    );
-
     private final UserService userService;
-    private final TaskRepository taskRepository;
-    private final DeclarationRepository declarationRepository;
-    private final CertificateRepository certificateRepository;
+    private final UserDailyStatsRepository userDailyStatsRepository;
+    private final TeamAnalyticsCache teamAnalyticsCache;
 
     @Override
     public ProfileAnalyticsResponse getMyAnalytics(String jwt, LocalDate startDate, LocalDate endDate) {
@@ -39,50 +34,67 @@ public class ProfileAnalyticsServiceImplementation implements ProfileAnalyticsSe
 
     @Override
     public ProfileAnalyticsResponse getAnalyticsByUserId(Long userId, LocalDate startDate, LocalDate endDate) {
-        LocalDate from = startDate != null ? startDate : LocalDate.now().withDayOfMonth(1);
-        LocalDate to = endDate != null ? endDate : LocalDate.now();
-        if (to.isBefore(from)) {
-            LocalDate temp = from;
-            from = to;
-            to = temp;
-        }
+        LocalDate[] period = normalizePeriod(startDate, endDate);
+        LocalDate from = period[0];
+        LocalDate to = period[1];
 
         userService.getUserById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("Пользователь не найден"));
 
-        long activeTasks = taskRepository.countByAssignedUserIdAndStatusNotIn(userId, TASK_NOT_ACTIVE_STATUSES);
-        long activeDeclarations = declarationRepository.countByAssignedUserIdAndStatusNot(
-                userId,
-                DeclarationStatus.DECLARATION_REGISTERED
-        );
-        long activeCertificates = certificateRepository.countActiveByUser(userId, CertificateStatus.CERTIFICATE_REGISTERED);
-
-        long completedTasks = taskRepository.countCompletedInPeriod(
-                userId,
-                TaskStatus.COMPLETED,
-                from,
-                to
-        );
-        long completedDeclarations = declarationRepository.countByAssignedUserIdAndDeclarationRegisteredAtBetween(
-                userId,
-                from,
-                to
-        );
-        long completedCertificates = certificateRepository.countByRegisteredByUserIdAndCertificateRegisteredAtBetween(
-                userId,
-                from,
-                to
-        );
+        // Один запрос по агрегатам user_daily_stats вместо шести подсчётов по документам
+        UserDailyStatsRepository.Totals totals = userDailyStatsRepository.findTotals(userId, from, to);
 
         return new ProfileAnalyticsResponse(
                 from,
                 to,
-                activeTasks,
-                activeDeclarations,
-                activeCertificates,
-                completedTasks,
-                completedDeclarations,
-                completedCertificates
+                totals.getActiveTasks(),
+                totals.getActiveDeclarations(),
+                totals.getActiveCertificates(),
+                totals.getCompletedTasks(),
+                totals.getCompletedDeclarations(),
+                totals.getCompletedCertificates()
         );
     }
+
+    @Override
+    public TeamAnalyticsResponse getTeamAnalytics(LocalDate startDate, LocalDate endDate) {
+        LocalDate[] period = normalizePeriod(startDate, endDate);
+        LocalDate from = period[0];
+        LocalDate to = period[1];
+
+        // Один сгруппированный запрос по агрегатам на всех пользователей; результат кэшируется до изменения агрегатов
+        Map<Long, UserDailyStatsRepository.UserTotals> totalsByUser = teamAnalyticsCache
+                .get(from, to, () -> userDailyStatsRepository.findTotalsByUser(from, to))
+                .stream()
+                .collect(Collectors.toMap(UserDailyStatsRepository.UserTotals::getUserId, Function.identity()));
+
+        List<UserAnalyticsResponse> users = new ArrayList<>();
+        for (User user : userService.getAllUsers()) {
+            UserDailyStatsRepository.UserTotals totals = totalsByUser.get(user.getId());
+            if (totals == null) {
+                users.add(new UserAnalyticsResponse(new UserInfo(user), 0, 0, 0, 0, 0, 0));
+                continue;
+            }
+            users.add(new UserAnalyticsResponse(
+                    new UserInfo(user),
+                    totals.getActiveTasks(),
+                    totals.getActiveDeclarations(),
+                    totals.getActiveCertificates(),
+                    totals.getCompletedTasks(),
+                    totals.getCompletedDeclarations(),
+                    totals.getCompletedCertificates()
+            ));
+        }
+        return new TeamAnalyticsResponse(from, to, users);
+    }
+
+    // По умолчанию — с начала текущего месяца по сегодня; перепутанные границы меняются местами
+    private static LocalDate[] normalizePeriod(LocalDate startDate, LocalDate endDate) {
+        LocalDate from = startDate != null ? startDate : LocalDate.now().withDayOfMonth(1);
+        LocalDate to = endDate != null ? endDate : LocalDate.now();
+        if (to.isBefore(from)) {
+            return new LocalDate[]{to, from};
+        }
+        return new LocalDate[]{from, to};
+    }
 }
@@ -0,0 +1,48 @@
+package backend_monolithic.service;
+
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+// Кэш приблизительного количества задач для курсорной пагинации.
+// Значение живёт недолго, поэтому COUNT по тяжёлому набору спецификаций выполняется не на каждой странице.
+// При переполнении вытесняется ключ, который дольше всех не запрашивали (LRU), а не весь кэш.
+@Component
+public class TaskCountCache {
+
+    private static final long TTL_MILLIS = 60_000;
+    private static final int MAX_ENTRIES = 1_000;
+
+    private final Map<String, CachedCount> counts = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedCount> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    public long get(String key, LongSupplier loader) {
+        long now = System.currentTimeMillis();
+        synchronized (counts) {
+            CachedCount cached = counts.get(key);
+            if (cached != null && cached.expiresAt > now) {
+                return cached.value;
+            }
+        }
+
+        // COUNT выполняется вне блокировки
+        long value = loader.getAsLong();
+        synchronized (counts) {
+            counts.put(key, new CachedCount(value, now + TTL_MILLIS));
+        }
+        return value;
+    }
+
+    @AllArgsConstructor
+    private static class CachedCount {
+        private final long value;
+        private final long expiresAt;
+    }
+}
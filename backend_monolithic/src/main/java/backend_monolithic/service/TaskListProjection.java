@@ -0,0 +1,147 @@
+package backend_monolithic.service;
+
+import backend_monolithic.model.Contract;
+import backend_monolithic.model.Task;
+import backend_monolithic.model.TaskListView;
+import backend_monolithic.repository.TaskListViewRepository;
+import backend_monolithic.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Поддержка таблицы task_list_view.
+ * Сервисы вызывают refresh после каждого сохранения задачи и refreshAll для задач изменённого договора
+ * в той же транзакции, поэтому строка списка меняется вместе с задачей.
+ * Плановая сверка (check) пересобирает строки из tasks пачками по id, исправляет расхождения
+ * и удаляет строки удалённых задач.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TaskListProjection {
+
+    private static final int CHECK_BATCH_SIZE = 500;
+
+    private final TaskListViewRepository viewRepository;
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public void refresh(Task task) {
+        viewRepository.save(toView(task));
+    }
+
+    public void refreshAll(Collection<Task> tasks) {
+        viewRepository.saveAll(tasks.stream().map(TaskListProjection::toView).toList());
+    }
+
+    public void remove(Long taskId) {
+        viewRepository.deleteById(taskId);
+    }
+
+    @Scheduled(cron = "${app.tasks.list-view.check-cron:-}")
+    public void check() {
+        long checked = 0;
+        long repaired = 0;
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            List<Long> ids = transactionTemplate.execute(status ->
+                    taskRepository.findIdsAfter(from, PageRequest.of(0, CHECK_BATCH_SIZE)));
+            if (ids == null || ids.isEmpty()) {
+                break;
+            }
+            Integer fixed = transactionTemplate.execute(status -> checkBatch(ids));
+            repaired += fixed != null ? fixed : 0;
+            checked += ids.size();
+            afterId = ids.get(ids.size() - 1);
+        }
+        Integer orphans = transactionTemplate.execute(status -> viewRepository.deleteOrphans());
+
+        if (repaired > 0 || (orphans != null && orphans > 0)) {
+            log.warn("Сверка task_list_view: проверено {}, исправлено {}, удалено лишних строк {}",
+                    checked, repaired, orphans);
+        } else {
+            log.info("Сверка task_list_view: проверено {}, расхождений нет", checked);
+        }
+    }
+
+    // Строки пачки сравниваются с пересобранными из задач; отличающиеся и отсутствующие перезаписываются
+    private int checkBatch(List<Long> ids) {
+        Map<Long, TaskListView> current = viewRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(TaskListView::getId, Function.identity()));
+        List<TaskListView> fixes = new ArrayList<>();
+        for (Task task : taskRepository.findAllForListViewByIdIn(ids)) {
+            TaskListView expected = toView(task);
+            if (!sameRow(expected, current.get(task.getId()))) {
+                fixes.add(expected);
+            }
+        }
+        viewRepository.saveAll(fixes);
+        return fixes.size();
+    }
+
+    static TaskListView toView(Task task) {
+        TaskListView view = new TaskListView();
+        view.setId(task.getId());
+        view.setNumber(task.getNumber());
+        view.setDocumentNumber(task.getDocumentNumber());
+        view.setDocType(task.getDocType());
+        view.setApplicantName(task.getApplicant() != null ? task.getApplicant().getName() : null);
+        view.setManufacturerName(task.getManufacturer() != null ? task.getManufacturer().getName() : null);
+        // Пустая коллекция категорий после загрузки задачи — пустой список, а не null
+        view.setCategories(task.getCategories() != null ? new ArrayList<>(task.getCategories()) : new ArrayList<>());
+        view.setMark(task.getMark());
+        view.setTypeName(task.getTypeName());
+        view.setProcessType(task.getProcessType());
+        view.setPreviousProcessType(task.getPreviousProcessType());
+        view.setPreviousNumber(task.getPreviousNumber());
+        view.setRepresentativeName(task.getRepresentative() != null ? task.getRepresentative().getName() : null);
+        view.setApplicationDate(task.getApplicationDate());
+        view.setDecisionAt(task.getDecisionAt());
+        view.setCompletedAt(task.getCompletedAt());
+        view.setCreatedAt(task.getCreatedAt());
+        view.setStatus(task.getStatus() != null ? task.getStatus().name() : null);
+        view.setCreatedBy(task.getCreatedBy());
+        view.setAssignedUserId(task.getAssignedUserId());
+
+        Contract contract = task.getContract();
+        if (contract != null) {
+            view.setContractId(contract.getId());
+            view.setContractNumber(contract.getNumber());
+            view.setContractDate(contract.getDate());
+            view.setContractPaymentStatus(contract.getPaymentStatus());
+            view.setContractApplicantName(contract.getApplicant() != null ? contract.getApplicant().getName() : null);
+        }
+        return view;
+    }
+
+    // Порядок категорий у коллекции без индекса не гарантирован, поэтому они сравниваются без учёта порядка.
+    // expected — свежая строка из toView, её можно менять.
+    static boolean sameRow(TaskListView expected, TaskListView actual) {
+        if (actual == null) {
+            return false;
+        }
+        if (sorted(expected.getCategories()).equals(sorted(actual.getCategories()))) {
+            expected.setCategories(actual.getCategories());
+        }
+        return expected.equals(actual);
+    }
+
+    private static List<String> sorted(List<String> values) {
+        List<String> copy = values != null ? new ArrayList<>(values) : new ArrayList<>();
+        copy.sort(Comparator.nullsFirst(Comparator.naturalOrder()));
+        return copy;
+    }
+}
@@ -0,0 +1,140 @@
+package backend_monolithic.service;
+
+import backend_monolithic.model.Contract;
+import backend_monolithic.model.Task;
+import backend_monolithic.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Текст задачи для быстрого поиска и запрос к нему.
+ * В колонку tasks.search_text попадают поля, по которым ищет быстрый поиск: номер, номер ОТТС/ОТШ,
+ * номер договора, заявитель по договору и ФИО/почта исполнителя. По колонке построен FULLTEXT-индекс
+ * с парсером ngram, поэтому любое слово запроса ищется как подстрока одним обращением к индексу.
+ * Слова запроса на кириллице усекаются до основы: "ромашкой" находит "Ромашка".
+ * Это не морфологический разбор, а отбрасывание типовых окончаний: основа короче четырёх букв не усекается
+ * ("Льва" не найдёт "Лев"), беглые гласные и чередования не учитываются ("Орла" не найдёт "Орёл").
+ * Запрос без пробелов (номер вида "ТС-123" или "01.02.2024") не разбивается на слова и ищется одной
+ * фразой без усечения, а точное совпадение подстроки проверяет exactSubstring.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskSearchText {
+
+    public static final int MAX_LENGTH = 2000;
+
+    // Совпадает с ngram_token_size MySQL (по умолчанию 2): более короткие слова индекс не найдёт
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final int MIN_STEM_LENGTH = 4;
+    private static final Pattern TERM_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern CYRILLIC_WORD = Pattern.compile("\\p{IsCyrillic}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s");
+
+    // Окончания существительных и прилагательных, от длинных к коротким
+    private static final String[] ENDINGS = {
+            "иями", "ями", "ами", "ого", "его", "ому", "ему", "ыми", "ими", "ием", "иях",
+            "ым", "им", "ых", "их", "ой", "ей", "ий", "ый", "ая", "яя", "ое", "ее", "ые", "ие", "ов", "ев", "ам", "ям", "ах", "ях",
+            "ом", "ем", "ую", "юю", "ия", "ию", "ии",
+            "а", "я", "о", "е", "ы", "и", "у", "ю", "ь", "й"
+    };
+
+    private final UserService userService;
+
+    public String of(Task task) {
+        List<String> parts = new ArrayList<>();
+        parts.add(task.getNumber());
+        parts.add(task.getDocumentNumber());
+        Contract contract = task.getContract();
+        if (contract != null) {
+            parts.add(contract.getNumber());
+            parts.add(contract.getApplicant() != null ? contract.getApplicant().getName() : null);
+        }
+        if (task.getAssignedUserId() != null) {
+            userService.getUserById(task.getAssignedUserId()).ifPresent(user -> addUser(parts, user));
+        }
+
+        StringBuilder text = new StringBuilder();
+        for (String part : parts) {
+            if (part != null && !part.isBlank()) {
+                if (!text.isEmpty()) {
+                    text.append(' ');
+                }
+                text.append(part.trim());
+            }
+        }
+        String normalized = normalize(text.toString());
+        return normalized.length() > MAX_LENGTH ? normalized.substring(0, MAX_LENGTH) : normalized;
+    }
+
+    // Запрос для MATCH ... AGAINST (... IN BOOLEAN MODE): каждое слово обязательно и ищется как фраза из n-грамм.
+    // Запрос без пробелов остаётся одной фразой: "ТС-123" ищется как +"тс 123", а не как два независимых слова.
+    // null — в запросе нет слов, которые можно найти по индексу
+    public static String toBooleanQuery(String quickSearch) {
+        if (quickSearch == null) {
+            return null;
+        }
+        String normalized = normalize(quickSearch.trim());
+        List<String> terms = new ArrayList<>();
+        for (String term : TERM_SEPARATOR.split(normalized)) {
+            if (term.length() >= MIN_TERM_LENGTH) {
+                terms.add(term);
+            }
+        }
+        if (terms.isEmpty()) {
+            return null;
+        }
+        if (exactSubstring(quickSearch) != null) {
+            return "+\"" + String.join(" ", terms) + "\"";
+        }
+        StringBuilder query = new StringBuilder();
+        for (String term : terms) {
+            if (!query.isEmpty()) {
+                query.append(' ');
+            }
+            query.append("+\"").append(stem(term)).append('"');
+        }
+        return query.toString();
+    }
+
+    // Запрос без пробелов, но с разделителями внутри (номер, дата): индекс лишь отбирает кандидатов,
+    // а совпадение проверяется как подстрока search_text, как в прежнем поиске через LIKE. null — не такой запрос
+    public static String exactSubstring(String quickSearch) {
+        if (quickSearch == null) {
+            return null;
+        }
+        String normalized = normalize(quickSearch.trim());
+        if (normalized.isEmpty() || WHITESPACE.matcher(normalized).find()
+                || !TERM_SEPARATOR.matcher(normalized).find()) {
+            return null;
+        }
+        return normalized;
+    }
+
+    static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT).replace('ё', 'е');
+    }
+
+    static String stem(String term) {
+        if (!CYRILLIC_WORD.matcher(term).matches()) {
+            return term;
+        }
+        for (String ending : ENDINGS) {
+            if (term.length() - ending.length() >= MIN_STEM_LENGTH && term.endsWith(ending)) {
+                return term.substring(0, term.length() - ending.length());
+            }
+        }
+        return term;
+    }
+
+    private static void addUser(List<String> parts, User user) {
+        parts.add(user.getSecondName());
+        parts.add(user.getFirstName());
+        parts.add(user.getPatronymic());
+        parts.add(user.getEmail());
+    }
+}
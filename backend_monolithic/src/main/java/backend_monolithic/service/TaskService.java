@@ -5,13 +5,17 @@ import backend_monolithic.model.enums.TaskStatus;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface TaskService {
     TaskResponse createTask(TaskRequest request, String jwt);
     TaskResponse getTaskById(Long id);
     List<TaskResponse> getAllTasks(String jwt);
+    void streamAllTasks(int batchSize, Consumer<List<TaskResponse>> batchConsumer);
     PageResponse<TaskResponse> getFilteredTasks(TaskFilter filter, String jwt, int page, int size);
     PageResponse<TaskResponse> getMyTasks(String jwt, int page, int size);
+    CursorPageResponse<TaskResponse> scrollFilteredTasks(TaskFilter filter, String jwt, String after, int size, boolean withTotal);
+    CursorPageResponse<TaskResponse> scrollMyTasks(String jwt, String after, int size, boolean withTotal);
     TaskResponse updateTask(Long taskId, TaskRequest request);
     TaskResponse updateStatus(Long taskId, TaskStatus newStatus, String documentNumber);
     TaskResponse setTaskNumber(Long taskId, String number, LocalDate applicationDate);
@@ -11,8 +11,10 @@ import backend_monolithic.model.dto.TaskDecisionNotification;
 import backend_monolithic.model.enums.TaskStatus;
 import backend_monolithic.model.enums.Role;
 import backend_monolithic.repository.*;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -25,6 +27,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 
@@ -33,6 +36,9 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class TaskServiceImplementation implements TaskService {
 
+    // Наибольший размер страницы курсорной пагинации; больший запрос урезается до него
+    private static final int MAX_SCROLL_PAGE_SIZE = 100;
+
     private final TaskRepository taskRepository;
     private final ApplicantRepository applicantRepository;
     private final ManufacturerRepository manufacturerRepository;
@@ -40,6 +46,19 @@ public class TaskServiceImplementation implements TaskService {
     private final ContractRepository contractRepository;
     private final UserService userService;
     private final NotificationProducerService notificationProducerService;
+    private final EntityManager entityManager;
+    private final TaskCountCache taskCountCache;
+    private final DuplicateFingerprint duplicateFingerprint;
+    private final UserActivityStats userActivityStats;
+    private final DirectoryAutocomplete directoryAutocomplete;
+    private final TaskSearchText taskSearchText;
+    private final TaskListViewRepository taskListViewRepository;
+    private final TaskListProjection taskListProjection;
+    private final TaskPageRepository taskPageRepository;
+
+    // true — поиск читает страницы из task_list_view, false — из tasks через entity graph (TaskPageRepository)
+    @Value("${app.tasks.search.use-list-view:true}")
+    private boolean searchUsesListView;
 
     @Override
     @Transactional
@@ -57,8 +76,12 @@ public class TaskServiceImplementation implements TaskService {
         task.setCreatedBy(user.getId());
         task.setCreatedAt(LocalDateTime.now());
         task.setStatus(TaskStatus.RECEIVED);
+        task.setDuplicateFingerprint(duplicateFingerprint.forTask(task));
 
+        task.setSearchText(taskSearchText.of(task));
         Task savedTask = taskRepository.save(task);
+        userActivityStats.record(UserActivityStats.Contribution.NONE, userActivityStats.snapshot(savedTask));
+        taskListProjection.refresh(savedTask);
         return mapEntityToResponse(savedTask);
     }
 
@@ -71,22 +94,56 @@ public class TaskServiceImplementation implements TaskService {
 
     @Override
     public List<TaskResponse> getAllTasks(String jwt) {
-        return taskRepository.findAll().stream()
-                .sorted(Comparator.comparing(Task::getCreatedAt).reversed())
-                .map(this::mapEntityToResponse)
-                .collect(Collectors.toList());
+        List<Task> tasks = taskRepository.findAll(Sort.by(Sort.Direction.DESC, "createdAt"));
+        return mapEntitiesToResponses(tasks);
     }
 
     @Override
-    public PageResponse<TaskResponse> getFilteredTasks(TaskFilter filter, String jwt, int page, int size) {
-        Specification<Task> spec = TaskSpecifications.buildSpecification(filter);
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+    public void streamAllTasks(int batchSize, Consumer<List<TaskResponse>> batchConsumer) {
+        // Пачки читаются keyset-запросами после последней отданной задачи, поэтому ни в памяти,
+        // ни на соединении не держится весь результат; вся выгрузка идёт в одной read-only транзакции
+        Pageable limit = PageRequest.of(0, batchSize);
+        TaskCursor cursor = null;
+        while (true) {
+            List<Task> batch = cursor == null
+                    ? taskRepository.findExportBatch(limit)
+                    : taskRepository.findExportBatchAfter(cursor.getCreatedAt(), cursor.getId(), limit);
+            if (batch.isEmpty()) {
+                return;
+            }
+            cursor = TaskCursor.of(batch.get(batch.size() - 1));
+            boolean last = batch.size() < batchSize;
+            flushStreamBatch(batch, batchConsumer);
+            if (last) {
+                return;
+            }
+        }
+    }
 
-        Page<Task> taskPage = taskRepository.findAll(spec, pageable);
+    // Отдаём пачку потребителю и очищаем контекст персистентности, чтобы память не росла с размером таблицы
+    private void flushStreamBatch(List<Task> batch, Consumer<List<TaskResponse>> batchConsumer) {
+        batchConsumer.accept(mapEntitiesToResponses(batch));
+        entityManager.clear();
+    }
 
-        List<TaskResponse> taskResponses = taskPage.getContent().stream()
-                .map(this::mapEntityToResponse)
-                .collect(Collectors.toList());
+    @Override
+    public PageResponse<TaskResponse> getFilteredTasks(TaskFilter filter, String jwt, int page, int size) {
+        Specification<Task> taskSpec = TaskSpecifications.buildSpecification(filter, userService::findUserIdsByName);
+        Sort sort = Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"));
+        Pageable pageable = PageRequest.of(page, size, sort);
+
+        Page<?> taskPage;
+        List<TaskResponse> taskResponses;
+        if (searchUsesListView) {
+            // Страница читается из task_list_view: названия уже подставлены, связи задачи не загружаются
+            Page<TaskListView> viewPage = taskListViewRepository.findAll(TaskSpecifications.forListView(taskSpec), pageable);
+            taskResponses = mapViewsToResponses(viewPage.getContent());
+            taskPage = viewPage;
+        } else {
+            Page<Task> entityPage = taskPageRepository.findAll(taskSpec, pageable);
+            taskResponses = mapEntitiesToResponses(entityPage.getContent());
+            taskPage = entityPage;
+        }
 
         PageResponse<TaskResponse> pageResponse = new PageResponse<>();
         pageResponse.setContent(taskResponses);
@@ -105,11 +162,9 @@ public class TaskServiceImplementation implements TaskService {
         Specification<Task> spec = TaskSpecifications.withAssignedUserId(user.getId());
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
 
-        Page<Task> taskPage = taskRepository.findAll(spec, pageable);
+        Page<Task> taskPage = taskPageRepository.findAll(spec, pageable);
 
-        List<TaskResponse> taskResponses = taskPage.getContent().stream()
-                .map(this::mapEntityToResponse)
-                .collect(Collectors.toList());
+        List<TaskResponse> taskResponses = mapEntitiesToResponses(taskPage.getContent());
 
         PageResponse<TaskResponse> pageResponse = new PageResponse<>();
         pageResponse.setContent(taskResponses);
@@ -121,11 +176,57 @@ public class TaskServiceImplementation implements TaskService {
         return pageResponse;
     }
 
+    @Override
+    public CursorPageResponse<TaskResponse> scrollFilteredTasks(TaskFilter filter, String jwt, String after,
+                                                                int size, boolean withTotal) {
+        Specification<Task> spec = TaskSpecifications.buildSpecification(filter, userService::findUserIdsByName);
+        return scrollTasks(spec, "search:" + filter, after, size, withTotal);
+    }
+
+    @Override
+    public CursorPageResponse<TaskResponse> scrollMyTasks(String jwt, String after, int size, boolean withTotal) {
+        User user = userService.getUserProfile(jwt);
+        Specification<Task> spec = TaskSpecifications.withAssignedUserId(user.getId());
+        return scrollTasks(spec, "my:" + user.getId(), after, size, withTotal);
+    }
+
+    // Keyset-пагинация: выбираем size + 1 строк после курсора, лишняя строка лишь сообщает о наличии следующей страницы
+    private CursorPageResponse<TaskResponse> scrollTasks(Specification<Task> spec, String countKey, String after,
+                                                         int requestedSize, boolean withTotal) {
+        if (requestedSize < 1) {
+            throw new BusinessException("Размер страницы должен быть больше нуля");
+        }
+        int size = Math.min(requestedSize, MAX_SCROLL_PAGE_SIZE);
+        TaskCursor cursor = after != null && !after.isBlank() ? TaskCursor.decode(after) : null;
+        Sort sort = Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"));
+
+        List<Task> tasks = taskRepository.findBy(
+                spec.and(TaskSpecifications.withCursorAfter(cursor)),
+                query -> query.sortBy(sort).limit(size + 1).all()
+        );
+
+        boolean hasNext = tasks.size() > size;
+        if (hasNext) {
+            tasks = tasks.subList(0, size);
+        }
+
+        CursorPageResponse<TaskResponse> response = new CursorPageResponse<>();
+        response.setContent(mapEntitiesToResponses(tasks));
+        response.setPageSize(size);
+        response.setHasNext(hasNext);
+        response.setNextCursor(hasNext ? TaskCursor.of(tasks.get(tasks.size() - 1)).encode() : null);
+        if (withTotal) {
+            response.setTotalElements(taskCountCache.get(countKey, () -> taskRepository.count(spec)));
+        }
+        return response;
+    }
+
     @Override
     @Transactional
     public TaskResponse updateTask(Long taskId, TaskRequest request) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new EntityNotFoundException("Задача не найдена"));
+        UserActivityStats.Contribution before = userActivityStats.snapshot(task);
 
         // Обновляем поля задачи
         task.setDocType(request.getDocType());
@@ -148,8 +249,12 @@ public class TaskServiceImplementation implements TaskService {
         } else {
             task.setContract(null);
         }
+        task.setDuplicateFingerprint(duplicateFingerprint.forTask(task));
 
+        task.setSearchText(taskSearchText.of(task));
         Task updatedTask = taskRepository.save(task);
+        userActivityStats.record(before, userActivityStats.snapshot(updatedTask));
+        taskListProjection.refresh(updatedTask);
         return mapEntityToResponse(updatedTask);
     }
 
@@ -158,6 +263,7 @@ public class TaskServiceImplementation implements TaskService {
     public TaskResponse updateStatus(Long taskId, TaskStatus newStatus, String documentNumber) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new TaskNotFoundException("Задача не найдена"));
+        UserActivityStats.Contribution before = userActivityStats.snapshot(task);
 
         validateStatusTransition(task.getStatus(), newStatus);
 
@@ -179,7 +285,10 @@ public class TaskServiceImplementation implements TaskService {
             task.setCompletedAt(LocalDate.now());
         }
 
+        task.setSearchText(taskSearchText.of(task));
         Task updatedTask = taskRepository.save(task);
+        userActivityStats.record(before, userActivityStats.snapshot(updatedTask));
+        taskListProjection.refresh(updatedTask);
         return mapEntityToResponse(updatedTask);
     }
 
@@ -192,6 +301,7 @@ public class TaskServiceImplementation implements TaskService {
 
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new TaskNotFoundException("Задача не найдена"));
+        UserActivityStats.Contribution before = userActivityStats.snapshot(task);
 
         if (task.getNumber() != null) {
             throw new BusinessException("Номер уже назначен");
@@ -200,7 +310,10 @@ public class TaskServiceImplementation implements TaskService {
         task.setNumber(number);
         task.setApplicationDate(applicationDate);
         task.setStatus(TaskStatus.REGISTERED);
+        task.setSearchText(taskSearchText.of(task));
         task = taskRepository.save(task);
+        userActivityStats.record(before, userActivityStats.snapshot(task));
+        taskListProjection.refresh(task);
         return mapEntityToResponse(task);
     }
 
@@ -209,6 +322,7 @@ public class TaskServiceImplementation implements TaskService {
     public TaskResponse setDecisionDate(Long taskId, LocalDate decisionDate) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new TaskNotFoundException("Задача не найдена"));
+        UserActivityStats.Contribution before = userActivityStats.snapshot(task);
 
         if (task.getDecisionAt() != null) {
             throw new BusinessException("Дата решения уже назначена");
@@ -221,9 +335,12 @@ public class TaskServiceImplementation implements TaskService {
         task.setDecisionAt(decisionDate);
         task.setStatus(TaskStatus.DECISION_DONE);
         task = taskRepository.save(task);
+        userActivityStats.record(before, userActivityStats.snapshot(task));
+        taskListProjection.refresh(task);
         
         // Отправка уведомлений всем пользователям с ролью "Бухгалтерия"
         List<User> accountants = userService.getUsersByRole(Role.ACCOUNTANT);
+        List<TaskDecisionNotification> notifications = new ArrayList<>();
         for (User accountant : accountants) {
             TaskDecisionNotification notification = new TaskDecisionNotification();
             notification.setRecipientEmail(accountant.getEmail());
@@ -232,9 +349,9 @@ public class TaskServiceImplementation implements TaskService {
             notification.setTaskNumber(task.getNumber() != null ? task.getNumber() : "ID: " + task.getId());
             notification.setApplicationDate(task.getApplicationDate());
             notification.setApplicantName(task.getApplicant() != null ? task.getApplicant().getName() : "Не указан");
-            
-            notificationProducerService.sendTaskDecisionNotification(notification);
+            notifications.add(notification);
         }
+        notificationProducerService.sendAll(notifications);
         
         return mapEntityToResponse(task);
     }
@@ -252,7 +369,9 @@ public class TaskServiceImplementation implements TaskService {
         }
 
         task.setContract(contract);
+        task.setSearchText(taskSearchText.of(task));
         Task updatedTask = taskRepository.save(task);
+        taskListProjection.refresh(updatedTask);
         return mapEntityToResponse(updatedTask);
     }
 
@@ -261,6 +380,7 @@ public class TaskServiceImplementation implements TaskService {
     public TaskResponse updateTaskExpert(Long taskId, Long assignedUserId) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new EntityNotFoundException("Задача не найдена"));
+        UserActivityStats.Contribution before = userActivityStats.snapshot(task);
 
         if (assignedUserId == null) {
             task.setAssignedUserId(null);
@@ -283,7 +403,10 @@ public class TaskServiceImplementation implements TaskService {
             notificationProducerService.sendTaskAssignmentNotification(notification);
         }
 
+        task.setSearchText(taskSearchText.of(task));
         Task updatedTask = taskRepository.save(task);
+        userActivityStats.record(before, userActivityStats.snapshot(updatedTask));
+        taskListProjection.refresh(updatedTask);
         return mapEntityToResponse(updatedTask);
     }
 
@@ -292,19 +415,22 @@ public class TaskServiceImplementation implements TaskService {
     public void deleteTask(Long taskId) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new EntityNotFoundException("Задача не найдена"));
+        UserActivityStats.Contribution before = userActivityStats.snapshot(task);
 
         // Explicitly detach from contract to keep the bidirectional relation consistent.
         task.setContract(null);
         taskRepository.delete(task);
+        userActivityStats.record(before, UserActivityStats.Contribution.NONE);
+        taskListProjection.remove(taskId);
     }
 
     @Override
     public List<TaskDuplicateInfo> checkDuplicates(TaskRequest request) {
-        List<Task> existingTasks = taskRepository.findByStatusNot(TaskStatus.COMPLETED);
         Task newTask = mapRequestToEntityForComparison(request);
+        List<Task> existingTasks = taskRepository.findByDuplicateFingerprintAndStatusNot(
+                duplicateFingerprint.forTask(newTask), TaskStatus.COMPLETED);
 
         return existingTasks.stream()
-                .filter(existingTask -> areTasksDuplicates(existingTask, newTask))
                 .map(existingTask -> new TaskDuplicateInfo(
                         existingTask.getId(),
                         getTaskDisplayIdentifier(existingTask),
@@ -357,6 +483,47 @@ public class TaskServiceImplementation implements TaskService {
     }
 
     private TaskResponse mapEntityToResponse(Task task) {
+        return mapEntityToResponse(task, userService.getUsersByIds(collectUserIds(List.of(task))));
+    }
+
+    // Пакетное преобразование: все пользователи страницы загружаются одним запросом
+    private List<TaskResponse> mapEntitiesToResponses(List<Task> tasks) {
+        Map<Long, User> users = userService.getUsersByIds(collectUserIds(tasks));
+        return tasks.stream()
+                .map(task -> mapEntityToResponse(task, users))
+                .collect(Collectors.toList());
+    }
+
+    private List<TaskResponse> mapViewsToResponses(List<TaskListView> views) {
+        Set<Long> userIds = new HashSet<>();
+        for (TaskListView view : views) {
+            if (view.getCreatedBy() != null) {
+                userIds.add(view.getCreatedBy());
+            }
+            if (view.getAssignedUserId() != null) {
+                userIds.add(view.getAssignedUserId());
+            }
+        }
+        Map<Long, User> users = userService.getUsersByIds(userIds);
+        return views.stream()
+                .map(view -> mapViewToResponse(view, users))
+                .collect(Collectors.toList());
+    }
+
+    private Set<Long> collectUserIds(Collection<Task> tasks) {
+        Set<Long> userIds = new HashSet<>();
+        for (Task task : tasks) {
+            if (task.getCreatedBy() != null) {
+                userIds.add(task.getCreatedBy());
+            }
+            if (task.getAssignedUserId() != null) {
+                userIds.add(task.getAssignedUserId());
+            }
+        }
+        return userIds;
+    }
+
+    private TaskResponse mapEntityToResponse(Task task, Map<Long, User> users) {
         TaskResponse response = new TaskResponse();
         response.setId(task.getId());
         response.setNumber(task.getNumber());
@@ -380,33 +547,18 @@ public class TaskServiceImplementation implements TaskService {
 
         // Обработка createdBy
         if (task.getCreatedBy() != null) {
-            Optional<User> createdBy = userService.getUserById(task.getCreatedBy());
-            if (createdBy.isPresent()) {
-                User user = createdBy.get();
-                StringBuilder shortName = new StringBuilder();
-                if (user.getSecondName() != null && !user.getSecondName().isBlank()) {
-                    shortName.append(user.getSecondName());
-                }
-                if (user.getFirstName() != null && !user.getFirstName().isBlank()) {
-                    if (shortName.length() > 0) {
-                        shortName.append(" ");
-                    }
-                    shortName.append(user.getFirstName().charAt(0)).append(".");
-                }
-                if (user.getPatronymic() != null && !user.getPatronymic().isBlank()) {
-                    if (shortName.length() > 0) {
-                        shortName.append(" ");
-                    }
-                    shortName.append(user.getPatronymic().charAt(0)).append(".");
-                }
-                response.setCreatedBy(shortName.toString());
+            User createdBy = users.get(task.getCreatedBy());
+            if (createdBy != null) {
+                response.setCreatedBy(buildShortName(createdBy));
             }
         }
 
         // Обработка assignedUser
         if (task.getAssignedUserId() != null) {
-            userService.getUserById(task.getAssignedUserId())
-                    .ifPresent(user -> response.setAssignedUser(new UserInfo(user)));
+            User assignedUser = users.get(task.getAssignedUserId());
+            if (assignedUser != null) {
+                response.setAssignedUser(new UserInfo(assignedUser));
+            }
         }
 
         // Обработка договора (One-to-Many)
@@ -425,44 +577,47 @@ public class TaskServiceImplementation implements TaskService {
         return response;
     }
 
-    private boolean areTasksDuplicates(Task task1, Task task2) {
-        // Сравниваем основные поля
-        if (!Objects.equals(task1.getDocType(), task2.getDocType())) return false;
-        if (!Objects.equals(task1.getMark(), task2.getMark())) return false;
-        if (!Objects.equals(task1.getTypeName(), task2.getTypeName())) return false;
-        if (!Objects.equals(task1.getProcessType(), task2.getProcessType())) return false;
-
-        // Сравниваем имена заявителей
-        String applicant1 = task1.getApplicant() != null ? task1.getApplicant().getName() : null;
-        String applicant2 = task2.getApplicant() != null ? task2.getApplicant().getName() : null;
-        if (!Objects.equals(applicant1, applicant2)) return false;
-
-        // Сравниваем имена производителей
-        String manufacturer1 = task1.getManufacturer() != null ? task1.getManufacturer().getName() : null;
-        String manufacturer2 = task2.getManufacturer() != null ? task2.getManufacturer().getName() : null;
-        if (!Objects.equals(manufacturer1, manufacturer2)) return false;
-
-        // Сравниваем категории (учитывая null)
-        if (task1.getCategories() == null && task2.getCategories() != null) return false;
-        if (task1.getCategories() != null && task2.getCategories() == null) return false;
-        if (task1.getCategories() != null && task2.getCategories() != null) {
-            if (!new HashSet<>(task1.getCategories()).equals(new HashSet<>(task2.getCategories()))) {
-                return false;
+    private TaskResponse mapViewToResponse(TaskListView view, Map<Long, User> users) {
+        TaskResponse response = new TaskResponse();
+        response.setId(view.getId());
+        response.setNumber(view.getNumber());
+        response.setDocumentNumber(view.getDocumentNumber());
+        response.setDocType(view.getDocType());
+        response.setApplicant(view.getApplicantName());
+        response.setManufacturer(view.getManufacturerName());
+        response.setCategories(view.getCategories());
+        response.setMark(view.getMark());
+        response.setTypeName(view.getTypeName());
+        response.setProcessType(view.getProcessType());
+        response.setPreviousProcessType(view.getPreviousProcessType());
+        response.setPreviousNumber(view.getPreviousNumber());
+        response.setRepresentative(view.getRepresentativeName());
+        response.setApplicationDate(view.getApplicationDate());
+        response.setDecisionAt(view.getDecisionAt());
+        response.setCompletedAt(view.getCompletedAt());
+        response.setCreatedAt(view.getCreatedAt());
+        response.setStatus(view.getStatus());
+        response.setAssignedUserId(view.getAssignedUserId());
+
+        // ФИО берутся из справочника пользователей в памяти, поэтому в task_list_view их нет
+        if (view.getCreatedBy() != null) {
+            User createdBy = users.get(view.getCreatedBy());
+            if (createdBy != null) {
+                response.setCreatedBy(buildShortName(createdBy));
+            }
+        }
+        if (view.getAssignedUserId() != null) {
+            User assignedUser = users.get(view.getAssignedUserId());
+            if (assignedUser != null) {
+                response.setAssignedUser(new UserInfo(assignedUser));
             }
         }
 
-        // Сравниваем представителей (null и пустая строка считаются равными)
-        String rep1 = task1.getRepresentative() != null ? task1.getRepresentative().getName() : null;
-        String rep2 = task2.getRepresentative() != null ? task2.getRepresentative().getName() : null;
-        if (rep1 == null) rep1 = "";
-        if (rep2 == null) rep2 = "";
-        if (!Objects.equals(rep1, rep2)) return false;
-
-        // Сравниваем предыдущие данные
-        if (!Objects.equals(task1.getPreviousNumber(), task2.getPreviousNumber())) return false;
-        if (!Objects.equals(task1.getPreviousProcessType(), task2.getPreviousProcessType())) return false;
-
-        return true;
+        if (view.getContractId() != null) {
+            response.setContract(new ContractSimple(view.getContractId(), view.getContractNumber(),
+                    view.getContractDate(), view.getContractPaymentStatus(), view.getContractApplicantName()));
+        }
+        return response;
     }
 
     private String getTaskDisplayIdentifier(Task task) {
@@ -486,7 +641,7 @@ public class TaskServiceImplementation implements TaskService {
             throw new BusinessException("Имя заявителя обязательно");
         }
         return applicantRepository.findByName(name)
-                .orElseGet(() -> applicantRepository.save(new Applicant(name)));
+                .orElseGet(() -> directoryAutocomplete.register(applicantRepository.save(new Applicant(name))));
     }
 
     private Manufacturer getOrCreateManufacturer(String name) {
@@ -494,7 +649,7 @@ public class TaskServiceImplementation implements TaskService {
             throw new BusinessException("Имя производителя обязательно");
         }
         return manufacturerRepository.findByName(name)
-                .orElseGet(() -> manufacturerRepository.save(new Manufacturer(name)));
+                .orElseGet(() -> directoryAutocomplete.register(manufacturerRepository.save(new Manufacturer(name))));
     }
 
     private Representative getOrCreateRepresentative(String name) {
@@ -507,11 +662,11 @@ public class TaskServiceImplementation implements TaskService {
         // Это позволит ссылаться на одну и ту же запись для всех задач без представителя
         if (name.trim().isEmpty()) {
             return representativeRepository.findByName("отсутствует")
-                    .orElseGet(() -> representativeRepository.save(new Representative("отсутствует")));
+                    .orElseGet(() -> directoryAutocomplete.register(representativeRepository.save(new Representative("отсутствует"))));
         }
 
         return representativeRepository.findByName(name)
-                .orElseGet(() -> representativeRepository.save(new Representative(name)));
+                .orElseGet(() -> directoryAutocomplete.register(representativeRepository.save(new Representative(name))));
     }
 
     private String buildShortName(User user) {
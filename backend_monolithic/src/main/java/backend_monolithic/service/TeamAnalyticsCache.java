@@ -0,0 +1,64 @@
+package backend_monolithic.service;
+
+import backend_monolithic.repository.UserDailyStatsRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Кэш аналитики по всем пользователям за период.
+// Сбрасывается целиком после каждой фиксации изменений агрегатов (UserActivityStats), TTL лишь страхует от пропуска.
+// При переполнении вытесняется период, который дольше всех не запрашивали (LRU), а не весь кэш.
+@Component
+public class TeamAnalyticsCache {
+
+    private static final long TTL_MILLIS = 10 * 60_000;
+    private static final int MAX_ENTRIES = 100;
+
+    private final Map<String, CachedTotals> totals = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedTotals> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    // Поколение кэша: результат, посчитанный до сброса, не должен попасть в кэш после него
+    private long generation;
+
+    public List<UserDailyStatsRepository.UserTotals> get(LocalDate from, LocalDate to,
+                                                         Supplier<List<UserDailyStatsRepository.UserTotals>> loader) {
+        String key = from + ".." + to;
+        long now = System.currentTimeMillis();
+        long loadedGeneration;
+        synchronized (this) {
+            CachedTotals cached = totals.get(key);
+            if (cached != null && cached.expiresAt > now) {
+                return cached.value;
+            }
+            loadedGeneration = generation;
+        }
+
+        // Запрос выполняется вне блокировки
+        List<UserDailyStatsRepository.UserTotals> value = List.copyOf(loader.get());
+        synchronized (this) {
+            if (generation == loadedGeneration) {
+                totals.put(key, new CachedTotals(value, now + TTL_MILLIS));
+            }
+        }
+        return value;
+    }
+
+    public synchronized void invalidate() {
+        generation++;
+        totals.clear();
+    }
+
+    @AllArgsConstructor
+    private static class CachedTotals {
+        private final List<UserDailyStatsRepository.UserTotals> value;
+        private final long expiresAt;
+    }
+}
@@ -0,0 +1,208 @@
+package backend_monolithic.service;
+
+import backend_monolithic.model.Certificate;
+import backend_monolithic.model.Declaration;
+import backend_monolithic.model.Task;
+import backend_monolithic.model.enums.CertificateStatus;
+import backend_monolithic.model.enums.DeclarationStatus;
+import backend_monolithic.model.enums.TaskStatus;
+import backend_monolithic.repository.UserDailyStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Поддержка таблицы user_daily_stats.
+ * Сервисы снимают вклад документа в аналитику до изменения и после него (snapshot),
+ * а record записывает разницу в той же транзакции. Так аналитика за любой период
+ * считается одним запросом по агрегатам, без подсчёта по tasks, declarations и certificates.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class UserActivityStats {
+
+    public static final Set<TaskStatus> TASK_NOT_ACTIVE_STATUSES = Set.of(
+            TaskStatus.CANCELLED,
+            TaskStatus.REJECTION,
+            TaskStatus.COMPLETED
+    );
+
+    private static final int ACTIVE_TASKS = 0;
+    private static final int ACTIVE_DECLARATIONS = 1;
+    private static final int ACTIVE_CERTIFICATES = 2;
+    private static final int COMPLETED_TASKS = 3;
+    private static final int COMPLETED_DECLARATIONS = 4;
+    private static final int COMPLETED_CERTIFICATES = 5;
+    private static final int COLUMNS = 6;
+
+    private final UserDailyStatsRepository statsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TeamAnalyticsCache teamAnalyticsCache;
+
+    public Contribution snapshot(Task task) {
+        Contribution contribution = new Contribution();
+        Long userId = task.getAssignedUserId();
+        if (userId == null) {
+            return contribution;
+        }
+        if (task.getStatus() != null && !TASK_NOT_ACTIVE_STATUSES.contains(task.getStatus())) {
+            contribution.add(userId, null, ACTIVE_TASKS);
+        }
+        LocalDate completedAt = task.getCompletedAt() != null ? task.getCompletedAt() : task.getDecisionAt();
+        if (task.getStatus() == TaskStatus.COMPLETED && completedAt != null) {
+            contribution.add(userId, completedAt, COMPLETED_TASKS);
+        }
+        return contribution;
+    }
+
+    public Contribution snapshot(Declaration declaration) {
+        Contribution contribution = new Contribution();
+        Long userId = declaration.getAssignedUserId();
+        if (userId == null) {
+            return contribution;
+        }
+        if (declaration.getStatus() != DeclarationStatus.DECLARATION_REGISTERED) {
+            contribution.add(userId, null, ACTIVE_DECLARATIONS);
+        }
+        if (declaration.getDeclarationRegisteredAt() != null) {
+            contribution.add(userId, declaration.getDeclarationRegisteredAt(), COMPLETED_DECLARATIONS);
+        }
+        return contribution;
+    }
+
+    public Contribution snapshot(Certificate certificate) {
+        Contribution contribution = new Contribution();
+        if (certificate.getStatus() != CertificateStatus.CERTIFICATE_REGISTERED) {
+            // Исполнитель и регистратор — один активный документ, если это один пользователь
+            Set<Long> users = new LinkedHashSet<>(Arrays.asList(
+                    certificate.getAssignedUserId(), certificate.getRegisteredByUserId()));
+            users.remove(null);
+            users.forEach(userId -> contribution.add(userId, null, ACTIVE_CERTIFICATES));
+        }
+        if (certificate.getRegisteredByUserId() != null && certificate.getCertificateRegisteredAt() != null) {
+            contribution.add(certificate.getRegisteredByUserId(), certificate.getCertificateRegisteredAt(),
+                    COMPLETED_CERTIFICATES);
+        }
+        return contribution;
+    }
+
+    // Записывает разницу между вкладом документа до и после изменения. Вызывается в транзакции изменения.
+    public void record(Contribution before, Contribution after) {
+        LocalDate today = LocalDate.now();
+        Map<Key, int[]> deltas = new LinkedHashMap<>();
+        before.entries.forEach(entry -> apply(deltas, entry, today, -1));
+        after.entries.forEach(entry -> apply(deltas, entry, today, 1));
+
+        boolean changed = false;
+        for (Map.Entry<Key, int[]> entry : deltas.entrySet()) {
+            int[] delta = entry.getValue();
+            if (Arrays.stream(delta).allMatch(value -> value == 0)) {
+                continue;
+            }
+            statsRepository.increment(entry.getKey().userId, entry.getKey().date,
+                    delta[ACTIVE_TASKS], delta[ACTIVE_DECLARATIONS], delta[ACTIVE_CERTIFICATES],
+                    delta[COMPLETED_TASKS], delta[COMPLETED_DECLARATIONS], delta[COMPLETED_CERTIFICATES]);
+            changed = true;
+        }
+        if (changed) {
+            invalidateAfterCommit();
+        }
+    }
+
+    // Пустая таблица заполняется из истории при старте
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (statsRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(cron = "${app.analytics.rebuild-cron:-}")
+    public void rebuild() {
+        LocalDate today = LocalDate.now();
+        List<String> notActiveStatuses = TASK_NOT_ACTIVE_STATUSES.stream().map(Enum::name).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            statsRepository.deleteAllInBatch();
+            statsRepository.rebuildActiveTasks(today, notActiveStatuses);
+            statsRepository.rebuildCompletedTasks(TaskStatus.COMPLETED.name());
+            statsRepository.rebuildActiveDeclarations(today, DeclarationStatus.DECLARATION_REGISTERED.name());
+            statsRepository.rebuildCompletedDeclarations();
+            statsRepository.rebuildActiveCertificates(today, CertificateStatus.CERTIFICATE_REGISTERED.name());
+            statsRepository.rebuildCompletedCertificates();
+        });
+        teamAnalyticsCache.invalidate();
+        log.info("Агрегаты аналитики пользователей перестроены");
+    }
+
+    // Кэш сбрасывается после фиксации: до неё параллельный запрос прочитал бы и закэшировал старые агрегаты
+    private void invalidateAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            teamAnalyticsCache.invalidate();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                teamAnalyticsCache.invalidate();
+            }
+        });
+    }
+
+    private static void apply(Map<Key, int[]> deltas, Entry entry, LocalDate today, int sign) {
+        // Изменение числа активных документов относится ко дню изменения
+        LocalDate date = entry.date != null ? entry.date : today;
+        deltas.computeIfAbsent(new Key(entry.userId, date), key -> new int[COLUMNS])[entry.column] += sign;
+    }
+
+    // Вклад документа в агрегаты: набор (пользователь, дата, показатель) с весом 1
+    public static class Contribution {
+        public static final Contribution NONE = new Contribution();
+
+        private final List<Entry> entries = new ArrayList<>(2);
+
+        private void add(Long userId, LocalDate date, int column) {
+            entries.add(new Entry(userId, date, column));
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final Long userId;
+        // null — активный документ, учитывается в день изменения
+        private final LocalDate date;
+        private final int column;
+    }
+
+    @RequiredArgsConstructor
+    private static class Key {
+        private final Long userId;
+        private final LocalDate date;
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(userId, key.userId) && Objects.equals(date, key.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, date);
+        }
+    }
+}
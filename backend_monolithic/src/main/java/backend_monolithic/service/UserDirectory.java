@@ -0,0 +1,297 @@
+package backend_monolithic.service;
+
+import backend_monolithic.model.User;
+import backend_monolithic.model.enums.Role;
+import backend_monolithic.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Справочник пользователей в памяти: снимок id -> пользователь, индексы по email и по роли.
+// Загружается при старте, обновляется при регистрации и смене ролей, периодически перечитывается целиком.
+// Пользователи в снимке разделяются между потоками, поэтому хранятся неизменяемые копии (FrozenUser):
+// не управляемые Hibernate, с неизменяемым набором ролей и сеттерами, бросающими исключение.
+@Component
+@Slf4j
+public class UserDirectory {
+
+    private final UserRepository userRepository;
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer refreshTimer;
+
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyMap(), false);
+
+    public UserDirectory(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.hits = Counter.builder("user.directory.requests")
+                .tag("result", "hit")
+                .description("Обращения к справочнику пользователей, обслуженные из памяти")
+                .register(meterRegistry);
+        this.misses = Counter.builder("user.directory.requests")
+                .tag("result", "miss")
+                .description("Обращения к справочнику пользователей, потребовавшие запроса в БД")
+                .register(meterRegistry);
+        this.refreshTimer = Timer.builder("user.directory.refresh")
+                .description("Время полной перезагрузки справочника пользователей")
+                .register(meterRegistry);
+        Gauge.builder("user.directory.size", this, directory -> directory.snapshot.byId.size())
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${app.users.directory.refresh-ms:300000}",
+            initialDelayString = "${app.users.directory.refresh-ms:300000}")
+    public void refresh() {
+        refreshTimer.record(() -> {
+            List<User> users = userRepository.findAllWithRoles();
+            replaceSnapshot(users.stream().collect(Collectors.toMap(User::getId, UserDirectory::freeze)));
+            log.info("Справочник пользователей загружен: {} пользователей", users.size());
+        });
+    }
+
+    public Optional<User> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        User user = snapshot.byId.get(id);
+        if (user != null) {
+            hits.increment();
+            return Optional.of(user);
+        }
+        misses.increment();
+        Optional<User> loaded = userRepository.findById(id).map(UserDirectory::freeze);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    public Map<Long, User> findAllById(Collection<Long> ids) {
+        Map<Long, User> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        Snapshot current = snapshot;
+        for (Long id : ids) {
+            User user = current.byId.get(id);
+            if (user != null) {
+                result.put(id, user);
+            } else {
+                missing.add(id);
+            }
+        }
+        hits.increment(result.size());
+
+        if (!missing.isEmpty()) {
+            misses.increment(missing.size());
+            List<User> loaded = userRepository.findAllWithRolesByIdIn(missing).stream()
+                    .map(UserDirectory::freeze)
+                    .toList();
+            loaded.forEach(user -> result.put(user.getId(), user));
+            putAll(loaded);
+        }
+        return result;
+    }
+
+    public User findByEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        User user = snapshot.byEmail.get(email);
+        if (user != null) {
+            hits.increment();
+            return user;
+        }
+        misses.increment();
+        User loaded = userRepository.findByEmail(email).map(UserDirectory::freeze).orElse(null);
+        if (loaded != null) {
+            put(loaded);
+        }
+        return loaded;
+    }
+
+    public List<User> findByRole(Role role) {
+        Snapshot current = snapshot;
+        if (!current.loaded) {
+            misses.increment();
+            return userRepository.findByRole(role).stream().map(UserDirectory::freeze).toList();
+        }
+        hits.increment();
+        return current.byRole.getOrDefault(role, Collections.emptyList());
+    }
+
+    public List<User> findAll() {
+        Snapshot current = snapshot;
+        if (!current.loaded) {
+            misses.increment();
+            return userRepository.findAllWithRoles().stream().map(UserDirectory::freeze).toList();
+        }
+        hits.increment();
+        return new ArrayList<>(current.byId.values());
+    }
+
+    // Пользователи, у которых ФИО, фамилия с инициалами или почта содержат строку запроса.
+    // Сравнение по нормализованным строкам (регистр, ё/е, знаки препинания), как в подсказках справочников.
+    public Set<Long> findIdsByName(String query) {
+        String normalized = NameAutocomplete.normalize(query);
+        if (normalized.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Snapshot current = snapshot;
+        if (!current.loaded) {
+            // До первой загрузки в снимке только часть пользователей
+            misses.increment();
+            refresh();
+            current = snapshot;
+        } else {
+            hits.increment();
+        }
+        Set<Long> ids = new HashSet<>();
+        current.searchNames.forEach((id, names) -> {
+            if (names.contains(normalized)) {
+                ids.add(id);
+            }
+        });
+        return ids;
+    }
+
+    // Добавляет или заменяет пользователя (после регистрации или изменения ролей)
+    public void put(User user) {
+        putAll(List.of(user));
+    }
+
+    private synchronized void putAll(Collection<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        Map<Long, User> byId = new LinkedHashMap<>(snapshot.byId);
+        users.forEach(user -> byId.put(user.getId(), freeze(user)));
+        snapshot = new Snapshot(byId, snapshot.loaded);
+    }
+
+    private synchronized void replaceSnapshot(Map<Long, User> byId) {
+        snapshot = new Snapshot(byId, true);
+    }
+
+    static User freeze(User user) {
+        return user instanceof FrozenUser ? user : new FrozenUser(user);
+    }
+
+    // Копия пользователя для снимка. Не является сущностью Hibernate: попытка сохранить её через репозиторий
+    // завершится ошибкой, изменять пользователя нужно через загруженную из БД сущность.
+    private static final class FrozenUser extends User {
+        private FrozenUser(User source) {
+            super(source.getId(), source.getEmail(), source.getPassword(), source.getFirstName(),
+                    source.getSecondName(), source.getPatronymic(),
+                    source.getRoles() != null ? Collections.unmodifiableSet(new HashSet<>(source.getRoles())) : Set.of());
+        }
+
+        @Override
+        public void setId(long id) {
+            throw immutable();
+        }
+
+        @Override
+        public void setEmail(String email) {
+            throw immutable();
+        }
+
+        @Override
+        public void setPassword(String password) {
+            throw immutable();
+        }
+
+        @Override
+        public void setFirstName(String firstName) {
+            throw immutable();
+        }
+
+        @Override
+        public void setSecondName(String secondName) {
+            throw immutable();
+        }
+
+        @Override
+        public void setPatronymic(String patronymic) {
+            throw immutable();
+        }
+
+        @Override
+        public void setRoles(Set<Role> roles) {
+            throw immutable();
+        }
+
+        private static UnsupportedOperationException immutable() {
+            return new UnsupportedOperationException("Пользователь из справочника неизменяем");
+        }
+    }
+
+    // Неизменяемый снимок справочника: читатели работают без блокировок, запись заменяет снимок целиком
+    private static class Snapshot {
+        private final Map<Long, User> byId;
+        private final Map<String, User> byEmail;
+        private final Map<Role, List<User>> byRole;
+        // id -> нормализованные варианты имени для поиска по исполнителю
+        private final Map<Long, String> searchNames;
+        // false до первой полной загрузки: индекс по ролям ещё неполон
+        private final boolean loaded;
+
+        private Snapshot(Map<Long, User> byId, boolean loaded) {
+            Map<Long, User> sortedById = new LinkedHashMap<>();
+            byId.values().stream()
+                    .sorted(Comparator.comparingLong(User::getId))
+                    .forEach(user -> sortedById.put(user.getId(), user));
+
+            Map<String, User> emails = new HashMap<>();
+            Map<Role, List<User>> roles = new EnumMap<>(Role.class);
+            Map<Long, String> names = new HashMap<>();
+            for (User user : sortedById.values()) {
+                names.put(user.getId(), searchNames(user));
+                if (user.getEmail() != null) {
+                    emails.put(user.getEmail(), user);
+                }
+                if (user.getRoles() != null) {
+                    for (Role role : user.getRoles()) {
+                        roles.computeIfAbsent(role, key -> new ArrayList<>()).add(user);
+                    }
+                }
+            }
+            roles.replaceAll((role, list) -> List.copyOf(list));
+
+            this.byId = Collections.unmodifiableMap(sortedById);
+            this.byEmail = Collections.unmodifiableMap(emails);
+            this.byRole = Collections.unmodifiableMap(roles);
+            this.searchNames = Collections.unmodifiableMap(names);
+            this.loaded = loaded;
+        }
+
+        // Варианты имени через "|": "фамилия имя отчество", "фамилия и о", "и о фамилия" и почта.
+        // Нормализованный запрос не содержит "|", поэтому совпадение не переходит через границу вариантов.
+        private static String searchNames(User user) {
+            String secondName = Objects.toString(user.getSecondName(), "");
+            String firstName = Objects.toString(user.getFirstName(), "");
+            String patronymic = Objects.toString(user.getPatronymic(), "");
+            String initials = initial(firstName) + " " + initial(patronymic);
+            return String.join("|",
+                    NameAutocomplete.normalize(secondName + " " + firstName + " " + patronymic),
+                    NameAutocomplete.normalize(secondName + " " + initials),
+                    NameAutocomplete.normalize(initials + " " + secondName),
+                    NameAutocomplete.normalize(user.getEmail()));
+        }
+
+        private static String initial(String name) {
+            String trimmed = name.trim();
+            return trimmed.isEmpty() ? "" : trimmed.substring(0, 1);
+        }
+    }
+}
@@ -3,14 +3,22 @@ package backend_monolithic.service;
 import backend_monolithic.model.User;
 import backend_monolithic.model.enums.Role;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 public interface UserService {
+    /**
+     * Сохраняет нового пользователя и ставит уведомления директорам в outbox одной транзакцией.
+     */
+    User register(User newUser);
     User getUserProfile(String jwt);
     List<User> getAllUsers();
     Optional<User> getUserById(Long id);
+    Map<Long, User> getUsersByIds(Collection<Long> ids);
     User updateUserRoles(Long id, Set<Role> roles);
     List<User> getUsersByRole(Role role);
+    Set<Long> findUserIdsByName(String name);
 }
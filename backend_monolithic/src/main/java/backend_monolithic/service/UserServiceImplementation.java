@@ -1,16 +1,26 @@
 package backend_monolithic.service;
 
 import backend_monolithic.model.User;
+import backend_monolithic.model.dto.UserRegistrationNotification;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import backend_monolithic.config.JwtProvider;
 import backend_monolithic.controller.UserController;
 
 import backend_monolithic.model.enums.Role;
 import backend_monolithic.repository.UserRepository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -19,25 +29,68 @@ import java.util.Set;
 public class UserServiceImplementation implements UserService{
 
     private final UserRepository userRepository;
+    private final UserDirectory userDirectory;
+    private final NotificationProducerService notificationProducerService;
 
+    @Override
+    @Transactional
+    public User register(User newUser) {
+        User savedUser = userRepository.save(newUser);
+
+        // Уведомления директорам пишутся в outbox в той же транзакции, что и пользователь:
+        // если запись не удалась, регистрация откатывается и повтор запроса не получит 409
+        List<UserRegistrationNotification> notifications = new ArrayList<>();
+        for (User director : getUsersByRole(Role.DIRECTOR)) {
+            UserRegistrationNotification notification = new UserRegistrationNotification();
+            notification.setRecipientEmail(director.getEmail());
+            notification.setRecipientName(buildShortName(director));
+            notification.setNewUserEmail(savedUser.getEmail());
+            notification.setNewUserFirstName(savedUser.getFirstName());
+            notification.setNewUserSecondName(savedUser.getSecondName());
+            notification.setNewUserPatronymic(savedUser.getPatronymic());
+            notifications.add(notification);
+        }
+        notificationProducerService.sendAll(notifications);
+
+        putAfterCommit(savedUser);
+        return savedUser;
+    }
 
     @Override
     public User getUserProfile(String jwt) {
         String email = JwtProvider.getEmailFromJwtToken(jwt);
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+
+        // Пользователь текущего запроса уже загружен фильтром JwtTokenValidator
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null
+                && authentication.getDetails() instanceof User user
+                && email.equals(user.getEmail())) {
+            return user;
+        }
+
+        User user = userDirectory.findByEmail(email);
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found");
+        }
         return user;
     }
 
     @Override
     public List<User> getAllUsers() {
-        return userRepository.findAll();
+        return userDirectory.findAll();
     }
 
     @Override
     public Optional<User> getUserById(Long id) {
-        Optional<User> userOptional = userRepository.findById(id);
-        return userOptional;
+        return userDirectory.findById(id);
+    }
+
+    @Override
+    public Map<Long, User> getUsersByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return userDirectory.findAllById(ids);
     }
 
     @Override
@@ -46,11 +99,52 @@ public class UserServiceImplementation implements UserService{
                 .orElseThrow(() -> new UserController.UserNotFoundException("User not found with id: " + id));
 
         user.setRoles(roles);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userDirectory.put(savedUser);
+        return savedUser;
     }
     @Override
     public List<User> getUsersByRole(Role role) {
-        return userRepository.findByRole(role);
+        return userDirectory.findByRole(role);
+    }
+
+    @Override
+    public Set<Long> findUserIdsByName(String name) {
+        return userDirectory.findIdsByName(name);
+    }
+
+    // Пользователь из откатившейся транзакции не должен попасть в справочник
+    private void putAfterCommit(User user) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            userDirectory.put(user);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userDirectory.put(user);
+            }
+        });
+    }
+
+    private String buildShortName(User user) {
+        StringBuilder shortName = new StringBuilder();
+        if (user.getSecondName() != null && !user.getSecondName().isBlank()) {
+            shortName.append(user.getSecondName());
+        }
+        if (user.getFirstName() != null && !user.getFirstName().isBlank()) {
+            if (shortName.length() > 0) {
+                shortName.append(" ");
+            }
+            shortName.append(user.getFirstName().charAt(0)).append(".");
+        }
+        if (user.getPatronymic() != null && !user.getPatronymic().isBlank()) {
+            if (shortName.length() > 0) {
+                shortName.append(" ");
+            }
+            shortName.append(user.getPatronymic().charAt(0)).append(".");
+        }
+        return shortName.toString();
     }
 
 }
@@ -0,0 +1,198 @@
+package db.migration;
+
+import backend_monolithic.model.Applicant;
+import backend_monolithic.model.Certificate;
+import backend_monolithic.model.Declaration;
+import backend_monolithic.model.Manufacturer;
+import backend_monolithic.model.Representative;
+import backend_monolithic.model.Task;
+import backend_monolithic.service.DuplicateFingerprint;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Пересчитывает отпечатки дубликатов у всех задач, деклараций и сертификатов.
+ * Хеш считается тем же DuplicateFingerprint, что и при сохранении, поэтому миграция на Java, а не на SQL.
+ * Строки читаются пачками по id; сущности собираются из колонок без Hibernate, только с ключевыми полями.
+ * Flyway выполняет миграцию один раз, на том экземпляре, который первым обновил схему.
+ * Если ключ отпечатка когда-нибудь изменится, пересчёт нужно повторить новой миграцией.
+ */
+public class V5__backfill_duplicate_fingerprints extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final DuplicateFingerprint duplicateFingerprint = new DuplicateFingerprint();
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+
+        backfill(connection, """
+                        SELECT e.id, e.doc_type, e.mark, e.type_name, e.process_type, e.previous_number,
+                               e.previous_process_type, a.name, m.name, r.name
+                        FROM tasks e
+                        LEFT JOIN applicants a ON a.id = e.applicant_id
+                        LEFT JOIN manufacturers m ON m.id = e.manufacturer_id
+                        LEFT JOIN representatives r ON r.id = e.representative_id
+                        WHERE e.id > ? ORDER BY e.id LIMIT ?
+                        """,
+                "task_categories", "task_id", "tasks",
+                row -> {
+                    Task task = new Task();
+                    task.setDocType(row.getString(2));
+                    task.setMark(row.getString(3));
+                    task.setTypeName(row.getString(4));
+                    task.setProcessType(row.getString(5));
+                    task.setPreviousNumber(row.getString(6));
+                    task.setPreviousProcessType(row.getString(7));
+                    task.setApplicant(applicant(row.getString(8)));
+                    task.setManufacturer(manufacturer(row.getString(9)));
+                    task.setRepresentative(representative(row.getString(10)));
+                    return task;
+                },
+                (task, categories) -> {
+                    task.setCategories(categories);
+                    return duplicateFingerprint.forTask(task);
+                });
+
+        backfill(connection, """
+                        SELECT e.id, e.mark, e.type_name, e.modifications, e.commercial_names, e.standard_section,
+                               a.name, m.name, r.name
+                        FROM declarations e
+                        LEFT JOIN applicants a ON a.id = e.applicant_id
+                        LEFT JOIN manufacturers m ON m.id = e.manufacturer_id
+                        LEFT JOIN representatives r ON r.id = e.representative_id
+                        WHERE e.id > ? ORDER BY e.id LIMIT ?
+                        """,
+                "declaration_categories", "declaration_id", "declarations",
+                row -> {
+                    Declaration declaration = new Declaration();
+                    declaration.setMark(row.getString(2));
+                    declaration.setTypeName(row.getString(3));
+                    declaration.setModifications(row.getString(4));
+                    declaration.setCommercialNames(row.getString(5));
+                    declaration.setStandardSection(row.getString(6));
+                    declaration.setApplicant(applicant(row.getString(7)));
+                    declaration.setManufacturer(manufacturer(row.getString(8)));
+                    declaration.setRepresentative(representative(row.getString(9)));
+                    return declaration;
+                },
+                (declaration, categories) -> {
+                    declaration.setCategories(categories);
+                    return duplicateFingerprint.forDeclaration(declaration);
+                });
+
+        backfill(connection, """
+                        SELECT e.id, e.mark, e.type_name, e.modifications, e.commercial_names, e.standard_section,
+                               a.name, m.name, r.name
+                        FROM certificates e
+                        LEFT JOIN applicants a ON a.id = e.applicant_id
+                        LEFT JOIN manufacturers m ON m.id = e.manufacturer_id
+                        LEFT JOIN representatives r ON r.id = e.representative_id
+                        WHERE e.id > ? ORDER BY e.id LIMIT ?
+                        """,
+                "certificate_categories", "certificate_id", "certificates",
+                row -> {
+                    Certificate certificate = new Certificate();
+                    certificate.setMark(row.getString(2));
+                    certificate.setTypeName(row.getString(3));
+                    certificate.setModifications(row.getString(4));
+                    certificate.setCommercialNames(row.getString(5));
+                    certificate.setStandardSection(row.getString(6));
+                    certificate.setApplicant(applicant(row.getString(7)));
+                    certificate.setManufacturer(manufacturer(row.getString(8)));
+                    certificate.setRepresentative(representative(row.getString(9)));
+                    return certificate;
+                },
+                (certificate, categories) -> {
+                    certificate.setCategories(categories);
+                    return duplicateFingerprint.forCertificate(certificate);
+                });
+    }
+
+    private <T> void backfill(Connection connection, String selectRows,
+                              String categoriesTable, String ownerColumn, String table,
+                              RowMapper<T> mapper, Fingerprinter<T> fingerprinter) throws SQLException {
+        long lastId = 0;
+        while (true) {
+            Map<Long, T> rows = new LinkedHashMap<>();
+            try (PreparedStatement select = connection.prepareStatement(selectRows)) {
+                select.setLong(1, lastId);
+                select.setInt(2, BATCH_SIZE);
+                try (ResultSet resultSet = select.executeQuery()) {
+                    while (resultSet.next()) {
+                        lastId = resultSet.getLong(1);
+                        rows.put(lastId, mapper.map(resultSet));
+                    }
+                }
+            }
+            if (rows.isEmpty()) {
+                break;
+            }
+
+            Map<Long, List<String>> categories =
+                    loadCategories(connection, categoriesTable, ownerColumn, new ArrayList<>(rows.keySet()));
+            try (PreparedStatement update = connection.prepareStatement(
+                    "UPDATE " + table + " SET duplicate_fingerprint = ? WHERE id = ?")) {
+                for (Map.Entry<Long, T> row : rows.entrySet()) {
+                    List<String> rowCategories = categories.getOrDefault(row.getKey(), Collections.emptyList());
+                    update.setString(1, fingerprinter.fingerprint(row.getValue(), rowCategories));
+                    update.setLong(2, row.getKey());
+                    update.addBatch();
+                }
+                update.executeBatch();
+            }
+        }
+    }
+
+    private Map<Long, List<String>> loadCategories(Connection connection, String table, String ownerColumn,
+                                                   List<Long> ids) throws SQLException {
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        Map<Long, List<String>> categories = new HashMap<>();
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT " + ownerColumn + ", categories FROM " + table + " WHERE " + ownerColumn + " IN (" + placeholders + ")")) {
+            for (int i = 0; i < ids.size(); i++) {
+                select.setLong(i + 1, ids.get(i));
+            }
+            try (ResultSet resultSet = select.executeQuery()) {
+                while (resultSet.next()) {
+                    categories.computeIfAbsent(resultSet.getLong(1), id -> new ArrayList<>()).add(resultSet.getString(2));
+                }
+            }
+        }
+        return categories;
+    }
+
+    private static Applicant applicant(String name) {
+        return name != null ? new Applicant(name) : null;
+    }
+
+    private static Manufacturer manufacturer(String name) {
+        return name != null ? new Manufacturer(name) : null;
+    }
+
+    private static Representative representative(String name) {
+        return name != null ? new Representative(null, name) : null;
+    }
+
+    @FunctionalInterface
+    private interface RowMapper<T> {
+        T map(ResultSet row) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface Fingerprinter<T> {
+        String fingerprint(T entity, List<String> categories);
+    }
+}
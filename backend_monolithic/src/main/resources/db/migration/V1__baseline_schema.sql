@@ -0,0 +1,230 @@
+-- Исходная схема, которую раньше создавал Hibernate (ddl-auto=update).
+-- Скрипт идемпотентен: на существующей базе он создаёт только недостающие таблицы и колонки,
+-- имена ограничений совпадают с теми, что генерировал Hibernate.
+
+CREATE TABLE IF NOT EXISTS users (
+    id bigint NOT NULL AUTO_INCREMENT,
+    password varchar(1000),
+    email varchar(255),
+    first_name varchar(255),
+    patronymic varchar(255),
+    second_name varchar(255),
+    PRIMARY KEY (id),
+    CONSTRAINT UK6dotkott2kjsp8vw4d0m25fb7 UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS user_roles (
+    user_id bigint NOT NULL,
+    roles enum ('ACCOUNTANT','DIRECTOR','EMPTY','EXPERT','REGISTRAR'),
+    CONSTRAINT FKhfh9dx7w3ubf1co1vdev94g3f FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS applicants (
+    id bigint NOT NULL AUTO_INCREMENT,
+    name varchar(255),
+    PRIMARY KEY (id),
+    CONSTRAINT UKaysax782wly4indt08nmqcueq UNIQUE (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS manufacturers (
+    id bigint NOT NULL AUTO_INCREMENT,
+    name varchar(255),
+    PRIMARY KEY (id),
+    CONSTRAINT UKrgruuf4bdtokowdxk169bs8op UNIQUE (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS representatives (
+    id bigint NOT NULL AUTO_INCREMENT,
+    name varchar(255),
+    PRIMARY KEY (id),
+    CONSTRAINT UK7r23atqwv3wr8o77d3wcn4g3d UNIQUE (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS contracts (
+    id bigint NOT NULL AUTO_INCREMENT,
+    date date,
+    applicant_id bigint,
+    created_at datetime(6),
+    created_by bigint,
+    comments varchar(255),
+    number varchar(255),
+    payment_status enum ('NOTPAIDFOR','PAIDFOR','PARTIALLYPAIDFOR','POSTPAID'),
+    PRIMARY KEY (id),
+    CONSTRAINT UK70u7wr8yfd4h5smr6amogod0y UNIQUE (number),
+    CONSTRAINT FK48x46l1jn3s8sligvft98er2r FOREIGN KEY (applicant_id) REFERENCES applicants (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS tasks (
+    id bigint NOT NULL AUTO_INCREMENT,
+    application_date date,
+    completed_at date,
+    decision_at date,
+    applicant_id bigint,
+    assigned_user_id bigint,
+    contract_id bigint,
+    created_at datetime(6),
+    created_by bigint,
+    manufacturer_id bigint,
+    representative_id bigint,
+    duplicate_fingerprint varchar(64),
+    status varchar(64),
+    doc_type varchar(255),
+    document_number varchar(255),
+    mark varchar(255),
+    number varchar(255),
+    previous_number varchar(255),
+    previous_process_type varchar(255),
+    process_type varchar(255),
+    type_name varchar(255),
+    PRIMARY KEY (id),
+    CONSTRAINT UK8tvftvjyeiqhtxw3m6b0mdld5 UNIQUE (document_number),
+    CONSTRAINT UK3ie4qs2wmuc0807htiv8rc35l UNIQUE (number),
+    CONSTRAINT FKhwe40jgp89ndvrhwwroirbdt FOREIGN KEY (applicant_id) REFERENCES applicants (id),
+    CONSTRAINT FKnr7oqvikcbypqgh6y891hkgq6 FOREIGN KEY (contract_id) REFERENCES contracts (id),
+    CONSTRAINT FK8e0n1g7rrwvtfkwynh2kfmuje FOREIGN KEY (manufacturer_id) REFERENCES manufacturers (id),
+    CONSTRAINT FK8n2juxtbxmq4vnvxr2u2aksas FOREIGN KEY (representative_id) REFERENCES representatives (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS task_categories (
+    task_id bigint NOT NULL,
+    categories varchar(255),
+    CONSTRAINT FK8u3svjudiuq1t4laitwga0mc4 FOREIGN KEY (task_id) REFERENCES tasks (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS declarations (
+    id bigint NOT NULL AUTO_INCREMENT,
+    application_date date,
+    declaration_registered_at date,
+    applicant_id bigint,
+    assigned_user_id bigint,
+    created_at datetime(6),
+    created_by bigint,
+    manufacturer_id bigint,
+    representative_id bigint,
+    duplicate_fingerprint varchar(64),
+    commercial_names varchar(255),
+    declaration_number varchar(255),
+    mark varchar(255),
+    modifications varchar(255),
+    number varchar(255),
+    standard_section varchar(255),
+    type_name varchar(255),
+    status enum ('DECLARATION_REGISTERED','FGIS_ENTERED','JOURNAL_REGISTERED','RECEIVED'),
+    PRIMARY KEY (id),
+    CONSTRAINT UK9axmgi6053jt92f9bn8ebihdn UNIQUE (declaration_number),
+    CONSTRAINT UKy5rfio0xlvuy3fc3kg3vp8kb UNIQUE (number),
+    CONSTRAINT FKmkl6ievgaa0blekpg0gp6hml6 FOREIGN KEY (applicant_id) REFERENCES applicants (id),
+    CONSTRAINT FKioj511822r7u81cl2jk46y66 FOREIGN KEY (manufacturer_id) REFERENCES manufacturers (id),
+    CONSTRAINT FKcfuv2e4s76eu4axkrgx900j3i FOREIGN KEY (representative_id) REFERENCES representatives (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS declaration_categories (
+    declaration_id bigint NOT NULL,
+    categories varchar(255),
+    CONSTRAINT FKj6mfqku85g0dhbrykcly7m97e FOREIGN KEY (declaration_id) REFERENCES declarations (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS certificates (
+    id bigint NOT NULL AUTO_INCREMENT,
+    application_date date,
+    certificate_registered_at date,
+    applicant_id bigint,
+    assigned_user_id bigint,
+    created_at datetime(6),
+    created_by bigint,
+    manufacturer_id bigint,
+    registered_by_user_id bigint,
+    representative_id bigint,
+    duplicate_fingerprint varchar(64),
+    notes varchar(2000),
+    certificate_number varchar(255),
+    commercial_names varchar(255),
+    mark varchar(255),
+    modifications varchar(255),
+    number varchar(255),
+    standard_section varchar(255),
+    type_name varchar(255),
+    status enum ('CERTIFICATE_REGISTERED','FGIS_ENTERED','JOURNAL_REGISTERED','RECEIVED'),
+    PRIMARY KEY (id),
+    CONSTRAINT UKfipjgqr5997w3i89i4mfyng9f UNIQUE (certificate_number),
+    CONSTRAINT UK7tx72qa8yl4cn4jx10uosydxt UNIQUE (number),
+    CONSTRAINT FKfoebelyqlng87f9u00xn211kl FOREIGN KEY (applicant_id) REFERENCES applicants (id),
+    CONSTRAINT FKrf6rqoalfxqnqyru40q9c2ajg FOREIGN KEY (manufacturer_id) REFERENCES manufacturers (id),
+    CONSTRAINT FK8kpmkqekixa168egouw365pvh FOREIGN KEY (representative_id) REFERENCES representatives (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS certificate_categories (
+    certificate_id bigint NOT NULL,
+    categories varchar(255),
+    CONSTRAINT FK5valrxkjurdemp44gs9pvusxs FOREIGN KEY (certificate_id) REFERENCES certificates (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id bigint NOT NULL AUTO_INCREMENT,
+    attempts integer NOT NULL,
+    message_count integer NOT NULL,
+    created_at datetime(6) NOT NULL,
+    sent_at datetime(6),
+    type varchar(128),
+    last_error varchar(1000),
+    payload LONGTEXT NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_notification_outbox_pending (sent_at, id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS user_daily_stats (
+    user_id bigint NOT NULL,
+    stat_date date NOT NULL,
+    active_tasks integer NOT NULL,
+    active_declarations integer NOT NULL,
+    active_certificates integer NOT NULL,
+    completed_tasks integer NOT NULL,
+    completed_declarations integer NOT NULL,
+    completed_certificates integer NOT NULL,
+    PRIMARY KEY (stat_date, user_id)
+) ENGINE = InnoDB;
+
+-- Колонки и индексы отпечатков дубликатов появились позже исходных таблиц:
+-- на старой базе добавляются, если их ещё нет
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+               WHERE table_schema = DATABASE() AND table_name = 'tasks' AND column_name = 'duplicate_fingerprint') = 0,
+              'ALTER TABLE tasks ADD COLUMN duplicate_fingerprint varchar(64)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+               WHERE table_schema = DATABASE() AND table_name = 'declarations' AND column_name = 'duplicate_fingerprint') = 0,
+              'ALTER TABLE declarations ADD COLUMN duplicate_fingerprint varchar(64)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+               WHERE table_schema = DATABASE() AND table_name = 'certificates' AND column_name = 'duplicate_fingerprint') = 0,
+              'ALTER TABLE certificates ADD COLUMN duplicate_fingerprint varchar(64)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'tasks' AND index_name = 'idx_tasks_duplicate_fingerprint') = 0,
+              'CREATE INDEX idx_tasks_duplicate_fingerprint ON tasks (duplicate_fingerprint)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'declarations' AND index_name = 'idx_declarations_duplicate_fingerprint') = 0,
+              'CREATE INDEX idx_declarations_duplicate_fingerprint ON declarations (duplicate_fingerprint)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'certificates' AND index_name = 'idx_certificates_duplicate_fingerprint') = 0,
+              'CREATE INDEX idx_certificates_duplicate_fingerprint ON certificates (duplicate_fingerprint)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
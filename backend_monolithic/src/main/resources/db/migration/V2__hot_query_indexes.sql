@@ -0,0 +1,23 @@
+-- Составные индексы под частые запросы.
+-- tasks.contract_id отдельный индекс не нужен: InnoDB уже создал его для внешнего ключа FKnr7oqvikcbypqgh6y891hkgq6.
+
+-- Страницы и курсорная выгрузка задач: ORDER BY created_at DESC, id DESC
+CREATE INDEX idx_tasks_created_at ON tasks (created_at, id);
+
+-- Задачи исполнителя по статусу (подсчёт активных, перестроение аналитики)
+CREATE INDEX idx_tasks_assigned_user_status ON tasks (assigned_user_id, status);
+
+-- /tasks/my: задачи исполнителя, новые сверху
+CREATE INDEX idx_tasks_assigned_user_created_at ON tasks (assigned_user_id, created_at);
+
+-- findByStatusNot, фильтр по статусу
+CREATE INDEX idx_tasks_status ON tasks (status);
+
+-- Мои декларации: findByAssignedUserIdOrderByCreatedAtDesc
+CREATE INDEX idx_declarations_assigned_user_created_at ON declarations (assigned_user_id, created_at);
+
+-- Мои сертификаты: исполнитель или регистратор, новые сверху
+CREATE INDEX idx_certificates_assigned_user_created_at ON certificates (assigned_user_id, created_at);
+
+-- Сертификаты, зарегистрированные пользователем за период
+CREATE INDEX idx_certificates_registered_by_registered_at ON certificates (registered_by_user_id, certificate_registered_at);
@@ -0,0 +1,20 @@
+-- Быстрый поиск задач по FULLTEXT-индексу вместо LIKE '%...%' по нескольким таблицам.
+-- search_text содержит номер, номер ОТТС/ОТШ, номер договора, заявителя по договору и ФИО/почту исполнителя
+-- в нижнем регистре с ё → е; дальше колонку поддерживает TaskSearchText.
+
+ALTER TABLE tasks ADD COLUMN search_text varchar(2000);
+
+UPDATE tasks t
+    LEFT JOIN contracts c ON c.id = t.contract_id
+    LEFT JOIN applicants a ON a.id = c.applicant_id
+    LEFT JOIN users u ON u.id = t.assigned_user_id
+SET t.search_text = LEFT(REPLACE(LOWER(CONCAT_WS(' ',
+        NULLIF(TRIM(t.number), ''), NULLIF(TRIM(t.document_number), ''),
+        NULLIF(TRIM(c.number), ''), NULLIF(TRIM(a.name), ''),
+        NULLIF(TRIM(u.second_name), ''), NULLIF(TRIM(u.first_name), ''),
+        NULLIF(TRIM(u.patronymic), ''), NULLIF(TRIM(u.email), ''))), 'ё', 'е'), 2000);
+
+-- Стоп-слова InnoDB отбрасывают n-граммы, содержащие их (например, "a" или "i"), поэтому для индекса они отключаются
+SET SESSION innodb_ft_enable_stopword = OFF;
+
+CREATE FULLTEXT INDEX ftx_tasks_search_text ON tasks (search_text) WITH PARSER ngram;
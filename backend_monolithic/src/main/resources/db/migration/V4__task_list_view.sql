@@ -0,0 +1,51 @@
+-- Read-model списка задач: строка TaskResponse с подставленными названиями заявителя, изготовителя,
+-- представителя и данными договора. Поиск задач читает страницу из неё одним запросом по индексу created_at.
+-- Дальше таблицу поддерживает TaskListProjection, расхождения с исходными таблицами исправляет плановая сверка.
+
+CREATE TABLE task_list_view (
+    id bigint NOT NULL,
+    number varchar(255),
+    document_number varchar(255),
+    doc_type varchar(255),
+    applicant_name varchar(255),
+    manufacturer_name varchar(255),
+    categories json,
+    mark varchar(255),
+    type_name varchar(255),
+    process_type varchar(255),
+    previous_process_type varchar(255),
+    previous_number varchar(255),
+    representative_name varchar(255),
+    application_date date,
+    decision_at date,
+    completed_at date,
+    created_at datetime(6),
+    status varchar(64),
+    created_by bigint,
+    assigned_user_id bigint,
+    contract_id bigint,
+    contract_number varchar(255),
+    contract_date date,
+    contract_payment_status varchar(32),
+    contract_applicant_name varchar(255),
+    PRIMARY KEY (id),
+    INDEX idx_task_list_view_created_at (created_at, id)
+);
+
+INSERT INTO task_list_view (id, number, document_number, doc_type, applicant_name, manufacturer_name, categories,
+                            mark, type_name, process_type, previous_process_type, previous_number,
+                            representative_name, application_date, decision_at, completed_at, created_at, status,
+                            created_by, assigned_user_id, contract_id, contract_number, contract_date,
+                            contract_payment_status, contract_applicant_name)
+SELECT t.id, t.number, t.document_number, t.doc_type, a.name, m.name,
+       COALESCE((SELECT JSON_ARRAYAGG(tc.categories) FROM task_categories tc WHERE tc.task_id = t.id), JSON_ARRAY()),
+       t.mark, t.type_name, t.process_type, t.previous_process_type, t.previous_number,
+       r.name, t.application_date, t.decision_at, t.completed_at, t.created_at, t.status,
+       t.created_by, t.assigned_user_id, c.id, c.number, c.date,
+       c.payment_status, ca.name
+FROM tasks t
+    LEFT JOIN applicants a ON a.id = t.applicant_id
+    LEFT JOIN manufacturers m ON m.id = t.manufacturer_id
+    LEFT JOIN representatives r ON r.id = t.representative_id
+    LEFT JOIN contracts c ON c.id = t.contract_id
+    LEFT JOIN applicants ca ON ca.id = c.applicant_id;
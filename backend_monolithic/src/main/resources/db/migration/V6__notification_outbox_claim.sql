@@ -0,0 +1,4 @@
+-- Relay занимает пачку outbox коротким UPDATE с арендой claimed_until и отправляет её в Kafka вне транзакции.
+-- Пока аренда не истекла, другие экземпляры строку не берут; после сбоя relay строка снова становится доступной.
+
+ALTER TABLE notification_outbox ADD COLUMN claimed_until datetime(6);
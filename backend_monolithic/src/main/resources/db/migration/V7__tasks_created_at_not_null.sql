@@ -0,0 +1,14 @@
+-- Keyset-страницы и выгрузка сравнивают (created_at, id): строка с NULL не попадает ни в одну страницу после первой,
+-- а курсор на ней не декодируется. Старые задачи без даты получают самую раннюю дату создания — в порядке
+-- created_at DESC они и раньше стояли в конце, так что порядок списка не меняется.
+
+SET @oldest_created_at = (SELECT COALESCE(MIN(created_at), NOW(6)) FROM tasks);
+
+UPDATE tasks SET created_at = @oldest_created_at WHERE created_at IS NULL;
+
+UPDATE task_list_view v JOIN tasks t ON t.id = v.id
+SET v.created_at = t.created_at
+WHERE v.created_at IS NULL;
+
+ALTER TABLE tasks MODIFY created_at datetime(6) NOT NULL;
+ALTER TABLE task_list_view MODIFY created_at datetime(6) NOT NULL;
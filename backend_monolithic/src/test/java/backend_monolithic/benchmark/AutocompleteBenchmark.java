@@ -0,0 +1,125 @@
+package backend_monolithic.benchmark;
+
+import backend_monolithic.model.Applicant;
+import backend_monolithic.service.NameAutocomplete;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Подсказки заявителей: индекс в памяти против прежнего findByNameContainingIgnoreCase.
+ * Запрос репозитория выполняется тем же SQL, что строит Hibernate, на MySQL из Testcontainers (нужен Docker).
+ * Запуск: main из IDE или java -cp target/test-classes:... backend_monolithic.benchmark.AutocompleteBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AutocompleteBenchmark {
+
+    private static final String[] FORMS = {"ООО", "АО", "ЗАО", "ИП", "ПАО"};
+    private static final String[] WORDS = {"Север", "Автоцентр", "Зелёный", "Берег", "Транс", "Мотор", "Сервис",
+            "Техно", "Груз", "Логистик", "Импорт", "Восток", "Запад", "Союз", "Строй", "Альфа", "Регион"};
+
+    @Param({"10000", "50000"})
+    private int size;
+
+    @Param({"сер", "автоцентр север"})
+    private String query;
+
+    private MySQLContainer<?> mysql;
+    private Connection connection;
+    private PreparedStatement likeQuery;
+    private NameAutocomplete<Applicant> autocomplete;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AutocompleteBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        List<Applicant> applicants = generate(size);
+        autocomplete = new NameAutocomplete<>(Applicant::getId, Applicant::getName);
+        autocomplete.addAll(applicants);
+
+        mysql = new MySQLContainer<>("mysql:8.0.36");
+        mysql.start();
+        Flyway.configure()
+                .dataSource(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword())
+                .load()
+                .migrate();
+        connection = DriverManager.getConnection(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword());
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO applicants (id, name) VALUES (?, ?)")) {
+            for (Applicant applicant : applicants) {
+                insert.setLong(1, applicant.getId());
+                insert.setString(2, applicant.getName());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        // SQL метода ApplicantRepository.findByNameContainingIgnoreCase
+        likeQuery = connection.prepareStatement(
+                "select a1_0.id, a1_0.name from applicants a1_0 where upper(a1_0.name) like upper(?) escape '\\\\'");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        mysql.stop();
+    }
+
+    @Benchmark
+    public List<Applicant> repositoryLike() throws SQLException {
+        likeQuery.setString(1, "%" + query + "%");
+        List<Applicant> result = new ArrayList<>();
+        try (ResultSet rows = likeQuery.executeQuery()) {
+            while (rows.next()) {
+                result.add(new Applicant(rows.getLong(1), rows.getString(2)));
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Applicant> inMemoryIndex() {
+        return autocomplete.search(query, 20);
+    }
+
+    private static List<Applicant> generate(int size) {
+        Random random = new Random(42);
+        List<Applicant> applicants = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            String name = FORMS[random.nextInt(FORMS.length)] + " \"" + WORDS[random.nextInt(WORDS.length)]
+                    + " " + WORDS[random.nextInt(WORDS.length)] + " " + id + "\"";
+            applicants.add(new Applicant(id, name));
+        }
+        return applicants;
+    }
+}
@@ -0,0 +1,45 @@
+package backend_monolithic.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JwtClaimsCacheTest {
+
+    private final AtomicInteger verified = new AtomicInteger();
+    private final Function<String, JwtClaims> verifier = jwt -> {
+        verified.incrementAndGet();
+        return new JwtClaims(jwt + "@example.com", List.of("EXPERT"), Instant.now().plusSeconds(3600));
+    };
+
+    @Test
+    void overflowEvictsLeastRecentlyUsedTokenOnly() {
+        JwtClaimsCache cache = new JwtClaimsCache(2);
+        cache.get("a", verifier);
+        cache.get("b", verifier);
+        cache.get("a", verifier);
+        cache.get("c", verifier);
+
+        assertEquals(2, cache.size());
+        verified.set(0);
+        cache.get("a", verifier);
+        cache.get("c", verifier);
+        assertEquals(0, verified.get());
+        cache.get("b", verifier);
+        assertEquals(1, verified.get());
+    }
+
+    @Test
+    void expiredTokenIsVerifiedAgain() {
+        JwtClaimsCache cache = new JwtClaimsCache(10);
+        cache.get("a", jwt -> new JwtClaims("a", List.of(), Instant.now().minusSeconds(1)));
+        cache.get("a", verifier);
+
+        assertEquals(1, verified.get());
+    }
+}
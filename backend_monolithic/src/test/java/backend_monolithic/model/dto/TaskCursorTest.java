@@ -0,0 +1,58 @@
+package backend_monolithic.model.dto;
+
+import backend_monolithic.error.BusinessException;
+import backend_monolithic.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TaskCursorTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123_456_000);
+
+    @Test
+    void decodesWhatWasEncoded() {
+        TaskCursor cursor = TaskCursor.of(task(42L, CREATED_AT));
+
+        assertEquals(cursor, TaskCursor.decode(cursor.encode()));
+        // Нулевые секунды LocalDateTime.toString опускает — разбор должен это выдержать
+        TaskCursor onMinute = new TaskCursor(LocalDateTime.of(2025, 3, 1, 10, 15), 7L);
+        assertEquals(onMinute, TaskCursor.decode(onMinute.encode()));
+    }
+
+    @Test
+    void tasksCreatedAtSameMomentDifferOnlyById() {
+        TaskCursor first = TaskCursor.of(task(10L, CREATED_AT));
+        TaskCursor second = TaskCursor.of(task(11L, CREATED_AT));
+
+        assertNotEquals(first.encode(), second.encode());
+        assertEquals(10L, TaskCursor.decode(first.encode()).getId());
+        assertEquals(11L, TaskCursor.decode(second.encode()).getId());
+        assertEquals(CREATED_AT, TaskCursor.decode(second.encode()).getCreatedAt());
+    }
+
+    @Test
+    void rejectsMalformedToken() {
+        assertThrows(BusinessException.class, () -> TaskCursor.decode("не base64!"));
+        assertThrows(BusinessException.class, () -> TaskCursor.decode(encodeRaw("42")));
+        assertThrows(BusinessException.class, () -> TaskCursor.decode(encodeRaw("null|42")));
+        assertThrows(BusinessException.class, () -> TaskCursor.decode(encodeRaw(CREATED_AT + "|abc")));
+    }
+
+    private static Task task(Long id, LocalDateTime createdAt) {
+        Task task = new Task();
+        task.setId(id);
+        task.setCreatedAt(createdAt);
+        return task;
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,155 @@
+package backend_monolithic.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Проверка планов частых запросов на схеме из миграций.
+ * Таблицы заполняются синтетическими данными, для каждого запроса EXPLAIN должен показать индекс.
+ * Запросы повторяют SQL, который Hibernate строит для соответствующих методов репозиториев.
+ * Нужен Docker; без него тест пропускается.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanTest {
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0.36");
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        Flyway.configure()
+                .dataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword())
+                .load()
+                .migrate();
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("SET SESSION cte_max_recursion_depth = 100000");
+            statement.execute("""
+                    INSERT INTO contracts (number, created_at)
+                    WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 200)
+                    SELECT CONCAT('C-', n), NOW() FROM seq
+                    """);
+            // Большая часть задач завершена, как и в рабочей базе
+            statement.execute("""
+                    INSERT INTO tasks (created_at, assigned_user_id, contract_id, status)
+                    WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 20000)
+                    SELECT NOW() - INTERVAL n MINUTE, n % 50 + 1, n % 200 + 1,
+                           CASE WHEN n % 10 = 0 THEN 'REGISTERED' ELSE 'COMPLETED' END
+                    FROM seq
+                    """);
+            statement.execute("""
+                    INSERT INTO declarations (created_at, assigned_user_id, status)
+                    WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 20000)
+                    SELECT NOW() - INTERVAL n MINUTE, n % 50 + 1, 'DECLARATION_REGISTERED' FROM seq
+                    """);
+            statement.execute("""
+                    INSERT INTO certificates (created_at, assigned_user_id, registered_by_user_id,
+                                              certificate_registered_at, status)
+                    WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 20000)
+                    SELECT NOW() - INTERVAL n MINUTE, n % 50 + 1, (n + 7) % 50 + 1,
+                           CURDATE() - INTERVAL (n % 365) DAY, 'CERTIFICATE_REGISTERED'
+                    FROM seq
+                    """);
+            statement.execute("UPDATE tasks SET search_text = CONCAT('тс-', id, ' ооо ромашка ', id % 50) WHERE id % 100 = 0");
+            statement.execute("""
+                    INSERT INTO task_list_view (id, created_at, status, assigned_user_id, contract_id)
+                    SELECT id, created_at, status, assigned_user_id, contract_id FROM tasks
+                    """);
+            statement.execute("ANALYZE TABLE contracts, tasks, task_list_view, declarations, certificates");
+        }
+    }
+
+    @Test
+    void taskPageIsReadInCreatedAtOrder() throws SQLException {
+        assertUsesIndex("SELECT * FROM tasks ORDER BY created_at DESC, id DESC LIMIT 20");
+    }
+
+    @Test
+    void myTasksUseAssignedUserIndex() throws SQLException {
+        assertUsesIndex("SELECT * FROM tasks WHERE assigned_user_id = 7 ORDER BY created_at DESC, id DESC LIMIT 20");
+    }
+
+    @Test
+    void activeTaskCountUsesAssignedUserAndStatusIndex() throws SQLException {
+        assertUsesIndex("""
+                SELECT COUNT(*) FROM tasks
+                WHERE assigned_user_id = 7 AND status NOT IN ('CANCELLED', 'REJECTION', 'COMPLETED')
+                """);
+    }
+
+    @Test
+    void tasksByStatusNotUseStatusIndex() throws SQLException {
+        assertUsesIndex("SELECT id FROM tasks WHERE status <> 'COMPLETED'");
+    }
+
+    @Test
+    void tasksByContractUseForeignKeyIndex() throws SQLException {
+        assertUsesIndex("SELECT * FROM tasks WHERE contract_id = 5");
+    }
+
+    @Test
+    void quickSearchUsesFullTextIndex() throws SQLException {
+        assertUsesIndex("SELECT id FROM tasks WHERE MATCH(search_text) AGAINST ('+\"ромашк\"' IN BOOLEAN MODE) > 0");
+    }
+
+    @Test
+    void filteredTaskPageIsReadFromListView() throws SQLException {
+        assertUsesIndex("""
+                SELECT * FROM task_list_view v
+                WHERE v.id IN (SELECT t.id FROM tasks t WHERE t.status = 'REGISTERED')
+                ORDER BY v.created_at DESC, v.id DESC LIMIT 20
+                """);
+    }
+
+    @Test
+    void myDeclarationsUseAssignedUserIndex() throws SQLException {
+        assertUsesIndex("SELECT * FROM declarations WHERE assigned_user_id = 7 ORDER BY created_at DESC");
+    }
+
+    @Test
+    void myCertificatesUseAssignedAndRegistrarIndexes() throws SQLException {
+        assertUsesIndex("""
+                SELECT * FROM certificates
+                WHERE assigned_user_id = 7 OR registered_by_user_id = 7
+                ORDER BY created_at DESC
+                """);
+    }
+
+    @Test
+    void registeredCertificatesInPeriodUseRegistrarIndex() throws SQLException {
+        assertUsesIndex("""
+                SELECT COUNT(*) FROM certificates
+                WHERE registered_by_user_id = 7
+                  AND certificate_registered_at BETWEEN CURDATE() - INTERVAL 30 DAY AND CURDATE()
+                """);
+    }
+
+    private static void assertUsesIndex(String sql) throws SQLException {
+        try (Connection connection = connect();
+             Statement statement = connection.createStatement();
+             ResultSet plan = statement.executeQuery("EXPLAIN " + sql)) {
+            while (plan.next()) {
+                String table = plan.getString("table");
+                assertNotEquals("ALL", plan.getString("type"), "Полный просмотр " + table + ": " + sql);
+                assertNotNull(plan.getString("key"), "Индекс не используется для " + table + ": " + sql);
+            }
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword());
+    }
+}
@@ -0,0 +1,91 @@
+package backend_monolithic.repository;
+
+import backend_monolithic.model.Task;
+import backend_monolithic.model.enums.TaskStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Keyset-выгрузка задач отдаёт каждую задачу ровно один раз, даже когда у нескольких задач
+ * одинаковый created_at и они попадают на границу пачек.
+ * Нужен Docker; без него тест пропускается.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class TaskExportRepositoryTest {
+
+    private static final int TASKS = 25;
+    private static final int SAME_MOMENT = 5;
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0.36");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final List<Long> expected = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        LocalDateTime start = LocalDateTime.of(2025, 3, 1, 10, 0);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            Task task = new Task();
+            task.setStatus(TaskStatus.RECEIVED);
+            // Группы по SAME_MOMENT задач с одной датой создания
+            task.setCreatedAt(start.plusMinutes(i / SAME_MOMENT));
+            tasks.add(entityManager.persist(task));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        // Ожидаемый порядок: createdAt DESC, id DESC
+        for (int group = (TASKS - 1) / SAME_MOMENT; group >= 0; group--) {
+            for (int i = Math.min(TASKS, (group + 1) * SAME_MOMENT) - 1; i >= group * SAME_MOMENT; i--) {
+                expected.add(tasks.get(i).getId());
+            }
+        }
+    }
+
+    @Test
+    void exportsEveryTaskOnceAcrossBatchBoundaries() {
+        Pageable limit = PageRequest.of(0, 4);
+        List<Long> exported = new ArrayList<>();
+        List<Task> batch = taskRepository.findExportBatch(limit);
+        while (!batch.isEmpty()) {
+            batch.forEach(task -> exported.add(task.getId()));
+            Task last = batch.get(batch.size() - 1);
+            entityManager.clear();
+            batch = taskRepository.findExportBatchAfter(last.getCreatedAt(), last.getId(), limit);
+        }
+
+        assertEquals(expected, exported);
+    }
+}
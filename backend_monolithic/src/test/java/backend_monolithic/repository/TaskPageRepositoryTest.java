@@ -0,0 +1,111 @@
+package backend_monolithic.repository;
+
+import backend_monolithic.model.Applicant;
+import backend_monolithic.model.Contract;
+import backend_monolithic.model.Manufacturer;
+import backend_monolithic.model.Representative;
+import backend_monolithic.model.Task;
+import backend_monolithic.model.enums.TaskStatus;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Число SQL-запросов на страницу задач через TaskPageRepository не зависит от размера страницы:
+ * выборка страницы со связями, count и одна догрузка категорий.
+ * Нужен Docker; без него тест пропускается.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class TaskPageRepositoryTest {
+
+    private static final int TASKS = 120;
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0.36");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+
+    @Autowired
+    private TaskPageRepository taskPageRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < TASKS; i++) {
+            Contract contract = new Contract();
+            contract.setNumber("C-" + i);
+            contract.setApplicant(entityManager.persist(new Applicant("Заявитель по договору " + i)));
+            entityManager.persist(contract);
+
+            Task task = new Task();
+            task.setApplicant(entityManager.persist(new Applicant("Заявитель " + i)));
+            task.setManufacturer(entityManager.persist(new Manufacturer("Изготовитель " + i)));
+            task.setRepresentative(entityManager.persist(new Representative("Представитель " + i)));
+            task.setContract(contract);
+            task.setCategories(new ArrayList<>(List.of("M1", "N" + i % 3)));
+            task.setStatus(TaskStatus.RECEIVED);
+            task.setCreatedAt(LocalDateTime.now().minusMinutes(i));
+            entityManager.persist(task);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void pageIsLoadedWithConstantNumberOfStatements() {
+        assertEquals(3, statementsForPage(10));
+        assertEquals(3, statementsForPage(50));
+    }
+
+    private long statementsForPage(int size) {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<Task> page = taskPageRepository.findAll(Specification.where(null),
+                PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "createdAt")));
+        // Обращаемся ко всем полям, которые читает mapEntityToResponse
+        for (Task task : page.getContent()) {
+            task.getApplicant().getName();
+            task.getManufacturer().getName();
+            task.getRepresentative().getName();
+            task.getContract().getApplicant().getName();
+            task.getCategories().size();
+        }
+        assertEquals(size, page.getNumberOfElements());
+        assertEquals(TASKS, page.getTotalElements());
+
+        long statements = statistics.getPrepareStatementCount();
+        entityManager.clear();
+        return statements;
+    }
+}
@@ -0,0 +1,157 @@
+package backend_monolithic.service;
+
+import backend_monolithic.model.Applicant;
+import backend_monolithic.model.Certificate;
+import backend_monolithic.model.Declaration;
+import backend_monolithic.model.Manufacturer;
+import backend_monolithic.model.Representative;
+import backend_monolithic.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class DuplicateFingerprintTest {
+
+    private final DuplicateFingerprint fingerprint = new DuplicateFingerprint();
+
+    @Test
+    void taskWithoutRepresentativeMatchesEmptyRepresentativeName() {
+        Task withoutRepresentative = task();
+        Task withEmptyName = task();
+        withEmptyName.setRepresentative(new Representative(null, ""));
+        Task withNullName = task();
+        withNullName.setRepresentative(new Representative(null, null));
+
+        assertEquals(fingerprint.forTask(withoutRepresentative), fingerprint.forTask(withEmptyName));
+        assertEquals(fingerprint.forTask(withoutRepresentative), fingerprint.forTask(withNullName));
+    }
+
+    @Test
+    void taskIgnoresCategoryOrder() {
+        Task left = task();
+        left.setCategories(new ArrayList<>(List.of("M1", "N1", "O2")));
+        Task right = task();
+        right.setCategories(new ArrayList<>(List.of("O2", "M1", "N1")));
+
+        assertEquals(fingerprint.forTask(left), fingerprint.forTask(right));
+    }
+
+    @Test
+    void taskCollapsesWhitespace() {
+        Task left = task();
+        Task right = task();
+        right.setMark("  Лада \t ");
+        right.setApplicant(new Applicant("ООО   Ромашка"));
+
+        assertEquals(fingerprint.forTask(left), fingerprint.forTask(right));
+    }
+
+    @Test
+    void taskKeepsCase() {
+        Task left = task();
+        Task right = task();
+        right.setApplicant(new Applicant("ооо ромашка"));
+
+        assertNotEquals(fingerprint.forTask(left), fingerprint.forTask(right));
+    }
+
+    @Test
+    void taskDiffersByKeyField() {
+        Task left = task();
+        Task right = task();
+        right.setPreviousNumber("ТС-124");
+
+        assertNotEquals(fingerprint.forTask(left), fingerprint.forTask(right));
+    }
+
+    @Test
+    void declarationNormalizesRepresentativeCategoriesAndWhitespace() {
+        Declaration left = declaration();
+        Declaration right = declaration();
+        right.setRepresentative(new Representative(null, ""));
+        right.setCategories(new ArrayList<>(List.of("N1", "M1")));
+        right.setCommercialNames(" Веста   Кросс ");
+
+        assertEquals(fingerprint.forDeclaration(left), fingerprint.forDeclaration(right));
+    }
+
+    @Test
+    void declarationKeepsCase() {
+        Declaration left = declaration();
+        Declaration right = declaration();
+        right.setTypeName("веста");
+
+        assertNotEquals(fingerprint.forDeclaration(left), fingerprint.forDeclaration(right));
+    }
+
+    @Test
+    void certificateNormalizesRepresentativeCategoriesAndWhitespace() {
+        Certificate left = certificate();
+        Certificate right = certificate();
+        right.setRepresentative(new Representative(null, null));
+        right.setCategories(new ArrayList<>(List.of("N1", "M1")));
+        right.setModifications("GFL   110\n");
+
+        assertEquals(fingerprint.forCertificate(left), fingerprint.forCertificate(right));
+    }
+
+    @Test
+    void certificateKeepsCase() {
+        Certificate left = certificate();
+        Certificate right = certificate();
+        right.setManufacturer(new Manufacturer("АО автоваз"));
+
+        assertNotEquals(fingerprint.forCertificate(left), fingerprint.forCertificate(right));
+    }
+
+    @Test
+    void sameFieldsInDifferentEntitiesAreIndependent() {
+        Declaration declaration = declaration();
+        Certificate certificate = certificate();
+
+        assertEquals(fingerprint.forDeclaration(declaration), fingerprint.forCertificate(certificate));
+        certificate.setStandardSection("ГОСТ 33997");
+        assertNotEquals(fingerprint.forDeclaration(declaration), fingerprint.forCertificate(certificate));
+    }
+
+    private static Task task() {
+        Task task = new Task();
+        task.setDocType("ОТТС");
+        task.setMark("Лада");
+        task.setTypeName("Веста");
+        task.setProcessType("Первичное");
+        task.setApplicant(new Applicant("ООО Ромашка"));
+        task.setManufacturer(new Manufacturer("АО АвтоВАЗ"));
+        task.setCategories(new ArrayList<>(List.of("M1", "N1")));
+        task.setPreviousNumber("ТС-123");
+        return task;
+    }
+
+    private static Declaration declaration() {
+        Declaration declaration = new Declaration();
+        declaration.setMark("Лада");
+        declaration.setTypeName("Веста");
+        declaration.setModifications("GFL 110");
+        declaration.setCommercialNames("Веста Кросс");
+        declaration.setApplicant(new Applicant("ООО Ромашка"));
+        declaration.setManufacturer(new Manufacturer("АО АвтоВАЗ"));
+        declaration.setCategories(new ArrayList<>(List.of("M1", "N1")));
+        return declaration;
+    }
+
+    private static Certificate certificate() {
+        Certificate certificate = new Certificate();
+        certificate.setMark("Лада");
+        certificate.setTypeName("Веста");
+        certificate.setModifications("GFL 110");
+        certificate.setCommercialNames("Веста Кросс");
+        certificate.setApplicant(new Applicant("ООО Ромашка"));
+        certificate.setManufacturer(new Manufacturer("АО АвтоВАЗ"));
+        certificate.setCategories(new ArrayList<>(List.of("M1", "N1")));
+        return certificate;
+    }
+}
@@ -0,0 +1,61 @@
+package backend_monolithic.service;
+
+import backend_monolithic.model.Applicant;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NameAutocompleteTest {
+
+    private final NameAutocomplete<Applicant> autocomplete =
+            new NameAutocomplete<>(Applicant::getId, Applicant::getName);
+
+    @Test
+    void ranksExactThenPrefixThenWordThenSubstring() {
+        autocomplete.addAll(List.of(
+                new Applicant(1L, "ООО \"Автоцентр Север\""),
+                new Applicant(2L, "Север"),
+                new Applicant(3L, "Северный завод"),
+                new Applicant(4L, "Завод Северсталь-метиз"),
+                new Applicant(5L, "Южный порт")
+        ));
+
+        assertEquals(List.of("Север", "Северный завод", "ООО \"Автоцентр Север\"", "Завод Северсталь-метиз"),
+                names(autocomplete.search("север", 10)));
+    }
+
+    @Test
+    void foldsCaseYoAndPunctuation() {
+        autocomplete.add(new Applicant(1L, "ЗАО «Зелёный Берег»"));
+
+        assertEquals(1, autocomplete.search("зеленый берег", 10).size());
+        assertEquals(1, autocomplete.search("ЗАО Зелёный", 10).size());
+        assertEquals(1, autocomplete.search("ёный", 10).size());
+    }
+
+    @Test
+    void shortAndEmptyQueriesAreBoundedByLimit() {
+        for (long id = 1; id <= 50; id++) {
+            autocomplete.add(new Applicant(id, "Компания " + id));
+        }
+
+        assertEquals(5, autocomplete.search("", 5).size());
+        assertEquals(5, autocomplete.search("к", 5).size());
+        assertTrue(autocomplete.search("нет такой", 5).isEmpty());
+    }
+
+    @Test
+    void ignoresRepeatedRegistration() {
+        autocomplete.add(new Applicant(1L, "Север"));
+        autocomplete.add(new Applicant(1L, "Север"));
+
+        assertEquals(1, autocomplete.size());
+    }
+
+    private static List<String> names(List<Applicant> applicants) {
+        return applicants.stream().map(Applicant::getName).toList();
+    }
+}
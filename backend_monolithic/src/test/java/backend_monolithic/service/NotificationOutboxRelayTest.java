@@ -0,0 +1,155 @@
+package backend_monolithic.service;
+
+import backend_monolithic.model.NotificationOutbox;
+import backend_monolithic.repository.NotificationOutboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NotificationOutboxRelayTest {
+
+    private final NotificationOutboxRepository outboxRepository = mock(NotificationOutboxRepository.class);
+    private MockProducer<String, String> producer;
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        // KafkaTemplate закрывает продюсер после каждой отправки, а история нужна на весь тест
+        producer = new MockProducer<>(true, new StringSerializer(), new StringSerializer()) {
+            @Override
+            public void close(Duration timeout) {
+            }
+        };
+        KafkaTemplate<String, String> kafkaTemplate = new KafkaTemplate<>(new MockProducerFactory<>(() -> producer));
+
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new NotificationOutboxRelay(outboxRepository, kafkaTemplate, new ObjectMapper(),
+                new TransactionTemplate(transactionManager), meterRegistry);
+        ReflectionTestUtils.setField(relay, "notificationsTopic", "notifications");
+        ReflectionTestUtils.setField(relay, "batchSize", 10);
+        ReflectionTestUtils.setField(relay, "maxAttempts", 3);
+        ReflectionTestUtils.setField(relay, "sendTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(relay, "leaseMs", 60000L);
+    }
+
+    @Test
+    void sendsEveryNotificationOfBatchAndMarksRowSent() {
+        NotificationOutbox entry = outboxEntry("""
+                [{"recipientEmail":"a@example.com","taskId":1},{"recipientEmail":"b@example.com","taskId":1}]
+                """);
+        when(outboxRepository.lockPendingBatch(anyInt(), any(), anyInt())).thenReturn(List.of(entry));
+        when(outboxRepository.findAllById(List.of(1L))).thenReturn(List.of(entry));
+
+        assertEquals(1, relay.relayBatch());
+
+        List<ProducerRecord<String, String>> records = producer.history();
+        assertEquals(2, records.size());
+        assertEquals("a@example.com", records.get(0).key());
+        assertEquals("{\"recipientEmail\":\"b@example.com\",\"taskId\":1}", records.get(1).value());
+        assertEquals("TaskDecisionNotification", typeHeader(records.get(1)));
+        assertEquals("outbox-1-1", header(records.get(1), NotificationOutboxRelay.ID_HEADER));
+        assertNotNull(entry.getSentAt());
+    }
+
+    @Test
+    void sendsEnvelopedNotificationsWithTypeHeader() {
+        NotificationOutbox entry = outboxEntry("""
+                [{"id":"n-1","type":"TaskAssignmentNotification","notification":{"recipientEmail":"a@example.com","taskId":1}},
+                 {"id":"n-2","type":"TaskDecisionNotification","notification":{"recipientEmail":"b@example.com","taskId":1}}]
+                """);
+        entry.setType("TaskAssignmentNotification,TaskDecisionNotification");
+        when(outboxRepository.lockPendingBatch(anyInt(), any(), anyInt())).thenReturn(List.of(entry));
+        when(outboxRepository.findAllById(List.of(1L))).thenReturn(List.of(entry));
+
+        assertEquals(1, relay.relayBatch());
+
+        List<ProducerRecord<String, String>> records = producer.history();
+        assertEquals(2, records.size());
+        assertEquals("{\"recipientEmail\":\"a@example.com\",\"taskId\":1}", records.get(0).value());
+        assertEquals("TaskAssignmentNotification", typeHeader(records.get(0)));
+        assertEquals("TaskDecisionNotification", typeHeader(records.get(1)));
+        assertEquals("n-2", header(records.get(1), NotificationOutboxRelay.ID_HEADER));
+    }
+
+    @Test
+    void keepsRowPendingWhenPayloadCannotBeSent() {
+        NotificationOutbox entry = outboxEntry("not json");
+        when(outboxRepository.lockPendingBatch(anyInt(), any(), anyInt())).thenReturn(List.of(entry));
+        when(outboxRepository.findAllById(List.of(1L))).thenReturn(List.of(entry));
+
+        assertEquals(0, relay.relayBatch());
+
+        assertNull(entry.getSentAt());
+        assertEquals(1, entry.getAttempts());
+        assertNotNull(entry.getLastError());
+        assertNull(entry.getClaimedUntil());
+    }
+
+    @Test
+    void claimsBatchWithLeaseBeforeSending() {
+        NotificationOutbox entry = outboxEntry("[{\"recipientEmail\":\"a@example.com\",\"taskId\":1}]");
+        when(outboxRepository.lockPendingBatch(anyInt(), any(), anyInt())).thenReturn(List.of(entry));
+        // Итог отправки записывается в строку, перечитанную по id во второй транзакции
+        NotificationOutbox reloaded = outboxEntry(entry.getPayload());
+        when(outboxRepository.findAllById(List.of(1L))).thenReturn(List.of(reloaded));
+
+        assertEquals(1, relay.relayBatch());
+
+        assertTrue(entry.getClaimedUntil().isAfter(LocalDateTime.now()));
+        assertNotNull(reloaded.getSentAt());
+        assertNull(reloaded.getClaimedUntil());
+    }
+
+    @Test
+    void reportsRowsThatExhaustedAttempts() {
+        when(outboxRepository.countBySentAtIsNullAndAttemptsGreaterThanEqual(3)).thenReturn(2L);
+
+        assertEquals(2.0, meterRegistry.get("notifications.outbox.exhausted").gauge().value());
+    }
+
+    private String typeHeader(ProducerRecord<String, String> record) {
+        return header(record, NotificationOutboxRelay.TYPE_HEADER);
+    }
+
+    private String header(ProducerRecord<String, String> record, String name) {
+        return new String(record.headers().lastHeader(name).value(), StandardCharsets.UTF_8);
+    }
+
+    private NotificationOutbox outboxEntry(String payload) {
+        NotificationOutbox entry = new NotificationOutbox();
+        entry.setId(1L);
+        entry.setType("TaskDecisionNotification");
+        entry.setPayload(payload);
+        entry.setMessageCount(2);
+        entry.setCreatedAt(LocalDateTime.now());
+        return entry;
+    }
+}
@@ -0,0 +1,95 @@
+package backend_monolithic.service;
+
+import backend_monolithic.model.Applicant;
+import backend_monolithic.model.Contract;
+import backend_monolithic.model.Task;
+import backend_monolithic.model.TaskListView;
+import backend_monolithic.model.enums.PaymentStatus;
+import backend_monolithic.model.enums.TaskStatus;
+import backend_monolithic.repository.TaskListViewRepository;
+import backend_monolithic.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TaskListProjectionTest {
+
+    private final TaskListViewRepository viewRepository = mock(TaskListViewRepository.class);
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final TaskListProjection projection = new TaskListProjection(viewRepository, taskRepository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+    @Test
+    void viewResolvesNamesAndContract() {
+        TaskListView view = TaskListProjection.toView(task(1L, List.of("M1", "N1")));
+
+        assertEquals("ООО Ромашка", view.getApplicantName());
+        assertEquals("C-1", view.getContractNumber());
+        assertEquals(PaymentStatus.PAIDFOR, view.getContractPaymentStatus());
+        assertEquals("ИП Иванов", view.getContractApplicantName());
+        assertEquals("REGISTERED", view.getStatus());
+        assertNull(view.getManufacturerName());
+    }
+
+    @Test
+    void categoryOrderDoesNotMakeRowsDifferent() {
+        TaskListView stored = TaskListProjection.toView(task(1L, List.of("N1", "M1")));
+
+        assertTrue(TaskListProjection.sameRow(TaskListProjection.toView(task(1L, List.of("M1", "N1"))), stored));
+        assertFalse(TaskListProjection.sameRow(TaskListProjection.toView(task(1L, List.of("M1"))), stored));
+        assertFalse(TaskListProjection.sameRow(TaskListProjection.toView(task(1L, List.of("M1", "N1"))), null));
+    }
+
+    @Test
+    void checkRewritesOnlyStaleAndMissingRows() {
+        Task upToDate = task(1L, List.of("M1"));
+        Task renamed = task(2L, List.of("M1"));
+        Task missing = task(3L, List.of());
+        TaskListView stale = TaskListProjection.toView(renamed);
+        stale.setContractNumber("C-old");
+
+        when(taskRepository.findIdsAfter(eq(0L), any())).thenReturn(List.of(1L, 2L, 3L));
+        when(taskRepository.findIdsAfter(eq(3L), any())).thenReturn(List.of());
+        when(taskRepository.findAllForListViewByIdIn(List.of(1L, 2L, 3L))).thenReturn(List.of(upToDate, renamed, missing));
+        when(viewRepository.findAllById(List.of(1L, 2L, 3L)))
+                .thenReturn(List.of(TaskListProjection.toView(upToDate), stale));
+
+        projection.check();
+
+        verify(viewRepository).saveAll(List.of(TaskListProjection.toView(renamed), TaskListProjection.toView(missing)));
+        verify(viewRepository).deleteOrphans();
+    }
+
+    private static Task task(Long id, List<String> categories) {
+        Applicant applicant = new Applicant("ООО Ромашка");
+        Contract contract = new Contract();
+        contract.setId(10L);
+        contract.setNumber("C-1");
+        contract.setPaymentStatus(PaymentStatus.PAIDFOR);
+        contract.setApplicant(new Applicant("ИП Иванов"));
+        contract.setTasks(new ArrayList<>());
+
+        Task task = new Task();
+        task.setId(id);
+        task.setApplicant(applicant);
+        task.setCategories(new ArrayList<>(categories));
+        task.setStatus(TaskStatus.REGISTERED);
+        task.setCreatedAt(LocalDateTime.of(2024, 3, 1, 12, 0));
+        task.setContract(contract);
+        return task;
+    }
+}
@@ -0,0 +1,81 @@
+package backend_monolithic.service;
+
+import backend_monolithic.model.Applicant;
+import backend_monolithic.model.Contract;
+import backend_monolithic.model.Task;
+import backend_monolithic.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TaskSearchTextTest {
+
+    @Test
+    void buildsNormalizedTextFromSearchableFields() {
+        UserService userService = mock(UserService.class);
+        User expert = new User();
+        expert.setSecondName("Артёмов");
+        expert.setFirstName("Пётр");
+        expert.setEmail("petr@example.com");
+        when(userService.getUserById(5L)).thenReturn(Optional.of(expert));
+
+        Contract contract = new Contract();
+        contract.setNumber("Д-17/24");
+        contract.setApplicant(new Applicant("ООО \"Ромашка\""));
+        Task task = new Task();
+        task.setNumber("ТС-001");
+        task.setContract(contract);
+        task.setAssignedUserId(5L);
+
+        assertEquals("тс-001 д-17/24 ооо \"ромашка\" артемов петр petr@example.com",
+                new TaskSearchText(userService).of(task));
+    }
+
+    @Test
+    void requiresEveryWordAndStemsRussianWords() {
+        assertEquals("+\"ромашк\" +\"тс\" +\"001\"", TaskSearchText.toBooleanQuery("Ромашкой ТС-001"));
+        assertEquals("+\"артем\"", TaskSearchText.toBooleanQuery("Артём"));
+    }
+
+    @Test
+    void keepsQueryWithoutWhitespaceAsOnePhrase() {
+        assertEquals("+\"тс 123\"", TaskSearchText.toBooleanQuery("ТС-123"));
+        assertEquals("+\"01 02 2024\"", TaskSearchText.toBooleanQuery("01.02.2024"));
+        // Однобуквенную часть индекс не найдёт, её проверяет exactSubstring
+        assertEquals("+\"17 24\"", TaskSearchText.toBooleanQuery(" Д-17/24 "));
+        // Без пробелов слова не усекаются: это номер, а не фраза
+        assertEquals("+\"ромашкой 12\"", TaskSearchText.toBooleanQuery("ромашкой-12"));
+    }
+
+    @Test
+    void checksDottedAndDashedNumbersAsSubstring() {
+        assertEquals("тс-123", TaskSearchText.exactSubstring("ТС-123"));
+        assertEquals("01.02.2024", TaskSearchText.exactSubstring(" 01.02.2024 "));
+        assertNull(TaskSearchText.exactSubstring("ТС 123"));
+        assertNull(TaskSearchText.exactSubstring("Ромашка"));
+        assertNull(TaskSearchText.exactSubstring("123"));
+    }
+
+    @Test
+    void stemsCommonDeclensions() {
+        for (String form : new String[]{"Ромашка", "Ромашки", "Ромашке", "Ромашку", "Ромашкой"}) {
+            assertEquals("+\"ромашк\"", TaskSearchText.toBooleanQuery(form), form);
+        }
+        for (String form : new String[]{"Иванова", "Иванову", "Ивановым", "Ивановой", "Ивановых"}) {
+            assertEquals("+\"иванов\"", TaskSearchText.toBooleanQuery(form), form);
+        }
+        // Короткая основа не усекается: "Льва" не сводится к "Лев"
+        assertEquals("+\"льва\"", TaskSearchText.toBooleanQuery("Льва"));
+    }
+
+    @Test
+    void queryWithoutIndexableWordsFallsBack() {
+        assertNull(TaskSearchText.toBooleanQuery("7"));
+        assertNull(TaskSearchText.toBooleanQuery(" - "));
+    }
+}
@@ -0,0 +1,101 @@
+package backend_monolithic.service;
+
+import backend_monolithic.model.User;
+import backend_monolithic.model.dto.TeamAnalyticsResponse;
+import backend_monolithic.model.dto.UserAnalyticsResponse;
+import backend_monolithic.model.enums.Role;
+import backend_monolithic.repository.UserDailyStatsRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TeamAnalyticsCacheTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 3, 31);
+
+    private final TeamAnalyticsCache cache = new TeamAnalyticsCache();
+
+    @Test
+    void keepsResultUntilInvalidated() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(FROM, TO, () -> load(loads));
+        cache.get(FROM, TO, () -> load(loads));
+        assertEquals(1, loads.get());
+
+        cache.invalidate();
+        cache.get(FROM, TO, () -> load(loads));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void doesNotStoreLoadStartedBeforeInvalidate() {
+        AtomicInteger loads = new AtomicInteger();
+
+        // Агрегаты изменились, пока выполнялся запрос: его результат уже устарел
+        List<UserDailyStatsRepository.UserTotals> stale = cache.get(FROM, TO, () -> {
+            cache.invalidate();
+            return load(loads);
+        });
+        cache.get(FROM, TO, () -> load(loads));
+
+        assertEquals(1, stale.size());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void usersWithoutActivityGetZeroRows() {
+        UserService userService = mock(UserService.class);
+        UserDailyStatsRepository repository = mock(UserDailyStatsRepository.class);
+        ProfileAnalyticsServiceImplementation service =
+                new ProfileAnalyticsServiceImplementation(userService, repository, cache);
+        when(userService.getAllUsers()).thenReturn(List.of(user(1L), user(2L)));
+        UserDailyStatsRepository.UserTotals active = totals(1L, 3, 2);
+        when(repository.findTotalsByUser(FROM, TO)).thenReturn(List.of(active));
+
+        TeamAnalyticsResponse response = service.getTeamAnalytics(FROM, TO);
+
+        assertEquals(2, response.getUsers().size());
+        UserAnalyticsResponse withActivity = response.getUsers().get(0);
+        assertEquals(1L, withActivity.getUser().getId());
+        assertEquals(3, withActivity.getActiveTasks());
+        assertEquals(2, withActivity.getCompletedTasks());
+        UserAnalyticsResponse idle = response.getUsers().get(1);
+        assertEquals(2L, idle.getUser().getId());
+        assertEquals(new UserAnalyticsResponse(idle.getUser(), 0, 0, 0, 0, 0, 0), idle);
+    }
+
+    private static List<UserDailyStatsRepository.UserTotals> load(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return List.of(totals(1L, 1, 0));
+    }
+
+    private static UserDailyStatsRepository.UserTotals totals(Long userId, long activeTasks, long completedTasks) {
+        UserDailyStatsRepository.UserTotals totals = mock(UserDailyStatsRepository.UserTotals.class);
+        when(totals.getUserId()).thenReturn(userId);
+        when(totals.getActiveTasks()).thenReturn(activeTasks);
+        when(totals.getActiveDeclarations()).thenReturn(0L);
+        when(totals.getActiveCertificates()).thenReturn(0L);
+        when(totals.getCompletedTasks()).thenReturn(completedTasks);
+        when(totals.getCompletedDeclarations()).thenReturn(0L);
+        when(totals.getCompletedCertificates()).thenReturn(0L);
+        return totals;
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@example.com");
+        user.setRoles(new HashSet<>(Set.of(Role.EXPERT)));
+        return user;
+    }
+}
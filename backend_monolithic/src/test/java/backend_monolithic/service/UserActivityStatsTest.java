@@ -0,0 +1,72 @@
+package backend_monolithic.service;
+
+import backend_monolithic.model.Certificate;
+import backend_monolithic.model.Task;
+import backend_monolithic.model.enums.CertificateStatus;
+import backend_monolithic.model.enums.TaskStatus;
+import backend_monolithic.repository.UserDailyStatsRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+class UserActivityStatsTest {
+
+    private final UserDailyStatsRepository repository = mock(UserDailyStatsRepository.class);
+    private final UserActivityStats stats = new UserActivityStats(repository, mock(TransactionTemplate.class),
+            new TeamAnalyticsCache());
+
+    @Test
+    void completingTaskMovesItFromActiveToCompletedOnItsDate() {
+        Task task = task(7L, TaskStatus.DECISION_DONE);
+        UserActivityStats.Contribution before = stats.snapshot(task);
+        LocalDate completedAt = LocalDate.now().minusDays(2);
+        task.setStatus(TaskStatus.COMPLETED);
+        task.setCompletedAt(completedAt);
+
+        stats.record(before, stats.snapshot(task));
+
+        verify(repository).increment(7L, LocalDate.now(), -1, 0, 0, 0, 0, 0);
+        verify(repository).increment(7L, completedAt, 0, 0, 0, 1, 0, 0);
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void changesWithoutEffectOnAnalyticsWriteNothing() {
+        Task task = task(7L, TaskStatus.RECEIVED);
+        UserActivityStats.Contribution before = stats.snapshot(task);
+        task.setStatus(TaskStatus.REGISTERED);
+
+        stats.record(before, stats.snapshot(task));
+
+        verify(repository, never()).increment(anyLong(), any(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    void certificateIsActiveOnceForExecutorWhoIsAlsoRegistrar() {
+        Certificate certificate = new Certificate();
+        certificate.setAssignedUserId(3L);
+        certificate.setRegisteredByUserId(3L);
+        certificate.setStatus(CertificateStatus.RECEIVED);
+
+        stats.record(UserActivityStats.Contribution.NONE, stats.snapshot(certificate));
+
+        verify(repository).increment(3L, LocalDate.now(), 0, 0, 1, 0, 0, 0);
+        verifyNoMoreInteractions(repository);
+    }
+
+    private static Task task(Long userId, TaskStatus status) {
+        Task task = new Task();
+        task.setAssignedUserId(userId);
+        task.setStatus(status);
+        return task;
+    }
+}
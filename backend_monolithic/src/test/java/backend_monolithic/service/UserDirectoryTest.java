@@ -0,0 +1,83 @@
+package backend_monolithic.service;
+
+import backend_monolithic.model.User;
+import backend_monolithic.model.enums.Role;
+import backend_monolithic.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserDirectoryTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserDirectory directory = new UserDirectory(userRepository, new SimpleMeterRegistry());
+
+    @BeforeEach
+    void load() {
+        when(userRepository.findAllWithRoles()).thenReturn(List.of(
+                user(1L, "Иванов", "Пётр", "Сергеевич", "p.ivanov@example.com"),
+                user(2L, "Иванова", "Анна", "Олеговна", "anna@example.com"),
+                user(3L, "Сидоров", "Иван", null, "sidorov@example.com")));
+        directory.refresh();
+    }
+
+    @Test
+    void findsUsersByPartOfFullName() {
+        assertEquals(Set.of(1L, 2L, 3L), directory.findIdsByName("иван"));
+        assertEquals(Set.of(1L), directory.findIdsByName("Иванов Петр"));
+        assertEquals(Set.of(2L), directory.findIdsByName("анна олег"));
+    }
+
+    @Test
+    void findsUsersByInitialsAndEmail() {
+        assertEquals(Set.of(1L), directory.findIdsByName("Иванов П.С."));
+        assertEquals(Set.of(3L), directory.findIdsByName("И. Сидоров"));
+        assertEquals(Set.of(1L), directory.findIdsByName("p.ivanov"));
+    }
+
+    @Test
+    void matchDoesNotCrossNameVariants() {
+        assertEquals(Set.of(), directory.findIdsByName("сергеевич иванов"));
+        assertEquals(Set.of(), directory.findIdsByName("..."));
+    }
+
+    @Test
+    void sharedUsersCannotBeModified() throws Exception {
+        User user = directory.findById(1L).orElseThrow();
+
+        assertThrows(UnsupportedOperationException.class, () -> user.setFirstName("Павел"));
+        assertThrows(UnsupportedOperationException.class, () -> user.getRoles().add(Role.DIRECTOR));
+        assertTrue(new ObjectMapper().writeValueAsString(user).contains("p.ivanov@example.com"));
+    }
+
+    @Test
+    void putStoresCopyOfEntity() {
+        User entity = user(4L, "Петров", "Олег", null, "petrov@example.com");
+        directory.put(entity);
+        entity.setEmail("changed@example.com");
+
+        assertEquals("petrov@example.com", directory.findById(4L).orElseThrow().getEmail());
+    }
+
+    private static User user(Long id, String secondName, String firstName, String patronymic, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setSecondName(secondName);
+        user.setFirstName(firstName);
+        user.setPatronymic(patronymic);
+        user.setEmail(email);
+        user.setRoles(new HashSet<>(Set.of(Role.EXPERT)));
+        return user;
+    }
+}
@@ -2,8 +2,10 @@ package ru.marinin.notification_microservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class NotificationMicroserviceApplication {
 
 	public static void main(String[] args) {
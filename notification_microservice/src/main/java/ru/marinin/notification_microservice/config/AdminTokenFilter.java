@@ -0,0 +1,44 @@
+package ru.marinin.notification_microservice.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Аутентифицирует запрос по заголовку X-Admin-Token, совпадающему с notification.admin.token.
+ * Пока токен не задан, служебные эндпоинты недоступны никому.
+ */
+public class AdminTokenFilter extends OncePerRequestFilter {
+
+    public static final String TOKEN_HEADER = "X-Admin-Token";
+
+    private final byte[] token;
+
+    public AdminTokenFilter(String token) {
+        this.token = token != null && !token.isBlank() ? token.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String header = request.getHeader(TOKEN_HEADER);
+        // Сравнение за постоянное время, чтобы токен нельзя было подобрать по времени ответа
+        if (token != null && header != null && MessageDigest.isEqual(token, header.getBytes(StandardCharsets.UTF_8))) {
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    "notification-admin", null, List.of(new SimpleGrantedAuthority(SecurityConfig.ADMIN_AUTHORITY)));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,65 @@
+package ru.marinin.notification_microservice.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Топики конвейера повторов.
+ * Неудачное уведомление из основного топика уходит в {main}-retry-0, затем в -retry-1 и т.д.
+ * с экспоненциально растущей задержкой; после последней ступени — в dead-letter топик.
+ */
+@Component
+@Getter
+public class NotificationRetryTopics {
+
+    private final String mainTopic;
+    private final String deadLetterTopic;
+    private final List<String> retryTopics;
+    private final List<Long> delaysMs;
+
+    public NotificationRetryTopics(@Value("${kafka.topic.notifications:task-assignments}") String mainTopic,
+                                   @Value("${kafka.topic.notifications-dlt:task-assignments.DLT}") String deadLetterTopic,
+                                   @Value("${notification.retry.attempts:3}") int attempts,
+                                   @Value("${notification.retry.initial-delay-ms:30000}") long initialDelayMs,
+                                   @Value("${notification.retry.multiplier:4.0}") double multiplier,
+                                   @Value("${notification.retry.max-delay-ms:3600000}") long maxDelayMs) {
+        this.mainTopic = mainTopic;
+        this.deadLetterTopic = deadLetterTopic;
+
+        List<String> topics = new ArrayList<>();
+        List<Long> delays = new ArrayList<>();
+        double delay = initialDelayMs;
+        // Хотя бы одна ступень: слушатель повторов не может быть без топиков
+        for (int stage = 0; stage < Math.max(1, attempts); stage++) {
+            topics.add(mainTopic + "-retry-" + stage);
+            delays.add(Math.min((long) delay, maxDelayMs));
+            delay *= multiplier;
+        }
+        this.retryTopics = List.copyOf(topics);
+        this.delaysMs = List.copyOf(delays);
+    }
+
+    // Для @KafkaListener(topics = "#{...}")
+    public String[] getRetryTopicNames() {
+        return retryTopics.toArray(String[]::new);
+    }
+
+    // Топик ступени, на которую уходит уведомление после attempt неудачных попыток; null — повторы исчерпаны
+    public String nextTopic(int attempt) {
+        return attempt < retryTopics.size() ? retryTopics.get(attempt) : null;
+    }
+
+    public long delayMs(int attempt) {
+        return delaysMs.get(attempt);
+    }
+
+    // Имя ступени для метрик: main, retry-0, retry-1, ...
+    public String stageOf(String topic) {
+        int stage = retryTopics.indexOf(topic);
+        return stage >= 0 ? "retry-" + stage : "main";
+    }
+}
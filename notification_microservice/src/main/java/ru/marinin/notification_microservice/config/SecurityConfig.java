@@ -0,0 +1,40 @@
+package ru.marinin.notification_microservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+/**
+ * Доступ к HTTP-эндпоинтам сервиса.
+ * Сервис слушает внешний интерфейс, а список dead-letter сообщений содержит адреса и ФИО получателей,
+ * поэтому просмотр и повтор DLT, как и метрики, требуют служебного токена (AdminTokenFilter).
+ * Открыт только /actuator/health, остальное запрещено.
+ */
+@Configuration
+public class SecurityConfig {
+
+    public static final String ADMIN_AUTHORITY = "NOTIFICATION_ADMIN";
+
+    @Bean
+    SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity,
+                                            @Value("${notification.admin.token:}") String adminToken) throws Exception {
+        httpSecurity.sessionManagement(management -> management.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .csrf(AbstractHttpConfigurer::disable)
+                .authorizeHttpRequests(authorize -> authorize
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/notifications/dlt/**", "/actuator/**").hasAuthority(ADMIN_AUTHORITY)
+                        .anyRequest().denyAll()
+                )
+                .addFilterBefore(new AdminTokenFilter(adminToken), BasicAuthenticationFilter.class)
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)));
+        return httpSecurity.build();
+    }
+}
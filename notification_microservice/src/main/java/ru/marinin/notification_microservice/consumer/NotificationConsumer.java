@@ -1,79 +1,390 @@
 package ru.marinin.notification_microservice.consumer;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
 import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
+import ru.marinin.notification_microservice.config.NotificationRetryTopics;
 import ru.marinin.notification_microservice.model.TaskAssignmentNotification;
 import ru.marinin.notification_microservice.model.TaskDecisionNotification;
 import ru.marinin.notification_microservice.model.UserRegistrationNotification;
 import ru.marinin.notification_microservice.model.DeclarationRegisteredNotification;
 import ru.marinin.notification_microservice.model.CertificateRegisteredNotification;
+import ru.marinin.notification_microservice.model.DigestItem;
+import ru.marinin.notification_microservice.service.DeliveryLedger;
 import ru.marinin.notification_microservice.service.EmailService;
+import ru.marinin.notification_microservice.service.NotificationDigest;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Пакетный обработчик уведомлений.
+ * Записи пачки группируются по партициям: партиции обрабатываются параллельно в пуле
+ * notificationWorkers, записи внутри партиции — строго по порядку.
+ * <p>
+ * Тип уведомления передаётся в заголовке notificationType; по нему из таблицы обработчиков
+ * выбирается DTO, и тело разбирается сразу в него. Неизвестные и нечитаемые сообщения
+ * уходят в dead-letter топик, повторять их бессмысленно.
+ * Решения и регистрации документов по возможности откладываются в NotificationDigest для сводного письма.
+ * <p>
+ * Если письмо отправить не удалось, уведомление пересылается на следующую ступень повторов
+ * (NotificationRetryTopics), а партиция продолжает читаться. Записи ступени повторов, время которых
+ * ещё не пришло, не обрабатываются: партиция приостанавливается до нужного момента.
+ * Смещение не фиксируется, только если не удалась сама пересылка, — тогда партиция перечитывается
+ * с этой записи через retry-backoff-ms.
+ * <p>
+ * Уведомления с заголовком notificationId, уже отмеченные в DeliveryLedger, пропускаются без отправки.
+ * Журнал сбрасывается на диск один раз за пачку, перед фиксацией смещений.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationConsumer {
 
+    public static final String TYPE_HEADER = "notificationType";
+    public static final String ID_HEADER = "notificationId";
+    public static final String DLT_REASON_HEADER = "dltReason";
+    public static final String RETRY_ATTEMPT_HEADER = "retryAttempt";
+    public static final String RETRY_NOT_BEFORE_HEADER = "retryNotBefore";
+    public static final String RETRY_ERROR_HEADER = "retryError";
+    public static final String MAIN_LISTENER_ID = "notification-main";
+    public static final String RETRY_LISTENER_ID = "notification-retry";
+
     private final EmailService emailService;
     private final ObjectMapper objectMapper;
+    private final ExecutorService notificationWorkers;
+    private final KafkaTemplate<String, byte[]> forwardingKafkaTemplate;
+    private final NotificationDigest notificationDigest;
+    private final NotificationRetryTopics retryTopics;
+    private final MeterRegistry meterRegistry;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final TaskScheduler taskScheduler;
+    private final DeliveryLedger deliveryLedger;
 
-    @KafkaListener(topics = "${kafka.topic.notifications:task-assignments}", groupId = "${spring.kafka.consumer.group-id:myGroup}")
-    public void consumeNotification(
-            ConsumerRecord<String, Object> record,
-            Acknowledgment acknowledgment) {
-        try {
-            // Извлекаем значение из ConsumerRecord
-            Object messageValue = record.value();
-            
-            // Преобразуем сообщение в Map для проверки типа
-            Map<String, Object> messageMap = objectMapper.convertValue(messageValue, Map.class);
-            
-            // Проверяем наличие поля "message" для TaskAssignmentNotification
-            if (messageMap.containsKey("message")) {
-                TaskAssignmentNotification notification = objectMapper.convertValue(messageValue, TaskAssignmentNotification.class);
-                consumeTaskAssignmentNotification(notification, acknowledgment);
+    // Имя типа совпадает с именем класса уведомления в монолите
+    private final Map<String, Handler<?>> handlers = Map.of(
+            "TaskAssignmentNotification",
+            new Handler<>(TaskAssignmentNotification.class, this::consumeTaskAssignmentNotification),
+            "TaskDecisionNotification",
+            new Handler<>(TaskDecisionNotification.class, this::consumeTaskDecisionNotification),
+            "UserRegistrationNotification",
+            new Handler<>(UserRegistrationNotification.class, this::consumeUserRegistrationNotification),
+            "DeclarationRegisteredNotification",
+            new Handler<>(DeclarationRegisteredNotification.class, this::consumeDeclarationRegisteredNotification),
+            "CertificateRegisteredNotification",
+            new Handler<>(CertificateRegisteredNotification.class, this::consumeCertificateRegisteredNotification)
+    );
+
+    @Value("${notification.consumer.retry-backoff-ms:5000}")
+    private long retryBackoffMs;
+
+    @Value("${notification.consumer.forward-timeout-ms:30000}")
+    private long forwardTimeoutMs;
+
+    @KafkaListener(id = MAIN_LISTENER_ID, topics = "${kafka.topic.notifications:task-assignments}",
+            groupId = "${spring.kafka.consumer.group-id:myGroup}")
+    public void consumeNotifications(
+            List<ConsumerRecord<String, byte[]>> records,
+            Acknowledgment acknowledgment,
+            Consumer<?, ?> consumer) {
+        consumeBatch(records, acknowledgment, consumer, MAIN_LISTENER_ID);
+    }
+
+    @KafkaListener(id = RETRY_LISTENER_ID, topics = "#{@notificationRetryTopics.retryTopicNames}",
+            groupId = "${spring.kafka.consumer.group-id:myGroup}")
+    public void consumeRetries(
+            List<ConsumerRecord<String, byte[]>> records,
+            Acknowledgment acknowledgment,
+            Consumer<?, ?> consumer) {
+        consumeBatch(records, acknowledgment, consumer, RETRY_LISTENER_ID);
+    }
+
+    private void consumeBatch(List<ConsumerRecord<String, byte[]>> records,
+                              Acknowledgment acknowledgment,
+                              Consumer<?, ?> consumer,
+                              String listenerId) {
+        Map<TopicPartition, List<ConsumerRecord<String, byte[]>>> byPartition = new LinkedHashMap<>();
+        for (ConsumerRecord<String, byte[]> record : records) {
+            byPartition.computeIfAbsent(new TopicPartition(record.topic(), record.partition()), tp -> new ArrayList<>())
+                    .add(record);
+        }
+
+        Map<TopicPartition, Future<PartitionResult>> results = new LinkedHashMap<>();
+        byPartition.forEach((partition, partitionRecords) ->
+                results.put(partition, notificationWorkers.submit(() -> processPartition(partitionRecords))));
+
+        Map<TopicPartition, PartitionResult> stopped = new LinkedHashMap<>();
+        for (Map.Entry<TopicPartition, Future<PartitionResult>> result : results.entrySet()) {
+            PartitionResult partitionResult = awaitPartition(result.getValue(), byPartition.get(result.getKey()));
+            if (partitionResult != null) {
+                stopped.put(result.getKey(), partitionResult);
             }
-            // Проверяем наличие поля "newUserEmail" для UserRegistrationNotification
-            else if (messageMap.containsKey("newUserEmail")) {
-                UserRegistrationNotification notification = objectMapper.convertValue(messageValue, UserRegistrationNotification.class);
-                consumeUserRegistrationNotification(notification, acknowledgment);
+        }
+        flushLedger();
+
+        if (stopped.isEmpty()) {
+            acknowledgment.acknowledge();
+            return;
+        }
+
+        // Фиксируем обработанный непрерывный префикс каждой партиции
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        byPartition.forEach((partition, partitionRecords) -> {
+            PartitionResult result = stopped.get(partition);
+            if (result == null) {
+                offsets.put(partition, new OffsetAndMetadata(partitionRecords.get(partitionRecords.size() - 1).offset() + 1));
+            } else if (result.record.offset() > partitionRecords.get(0).offset()) {
+                offsets.put(partition, new OffsetAndMetadata(result.record.offset()));
             }
-            // Проверяем наличие поля "declarationNumber" для DeclarationRegisteredNotification
-            else if (messageMap.containsKey("declarationNumber") && messageMap.containsKey("applicationNumber")) {
-                DeclarationRegisteredNotification notification =
-                        objectMapper.convertValue(messageValue, DeclarationRegisteredNotification.class);
-                consumeDeclarationRegisteredNotification(notification, acknowledgment);
+        });
+        if (!offsets.isEmpty()) {
+            consumer.commitSync(offsets);
+        }
+
+        // Остановленные партиции перечитываются с первой необработанной записи
+        boolean failed = false;
+        for (Map.Entry<TopicPartition, PartitionResult> entry : stopped.entrySet()) {
+            consumer.seek(entry.getKey(), entry.getValue().record.offset());
+            if (entry.getValue().resumeAt > 0) {
+                pauseUntil(listenerId, entry.getKey(), entry.getValue().resumeAt);
+            } else {
+                failed = true;
             }
-            // Проверяем наличие поля "certificateNumber" для CertificateRegisteredNotification
-            else if (messageMap.containsKey("certificateNumber") && messageMap.containsKey("applicationNumber")) {
-                CertificateRegisteredNotification notification =
-                        objectMapper.convertValue(messageValue, CertificateRegisteredNotification.class);
-                consumeCertificateRegisteredNotification(notification, acknowledgment);
+        }
+        if (failed) {
+            log.warn("Не удалось обработать {} из {} партиций пачки, повтор через {} мс",
+                    stopped.size(), byPartition.size(), retryBackoffMs);
+            sleepBeforeRetry();
+        }
+    }
+
+    // Возвращает место остановки партиции или null, если обработаны все записи
+    private PartitionResult processPartition(List<ConsumerRecord<String, byte[]>> records) {
+        for (ConsumerRecord<String, byte[]> record : records) {
+            long notBefore = longHeader(record, RETRY_NOT_BEFORE_HEADER);
+            if (notBefore > System.currentTimeMillis()) {
+                return new PartitionResult(record, notBefore);
             }
-            // TaskDecisionNotification: проверяем специфичные поля, чтобы не перехватывать другие уведомления
-            else if (messageMap.containsKey("taskNumber") && messageMap.containsKey("applicationDate")) {
-                TaskDecisionNotification notification = objectMapper.convertValue(messageValue, TaskDecisionNotification.class);
-                consumeTaskDecisionNotification(notification, acknowledgment);
-            } else {
-                log.error("Неизвестный тип уведомления: {}", messageMap);
-                acknowledgment.acknowledge(); // Подтверждаем, чтобы не зациклиться
+
+            String stage = retryTopics.stageOf(record.topic());
+            String notificationId = header(record, ID_HEADER);
+            if (notificationId != null && deliveryLedger.isDelivered(notificationId)) {
+                log.info("Повторная доставка уведомления пропущена: id={}, partition={}, offset={}",
+                        notificationId, record.partition(), record.offset());
+                count(stage, "duplicate");
+                continue;
+            }
+            try {
+                processRecord(record);
+                count(stage, "success");
+            } catch (Exception e) {
+                log.error("Ошибка при обработке уведомления: topic={}, partition={}, offset={}, key={}",
+                        record.topic(), record.partition(), record.offset(), record.key(), e);
+                try {
+                    forwardToRetry(record, e);
+                } catch (Exception forwardError) {
+                    log.error("Не удалось переслать уведомление на повтор: partition={}, offset={}",
+                            record.partition(), record.offset(), forwardError);
+                    return new PartitionResult(record, 0);
+                }
             }
-        } catch (Exception e) {
-            log.error("Ошибка при обработке уведомления: key={}, value={}", record.key(), record.value(), e);
-            throw e;
         }
+        return null;
     }
 
-    private void consumeTaskAssignmentNotification(
-            TaskAssignmentNotification notification,
-            Acknowledgment acknowledgment) {
+    private PartitionResult awaitPartition(Future<PartitionResult> result,
+                                           List<ConsumerRecord<String, byte[]>> records) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new PartitionResult(records.get(0), 0);
+        } catch (ExecutionException e) {
+            log.error("Ошибка обработки партиции", e.getCause());
+            return new PartitionResult(records.get(0), 0);
+        }
+    }
+
+    // Партиция не читается до resumeAt; seek на первую необработанную запись уже выполнен
+    private void pauseUntil(String listenerId, TopicPartition partition, long resumeAt) {
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(listenerId);
+        if (container == null) {
+            return;
+        }
+        container.pausePartition(partition);
+        taskScheduler.schedule(() -> container.resumePartition(partition), Instant.ofEpochMilli(resumeAt));
+        log.debug("Партиция {} приостановлена до {}", partition, Instant.ofEpochMilli(resumeAt));
+    }
+
+    private void processRecord(ConsumerRecord<String, byte[]> record) throws Exception {
+        String type = header(record, TYPE_HEADER);
+        JsonNode legacyTree = null;
+        if (type == null) {
+            // Сообщения, отправленные до появления заголовка, определяем по набору полей
+            try {
+                legacyTree = objectMapper.readTree(record.value());
+            } catch (IOException e) {
+                sendToDeadLetter(record, "Нечитаемое сообщение без типа: " + e.getMessage());
+                return;
+            }
+            type = legacyType(legacyTree);
+        }
+
+        Handler<?> handler = type != null ? handlers.get(type) : null;
+        if (handler == null) {
+            sendToDeadLetter(record, "Неизвестный тип уведомления: " + type);
+            return;
+        }
+        dispatch(handler, record, legacyTree);
+    }
+
+    private <T> void dispatch(Handler<T> handler, ConsumerRecord<String, byte[]> record, JsonNode legacyTree)
+            throws Exception {
+        T notification;
+        try {
+            notification = legacyTree != null
+                    ? objectMapper.treeToValue(legacyTree, handler.type)
+                    : objectMapper.readValue(record.value(), handler.type);
+        } catch (IOException e) {
+            sendToDeadLetter(record, "Некорректное уведомление " + handler.type.getSimpleName() + ": " + e.getMessage());
+            return;
+        }
+        handler.action.accept(notification);
+        markDelivered(record);
+    }
+
+    // Письмо уже отправлено: ошибка журнала не должна приводить к повторной отправке
+    private void markDelivered(ConsumerRecord<String, byte[]> record) {
+        String notificationId = header(record, ID_HEADER);
+        if (notificationId == null) {
+            return;
+        }
+        try {
+            deliveryLedger.markDelivered(notificationId);
+        } catch (RuntimeException e) {
+            log.error("Не удалось записать доставку в журнал: id={}", notificationId, e);
+        }
+    }
+
+    // Ошибка сброса не мешает фиксации: потерянные записи дадут лишь возможный повтор письма
+    private void flushLedger() {
+        try {
+            deliveryLedger.flush();
+        } catch (RuntimeException e) {
+            log.error("Не удалось сбросить журнал доставки на диск", e);
+        }
+    }
+
+    private String legacyType(JsonNode message) {
+        if (message.has("message")) {
+            return "TaskAssignmentNotification";
+        }
+        if (message.has("newUserEmail")) {
+            return "UserRegistrationNotification";
+        }
+        if (message.has("declarationNumber") && message.has("applicationNumber")) {
+            return "DeclarationRegisteredNotification";
+        }
+        if (message.has("certificateNumber") && message.has("applicationNumber")) {
+            return "CertificateRegisteredNotification";
+        }
+        if (message.has("taskNumber") && message.has("applicationDate")) {
+            return "TaskDecisionNotification";
+        }
+        return null;
+    }
+
+    // Пересылает уведомление на следующую ступень повторов, а после последней — в dead-letter топик
+    private void forwardToRetry(ConsumerRecord<String, byte[]> record, Exception error) throws Exception {
+        int attempt = (int) longHeader(record, RETRY_ATTEMPT_HEADER);
+        String nextTopic = retryTopics.nextTopic(attempt);
+        if (nextTopic == null) {
+            sendToDeadLetter(record, "Исчерпаны повторы (" + attempt + "): " + error.getMessage());
+            return;
+        }
+
+        ProducerRecord<String, byte[]> retry =
+                new ProducerRecord<>(nextTopic, null, record.key(), record.value(), record.headers());
+        long notBefore = System.currentTimeMillis() + retryTopics.delayMs(attempt);
+        replaceHeader(retry.headers(), RETRY_ATTEMPT_HEADER, String.valueOf(attempt + 1));
+        replaceHeader(retry.headers(), RETRY_NOT_BEFORE_HEADER, String.valueOf(notBefore));
+        replaceHeader(retry.headers(), RETRY_ERROR_HEADER, String.valueOf(error.getMessage()));
+        forwardingKafkaTemplate.send(retry).get(forwardTimeoutMs, TimeUnit.MILLISECONDS);
+        count(retryTopics.stageOf(record.topic()), "retry");
+        log.warn("Уведомление отправлено на повтор {} в {}: partition={}, offset={}",
+                attempt + 1, nextTopic, record.partition(), record.offset());
+    }
+
+    // Ждём подтверждения брокера: смещение исходной записи фиксируется только после пересылки
+    private void sendToDeadLetter(ConsumerRecord<String, byte[]> record, String reason) throws Exception {
+        ProducerRecord<String, byte[]> deadLetter = new ProducerRecord<>(
+                retryTopics.getDeadLetterTopic(), null, record.key(), record.value(), record.headers());
+        replaceHeader(deadLetter.headers(), DLT_REASON_HEADER, reason);
+        forwardingKafkaTemplate.send(deadLetter).get(forwardTimeoutMs, TimeUnit.MILLISECONDS);
+        count(retryTopics.stageOf(record.topic()), "dead_letter");
+        log.error("Уведомление отправлено в {}: partition={}, offset={}, причина: {}",
+                retryTopics.getDeadLetterTopic(), record.partition(), record.offset(), reason);
+    }
+
+    private void count(String stage, String outcome) {
+        meterRegistry.counter("notifications.consumed", "stage", stage, "outcome", outcome).increment();
+    }
+
+    private static void replaceHeader(Headers headers, String name, String value) {
+        headers.remove(name);
+        headers.add(name, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String header(ConsumerRecord<String, byte[]> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null && header.value() != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+
+    private long longHeader(ConsumerRecord<String, byte[]> record, String name) {
+        String value = header(record, name);
+        try {
+            return value != null ? Long.parseLong(value) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private void sleepBeforeRetry() {
+        try {
+            Thread.sleep(retryBackoffMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void consumeTaskAssignmentNotification(TaskAssignmentNotification notification) {
         try {
             log.info("Получено уведомление о назначении задачи: recipient={}, taskId={}", 
                     notification.getRecipientEmail(), notification.getTaskId());
@@ -85,24 +396,20 @@ public class NotificationConsumer {
                     notification.getMessage()
             );
             
-            // Подтверждаем обработку только после успешной отправки email
-            // Это гарантирует "at least once" доставку
-            acknowledgment.acknowledge();
-            
-            log.info("Уведомление успешно обработано и подтверждено: recipient={}, taskId={}", 
+            log.info("Уведомление успешно обработано: recipient={}, taskId={}", 
                     notification.getRecipientEmail(), notification.getTaskId());
         } catch (Exception e) {
             log.error("Ошибка при обработке уведомления: recipient={}, taskId={}. Сообщение будет обработано повторно.", 
                     notification.getRecipientEmail(), notification.getTaskId(), e);
-            // Не подтверждаем обработку - сообщение будет обработано повторно
-            // В будущем можно добавить retry механизм или отправку в dead letter queue
             throw e; // Пробрасываем исключение для повторной обработки
         }
     }
 
-    private void consumeTaskDecisionNotification(
-            TaskDecisionNotification notification,
-            Acknowledgment acknowledgment) {
+    private void consumeTaskDecisionNotification(TaskDecisionNotification notification) {
+        if (notificationDigest.isDeferred("TaskDecisionNotification")) {
+            notificationDigest.add(DigestItem.of(notification));
+            return;
+        }
         try {
             log.info("Получено уведомление о решении по заявке: recipient={}, taskId={}, taskNumber={}", 
                     notification.getRecipientEmail(), notification.getTaskId(), notification.getTaskNumber());
@@ -117,10 +424,7 @@ public class NotificationConsumer {
                     notification.getApplicantName()
             );
             
-            // Подтверждаем обработку только после успешной отправки email
-            acknowledgment.acknowledge();
-            
-            log.info("Уведомление о решении успешно обработано и подтверждено: recipient={}, taskId={}", 
+            log.info("Уведомление о решении успешно обработано: recipient={}, taskId={}", 
                     notification.getRecipientEmail(), notification.getTaskId());
         } catch (Exception e) {
             log.error("Ошибка при обработке уведомления о решении: recipient={}, taskId={}. Сообщение будет обработано повторно.", 
@@ -129,9 +433,7 @@ public class NotificationConsumer {
         }
     }
 
-    private void consumeUserRegistrationNotification(
-            UserRegistrationNotification notification,
-            Acknowledgment acknowledgment) {
+    private void consumeUserRegistrationNotification(UserRegistrationNotification notification) {
         try {
             log.info("Получено уведомление о регистрации нового пользователя: recipient={}, newUserEmail={}", 
                     notification.getRecipientEmail(), notification.getNewUserEmail());
@@ -146,10 +448,7 @@ public class NotificationConsumer {
                     notification.getNewUserPatronymic()
             );
             
-            // Подтверждаем обработку только после успешной отправки email
-            acknowledgment.acknowledge();
-            
-            log.info("Уведомление о регистрации пользователя успешно обработано и подтверждено: recipient={}, newUserEmail={}", 
+            log.info("Уведомление о регистрации пользователя успешно обработано: recipient={}, newUserEmail={}", 
                     notification.getRecipientEmail(), notification.getNewUserEmail());
         } catch (Exception e) {
             log.error("Ошибка при обработке уведомления о регистрации пользователя: recipient={}, newUserEmail={}. Сообщение будет обработано повторно.", 
@@ -158,9 +457,11 @@ public class NotificationConsumer {
         }
     }
 
-    private void consumeDeclarationRegisteredNotification(
-            DeclarationRegisteredNotification notification,
-            Acknowledgment acknowledgment) {
+    private void consumeDeclarationRegisteredNotification(DeclarationRegisteredNotification notification) {
+        if (notificationDigest.isDeferred("DeclarationRegisteredNotification")) {
+            notificationDigest.add(DigestItem.of(notification));
+            return;
+        }
         try {
             log.info("Получено уведомление о регистрации декларации: recipient={}, declarationNumber={}",
                     notification.getRecipientEmail(), notification.getDeclarationNumber());
@@ -175,8 +476,6 @@ public class NotificationConsumer {
                     notification.getExecutorName()
             );
 
-            acknowledgment.acknowledge();
-
             log.info("Уведомление о регистрации декларации обработано: recipient={}, declarationNumber={}",
                     notification.getRecipientEmail(), notification.getDeclarationNumber());
         } catch (Exception e) {
@@ -186,9 +485,11 @@ public class NotificationConsumer {
         }
     }
 
-    private void consumeCertificateRegisteredNotification(
-            CertificateRegisteredNotification notification,
-            Acknowledgment acknowledgment) {
+    private void consumeCertificateRegisteredNotification(CertificateRegisteredNotification notification) {
+        if (notificationDigest.isDeferred("CertificateRegisteredNotification")) {
+            notificationDigest.add(DigestItem.of(notification));
+            return;
+        }
         try {
             log.info("Получено уведомление о регистрации сертификата: recipient={}, certificateNumber={}",
                     notification.getRecipientEmail(), notification.getCertificateNumber());
@@ -203,8 +504,6 @@ public class NotificationConsumer {
                     notification.getExecutorName()
             );
 
-            acknowledgment.acknowledge();
-
             log.info("Уведомление о регистрации сертификата обработано: recipient={}, certificateNumber={}",
                     notification.getRecipientEmail(), notification.getCertificateNumber());
         } catch (Exception e) {
@@ -213,4 +512,17 @@ public class NotificationConsumer {
             throw e;
         }
     }
+
+    // resumeAt > 0 — запись ещё рано обрабатывать, 0 — обработка не удалась
+    @RequiredArgsConstructor
+    private static class PartitionResult {
+        private final ConsumerRecord<String, byte[]> record;
+        private final long resumeAt;
+    }
+
+    @RequiredArgsConstructor
+    private static class Handler<T> {
+        private final Class<T> type;
+        private final java.util.function.Consumer<T> action;
+    }
 }
@@ -0,0 +1,33 @@
+package ru.marinin.notification_microservice.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.marinin.notification_microservice.model.DeadLetterMessage;
+import ru.marinin.notification_microservice.service.DeadLetterService;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/notifications/dlt")
+@RequiredArgsConstructor
+public class DeadLetterController {
+    private final DeadLetterService deadLetterService;
+
+    @GetMapping
+    public ResponseEntity<List<DeadLetterMessage>> getDeadLetters(@RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(deadLetterService.findLatest(Math.max(1, Math.min(limit, 500))));
+    }
+
+    @PostMapping("/{partition}/{offset}/replay")
+    public ResponseEntity<?> replay(@PathVariable int partition, @PathVariable long offset) {
+        deadLetterService.replay(partition, offset);
+        return ResponseEntity.ok(Map.of("message", "Сообщение отправлено повторно"));
+    }
+}
@@ -0,0 +1,19 @@
+package ru.marinin.notification_microservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeadLetterMessage {
+    private int partition;
+    private long offset;
+    private long timestamp;
+    private String key;
+    private String type;
+    private String reason;
+    private String retryAttempt;
+    private String payload;
+}
@@ -0,0 +1,63 @@
+package ru.marinin.notification_microservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Уведомление, отложенное для сводного письма.
+ * Хранит поля, нужные и для строки сводки, и для обычного письма, если уведомление в окне одно.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DigestItem {
+    private long id;
+    private String type;
+    private String recipientEmail;
+    private String recipientName;
+    private Long taskId;
+    // Номер заявки, декларации или сертификата
+    private String documentNumber;
+    private String applicationNumber;
+    private LocalDate applicationDate;
+    private String applicantName;
+    private String executorName;
+    private long receivedAt;
+
+    public static DigestItem of(TaskDecisionNotification notification) {
+        return new DigestItem(0, "TaskDecisionNotification", notification.getRecipientEmail(),
+                notification.getRecipientName(), notification.getTaskId(), notification.getTaskNumber(),
+                null, notification.getApplicationDate(), notification.getApplicantName(),
+                null, System.currentTimeMillis());
+    }
+
+    public static DigestItem of(DeclarationRegisteredNotification notification) {
+        return new DigestItem(0, "DeclarationRegisteredNotification", notification.getRecipientEmail(),
+                notification.getRecipientName(), null, notification.getDeclarationNumber(),
+                notification.getApplicationNumber(), notification.getApplicationDate(),
+                notification.getApplicantName(), notification.getExecutorName(), System.currentTimeMillis());
+    }
+
+    public static DigestItem of(CertificateRegisteredNotification notification) {
+        return new DigestItem(0, "CertificateRegisteredNotification", notification.getRecipientEmail(),
+                notification.getRecipientName(), null, notification.getCertificateNumber(),
+                notification.getApplicationNumber(), notification.getApplicationDate(),
+                notification.getApplicantName(), notification.getExecutorName(), System.currentTimeMillis());
+    }
+
+    // Исходное уведомление, например для пересылки в dead-letter топик
+    public Object toNotification() {
+        return switch (type) {
+            case "TaskDecisionNotification" -> new TaskDecisionNotification(recipientEmail, recipientName, taskId,
+                    documentNumber, applicationDate, applicantName);
+            case "DeclarationRegisteredNotification" -> new DeclarationRegisteredNotification(recipientEmail,
+                    recipientName, applicationNumber, applicationDate, applicantName, documentNumber, executorName);
+            case "CertificateRegisteredNotification" -> new CertificateRegisteredNotification(recipientEmail,
+                    recipientName, applicationNumber, applicationDate, applicantName, documentNumber, executorName);
+            default -> throw new IllegalStateException("Тип не поддерживает сводки: " + type);
+        };
+    }
+}
@@ -0,0 +1,148 @@
+package ru.marinin.notification_microservice.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Файл журнала, в который строки только дописываются, а при сжатии он целиком переписывается
+ * во временный файл и атомарно подменяется им. Общая часть DeliveryLedger и NotificationDigestStore.
+ * Класс не потокобезопасен: вызовы синхронизирует владелец.
+ */
+class AppendOnlyJournal {
+
+    private final Path path;
+    private final String description;
+    private FileChannel channel;
+    private long records;
+
+    AppendOnlyJournal(Path path, String description) {
+        this.path = path;
+        this.description = description;
+    }
+
+    // Число строк в файле с момента последнего сжатия
+    long records() {
+        return records;
+    }
+
+    /**
+     * Передаёт обработчику непустые строки файла по порядку.
+     * Последняя строка без перевода строки — недописанная запись после аварийной остановки, она пропускается.
+     */
+    void read(Consumer<String> handler) {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            boolean truncated = !endsWithNewLine();
+            String previous = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (previous != null && !previous.isBlank()) {
+                    handler.accept(previous);
+                }
+                previous = line;
+            }
+            if (previous != null && !previous.isBlank() && !truncated) {
+                handler.accept(previous);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось прочитать " + description + " " + path, e);
+        }
+    }
+
+    // force — дождаться записи на диск; без него строка может пропасть при сбое ОС, но не процесса
+    void append(String line, boolean force) {
+        try {
+            if (channel == null) {
+                Path parent = path.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (force) {
+                channel.force(false);
+            }
+            records++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось записать " + description + " " + path, e);
+        }
+    }
+
+    // Сбрасывает на диск строки, дописанные без force
+    void flush() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось записать " + description + " " + path, e);
+        }
+    }
+
+    // Переписывает файл заданными строками; пустой журнал удаляется
+    void rewrite(Iterable<String> lines) {
+        try {
+            close();
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            long written = 0;
+            StringBuilder content = new StringBuilder();
+            for (String line : lines) {
+                content.append(line).append('\n');
+                written++;
+            }
+            if (written == 0) {
+                Files.deleteIfExists(path);
+                records = 0;
+                return;
+            }
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                out.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            records = written;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось сжать " + description + " " + path, e);
+        }
+    }
+
+    void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private boolean endsWithNewLine() throws IOException {
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = in.size();
+            if (size == 0) {
+                return true;
+            }
+            ByteBuffer last = ByteBuffer.allocate(1);
+            in.read(last, size - 1);
+            return last.get(0) == '\n';
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package ru.marinin.notification_microservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import ru.marinin.notification_microservice.config.NotificationRetryTopics;
+import ru.marinin.notification_microservice.consumer.NotificationConsumer;
+import ru.marinin.notification_microservice.model.DeadLetterMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Просмотр и повторная отправка сообщений из dead-letter топика.
+ * Топик читается отдельным временным потребителем через assign, без участия в группе
+ * и без фиксации смещений, поэтому просмотр не влияет на основную обработку.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DeadLetterService {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+    // Служебные заголовки конвейера повторов, которые не переносятся при повторной отправке
+    private static final List<String> PIPELINE_HEADERS = List.of(
+            NotificationConsumer.DLT_REASON_HEADER,
+            NotificationConsumer.RETRY_ATTEMPT_HEADER,
+            NotificationConsumer.RETRY_NOT_BEFORE_HEADER,
+            NotificationConsumer.RETRY_ERROR_HEADER
+    );
+
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+    private final KafkaTemplate<String, byte[]> forwardingKafkaTemplate;
+    private final NotificationRetryTopics retryTopics;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${notification.dlt.read-timeout-ms:10000}")
+    private long readTimeoutMs;
+
+    // Последние limit сообщений каждой партиции, от новых к старым
+    public List<DeadLetterMessage> findLatest(int limit) {
+        try (Consumer<String, byte[]> consumer = createReader()) {
+            List<TopicPartition> partitions = partitions(consumer);
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> beginning = consumer.beginningOffsets(partitions);
+            Map<TopicPartition, Long> end = consumer.endOffsets(partitions);
+            for (TopicPartition partition : partitions) {
+                consumer.seek(partition, Math.max(beginning.get(partition), end.get(partition) - limit));
+            }
+
+            List<DeadLetterMessage> messages = new ArrayList<>();
+            long deadline = System.currentTimeMillis() + readTimeoutMs;
+            while (!reachedEnd(consumer, partitions, end) && System.currentTimeMillis() < deadline) {
+                for (ConsumerRecord<String, byte[]> record : consumer.poll(POLL_TIMEOUT)) {
+                    if (record.offset() < end.get(new TopicPartition(record.topic(), record.partition()))) {
+                        messages.add(toMessage(record));
+                    }
+                }
+            }
+            messages.sort(Comparator.comparingLong(DeadLetterMessage::getTimestamp).reversed());
+            return messages.size() > limit ? messages.subList(0, limit) : messages;
+        }
+    }
+
+    // Отправляет сообщение в основной топик; счётчик попыток начинается заново
+    public void replay(int partition, long offset) {
+        ConsumerRecord<String, byte[]> record = read(partition, offset);
+        ProducerRecord<String, byte[]> replay = new ProducerRecord<>(
+                retryTopics.getMainTopic(), null, record.key(), record.value(), record.headers());
+        PIPELINE_HEADERS.forEach(replay.headers()::remove);
+        try {
+            forwardingKafkaTemplate.send(replay).get(readTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Не удалось отправить сообщение повторно: " + e.getMessage(), e);
+        }
+        meterRegistry.counter("notifications.dlt.replayed").increment();
+        log.info("Сообщение из {} отправлено повторно: partition={}, offset={}",
+                retryTopics.getDeadLetterTopic(), partition, offset);
+    }
+
+    private ConsumerRecord<String, byte[]> read(int partition, long offset) {
+        try (Consumer<String, byte[]> consumer = createReader()) {
+            TopicPartition topicPartition = new TopicPartition(retryTopics.getDeadLetterTopic(), partition);
+            if (!partitions(consumer).contains(topicPartition)) {
+                throw notFound(partition, offset);
+            }
+            consumer.assign(List.of(topicPartition));
+            long end = consumer.endOffsets(List.of(topicPartition)).get(topicPartition);
+            if (offset < consumer.beginningOffsets(List.of(topicPartition)).get(topicPartition) || offset >= end) {
+                throw notFound(partition, offset);
+            }
+            consumer.seek(topicPartition, offset);
+
+            long deadline = System.currentTimeMillis() + readTimeoutMs;
+            while (System.currentTimeMillis() < deadline) {
+                for (ConsumerRecord<String, byte[]> record : consumer.poll(POLL_TIMEOUT)) {
+                    if (record.offset() == offset) {
+                        return record;
+                    }
+                }
+            }
+            throw notFound(partition, offset);
+        }
+    }
+
+    private Consumer<String, byte[]> createReader() {
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
+        return consumerFactory.createConsumer(null, "dlt-reader", null, overrides);
+    }
+
+    private List<TopicPartition> partitions(Consumer<String, byte[]> consumer) {
+        List<PartitionInfo> infos = consumer.partitionsFor(retryTopics.getDeadLetterTopic());
+        if (infos == null) {
+            return List.of();
+        }
+        return infos.stream().map(info -> new TopicPartition(info.topic(), info.partition())).toList();
+    }
+
+    private boolean reachedEnd(Consumer<String, byte[]> consumer, List<TopicPartition> partitions,
+                               Map<TopicPartition, Long> end) {
+        for (TopicPartition partition : partitions) {
+            if (consumer.position(partition) < end.get(partition)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private DeadLetterMessage toMessage(ConsumerRecord<String, byte[]> record) {
+        return new DeadLetterMessage(
+                record.partition(),
+                record.offset(),
+                record.timestamp(),
+                record.key(),
+                header(record, NotificationConsumer.TYPE_HEADER),
+                header(record, NotificationConsumer.DLT_REASON_HEADER),
+                header(record, NotificationConsumer.RETRY_ATTEMPT_HEADER),
+                record.value() != null ? new String(record.value(), StandardCharsets.UTF_8) : null
+        );
+    }
+
+    private String header(ConsumerRecord<String, byte[]> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null && header.value() != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+
+    private ResponseStatusException notFound(int partition, long offset) {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND,
+                "Сообщение не найдено: partition=" + partition + ", offset=" + offset);
+    }
+}
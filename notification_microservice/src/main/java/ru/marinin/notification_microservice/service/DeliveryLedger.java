@@ -0,0 +1,108 @@
+package ru.marinin.notification_microservice.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Журнал доставленных уведомлений для отбрасывания повторов.
+ * Kafka доставляет "хотя бы один раз": после перебалансировки или сбоя уведомление может прийти снова.
+ * Идентификаторы доставленных уведомлений (заголовок notificationId) хранятся в памяти и дописываются
+ * в файл строкой "время id"; при старте файл читается, записи старше ttl отбрасываются.
+ * Файл периодически переписывается без устаревших записей.
+ * <p>
+ * Строки дописываются без fsync: на диск журнал сбрасывается один раз за пачку (flush).
+ * Потерянный при сбое хвост журнала приводит лишь к возможному повтору письма, который доставка
+ * "хотя бы один раз" и так допускает.
+ * <p>
+ * Журнал локальный для экземпляра: он отсекает повторы, которые этот же экземпляр получает после
+ * перезапуска или повторной доставки, в том числе через retry-топики. Если при перебалансировке раздел
+ * уходит другому экземпляру, тот журнала не видит, и письмо может уйти повторно. Для нескольких
+ * экземпляров журнал должен лежать в общем хранилище (например, в базе или compacted-топике),
+ * пока этого нет — сервис рассчитан на один экземпляр в группе потребителей.
+ */
+@Component
+@Slf4j
+public class DeliveryLedger implements DisposableBean {
+
+    private final AppendOnlyJournal journal;
+    private final long ttlMs;
+    private final Map<String, Long> delivered = new HashMap<>();
+
+    public DeliveryLedger(@Value("${notification.ledger.path:data/delivery-ledger.log}") String path,
+                          @Value("${notification.ledger.ttl-ms:604800000}") long ttlMs) {
+        this.journal = new AppendOnlyJournal(Path.of(path), "журнал доставки");
+        this.ttlMs = ttlMs;
+    }
+
+    @PostConstruct
+    public synchronized void load() {
+        long expiredBefore = System.currentTimeMillis() - ttlMs;
+        journal.read(line -> {
+            int space = line.indexOf(' ');
+            if (space <= 0 || space == line.length() - 1) {
+                log.warn("Пропущена повреждённая запись журнала доставки: {}", line);
+                return;
+            }
+            try {
+                long deliveredAt = Long.parseLong(line, 0, space, 10);
+                if (deliveredAt >= expiredBefore) {
+                    delivered.put(line.substring(space + 1), deliveredAt);
+                }
+            } catch (NumberFormatException e) {
+                log.warn("Пропущена повреждённая запись журнала доставки: {}", line);
+            }
+        });
+        compact();
+        log.info("Журнал доставки загружен: {} уведомлений", delivered.size());
+    }
+
+    public synchronized boolean isDelivered(String notificationId) {
+        Long deliveredAt = delivered.get(notificationId);
+        return deliveredAt != null && deliveredAt >= System.currentTimeMillis() - ttlMs;
+    }
+
+    public synchronized void markDelivered(String notificationId) {
+        long now = System.currentTimeMillis();
+        journal.append(now + " " + notificationId, false);
+        delivered.put(notificationId, now);
+    }
+
+    // Сбрасывает на диск записи, сделанные с прошлого вызова
+    public synchronized void flush() {
+        journal.flush();
+    }
+
+    public synchronized int size() {
+        return delivered.size();
+    }
+
+    // Убирает устаревшие записи; файл переписывается, если в нём в основном мусор
+    @Scheduled(fixedDelayString = "${notification.ledger.compaction-interval-ms:3600000}")
+    public synchronized void evictExpired() {
+        long expiredBefore = System.currentTimeMillis() - ttlMs;
+        delivered.values().removeIf(deliveredAt -> deliveredAt < expiredBefore);
+        if (journal.records() > 10000 && journal.records() > 2L * delivered.size()) {
+            compact();
+        }
+    }
+
+    @Override
+    public synchronized void destroy() throws IOException {
+        journal.close();
+    }
+
+    private void compact() {
+        journal.rewrite(delivered.entrySet().stream()
+                .map(entry -> entry.getValue() + " " + entry.getKey())
+                .toList());
+    }
+}
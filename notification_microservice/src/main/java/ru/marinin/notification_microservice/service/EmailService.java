@@ -8,13 +8,25 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import ru.marinin.notification_microservice.model.DigestItem;
+import ru.marinin.notification_microservice.template.EmailTemplateEngine;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailService {
 
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
     private final JavaMailSender mailSender;
+    private final SmtpTransportPool transportPool;
+    private final EmailTemplateEngine templateEngine;
 
     @Value("${spring.mail.username}")
     private String fromEmail;
@@ -37,7 +49,7 @@ public class EmailService {
             helper.setText(emailContent, true);
 
             log.debug("Отправка email через SMTP: recipient={}", recipientEmail);
-            mailSender.send(mimeMessage);
+            transportPool.send(mimeMessage);
             log.info("Email успешно отправлен: recipient={}", recipientEmail);
         } catch (jakarta.mail.AuthenticationFailedException e) {
             log.error("Ошибка аутентификации при отправке email: recipient={}. Проверьте username и password.", recipientEmail, e);
@@ -52,37 +64,10 @@ public class EmailService {
     }
 
     private String buildEmailContent(String recipientName, String message) {
-        return "<!DOCTYPE html>" +
-                "<html>" +
-                "<head>" +
-                "<meta charset=\"UTF-8\">" +
-                "<style>" +
-                "body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }" +
-                ".container { max-width: 600px; margin: 0 auto; padding: 20px; }" +
-                ".header { background-color: #4CAF50; color: white; padding: 20px; text-align: center; }" +
-                ".content { padding: 20px; background-color: #f9f9f9; }" +
-                ".message { font-size: 16px; margin: 20px 0; }" +
-                ".footer { text-align: center; padding: 20px; color: #666; font-size: 12px; }" +
-                "</style>" +
-                "</head>" +
-                "<body>" +
-                "<div class=\"container\">" +
-                "<div class=\"header\">" +
-                "<h1>Уведомление</h1>" +
-                "</div>" +
-                "<div class=\"content\">" +
-                "<p>Здравствуйте" + (recipientName != null && !recipientName.isEmpty() ? ", " + recipientName : "") + "!</p>" +
-                "<div class=\"message\">" +
-                "<p><strong>" + message + "</strong></p>" +
-                "</div>" +
-                "<p>Пожалуйста, проверьте систему для получения дополнительной информации.</p>" +
-                "</div>" +
-                "<div class=\"footer\">" +
-                "<p>Это автоматическое сообщение. Пожалуйста, не отвечайте на это письмо.</p>" +
-                "</div>" +
-                "</div>" +
-                "</body>" +
-                "</html>";
+        Map<String, Object> model = new HashMap<>();
+        model.put("recipientName", recipientName);
+        model.put("message", message);
+        return templateEngine.render("task-assignment", model);
     }
 
     public void sendTaskDecisionNotification(String recipientEmail, String recipientName,
@@ -102,7 +87,7 @@ public class EmailService {
             helper.setText(emailContent, true);
 
             log.debug("Отправка email через SMTP: recipient={}", recipientEmail);
-            mailSender.send(mimeMessage);
+            transportPool.send(mimeMessage);
             log.info("Email о решении успешно отправлен: recipient={}, taskNumber={}", recipientEmail, taskNumber);
         } catch (jakarta.mail.AuthenticationFailedException e) {
             log.error("Ошибка аутентификации при отправке email: recipient={}. Проверьте username и password.", recipientEmail, e);
@@ -118,51 +103,13 @@ public class EmailService {
 
     private String buildTaskDecisionEmailContent(String recipientName, Long taskId, String taskNumber,
                                                  java.time.LocalDate applicationDate, String applicantName) {
-        String formattedDate = applicationDate != null ?
-            applicationDate.format(java.time.format.DateTimeFormatter.ofPattern("dd.MM.yyyy")) : "Не указана";
-        String taskLink = taskId != null ? "http://91.184.244.246/tasks/" + taskId : null;
-        
-        return "<!DOCTYPE html>" +
-                "<html>" +
-                "<head>" +
-                "<meta charset=\"UTF-8\">" +
-                "<style>" +
-                "body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }" +
-                ".container { max-width: 600px; margin: 0 auto; padding: 20px; }" +
-                ".header { background-color: #2196F3; color: white; padding: 20px; text-align: center; }" +
-                ".content { padding: 20px; background-color: #f9f9f9; }" +
-                ".info-block { background-color: white; padding: 15px; margin: 15px 0; border-left: 4px solid #2196F3; }" +
-                ".info-label { font-weight: bold; color: #555; }" +
-                ".info-value { color: #333; margin-left: 10px; }" +
-                ".message { font-size: 16px; margin: 20px 0; color: #2196F3; }" +
-                ".footer { text-align: center; padding: 20px; color: #666; font-size: 12px; }" +
-                "</style>" +
-                "</head>" +
-                "<body>" +
-                "<div class=\"container\">" +
-                "<div class=\"header\">" +
-                "<h1>Решение по заявке готово</h1>" +
-                "</div>" +
-                "<div class=\"content\">" +
-                "<p>Здравствуйте" + (recipientName != null && !recipientName.isEmpty() ? ", " + recipientName : "") + "!</p>" +
-                "<div class=\"message\">" +
-                "<p><strong>Написано решение по заявке</strong></p>" +
-                "</div>" +
-                "<div class=\"info-block\">" +
-                "<p><span class=\"info-label\">Номер заявки:</span><span class=\"info-value\">" + taskNumber + "</span></p>" +
-                "<p><span class=\"info-label\">Дата заявки:</span><span class=\"info-value\">" + formattedDate + "</span></p>" +
-                "<p><span class=\"info-label\">Наименование заявителя:</span><span class=\"info-value\">" + applicantName + "</span></p>" +
-                "</div>" +
-                (taskLink != null
-                        ? "<p>Дополнительную информацию вы можете получить по ссылке <a href=\"" + taskLink + "\">" + taskLink + "</a>.</p>"
-                        : "<p>Дополнительную информацию вы можете получить в системе.</p>") +
-                "</div>" +
-                "<div class=\"footer\">" +
-                "<p>Это автоматическое сообщение. Пожалуйста, не отвечайте на это письмо.</p>" +
-                "</div>" +
-                "</div>" +
-                "</body>" +
-                "</html>";
+        Map<String, Object> model = new HashMap<>();
+        model.put("recipientName", recipientName);
+        model.put("taskNumber", taskNumber);
+        model.put("applicationDate", applicationDate != null ? applicationDate.format(DATE_FORMAT) : "Не указана");
+        model.put("applicantName", applicantName);
+        model.put("taskLink", taskId != null ? "http://91.184.244.246/tasks/" + taskId : null);
+        return templateEngine.render("task-decision", model);
     }
 
     public void sendUserRegistrationNotification(String recipientEmail, String recipientName,
@@ -183,7 +130,7 @@ public class EmailService {
             helper.setText(emailContent, true);
 
             log.debug("Отправка email через SMTP: recipient={}", recipientEmail);
-            mailSender.send(mimeMessage);
+            transportPool.send(mimeMessage);
             log.info("Email о регистрации пользователя успешно отправлен: recipient={}, newUserEmail={}", recipientEmail, newUserEmail);
         } catch (jakarta.mail.AuthenticationFailedException e) {
             log.error("Ошибка аутентификации при отправке email: recipient={}. Проверьте username и password.", recipientEmail, e);
@@ -200,69 +147,13 @@ public class EmailService {
     private String buildUserRegistrationEmailContent(String recipientName, String newUserEmail,
                                                     String newUserFirstName, String newUserSecondName,
                                                     String newUserPatronymic) {
-        // Формируем полное ФИО нового пользователя
-        StringBuilder fullName = new StringBuilder();
-        if (newUserSecondName != null && !newUserSecondName.isBlank()) {
-            fullName.append(newUserSecondName);
-        }
-        if (newUserFirstName != null && !newUserFirstName.isBlank()) {
-            if (fullName.length() > 0) {
-                fullName.append(" ");
-            }
-            fullName.append(newUserFirstName);
-        }
-        if (newUserPatronymic != null && !newUserPatronymic.isBlank()) {
-            if (fullName.length() > 0) {
-                fullName.append(" ");
-            }
-            fullName.append(newUserPatronymic);
-        }
-        
-        String fullNameStr = fullName.length() > 0 ? fullName.toString() : "Не указано";
-        
-        return "<!DOCTYPE html>" +
-                "<html>" +
-                "<head>" +
-                "<meta charset=\"UTF-8\">" +
-                "<style>" +
-                "body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }" +
-                ".container { max-width: 600px; margin: 0 auto; padding: 20px; }" +
-                ".header { background-color: #FF9800; color: white; padding: 20px; text-align: center; }" +
-                ".content { padding: 20px; background-color: #f9f9f9; }" +
-                ".info-block { background-color: white; padding: 15px; margin: 15px 0; border-left: 4px solid #FF9800; }" +
-                ".info-label { font-weight: bold; color: #555; }" +
-                ".info-value { color: #333; margin-left: 10px; }" +
-                ".message { font-size: 16px; margin: 20px 0; color: #FF9800; }" +
-                ".footer { text-align: center; padding: 20px; color: #666; font-size: 12px; }" +
-                "</style>" +
-                "</head>" +
-                "<body>" +
-                "<div class=\"container\">" +
-                "<div class=\"header\">" +
-                "<h1>Регистрация нового пользователя</h1>" +
-                "</div>" +
-                "<div class=\"content\">" +
-                "<p>Здравствуйте" + (recipientName != null && !recipientName.isEmpty() ? ", " + recipientName : "") + "!</p>" +
-                "<div class=\"message\">" +
-                "<p><strong>Зарегистрирован новый пользователь в системе</strong></p>" +
-                "</div>" +
-                "<div class=\"info-block\">" +
-                "<p><span class=\"info-label\">Фамилия:</span><span class=\"info-value\">" + 
-                (newUserSecondName != null && !newUserSecondName.isBlank() ? newUserSecondName : "Не указана") + "</span></p>" +
-                "<p><span class=\"info-label\">Имя:</span><span class=\"info-value\">" + 
-                (newUserFirstName != null && !newUserFirstName.isBlank() ? newUserFirstName : "Не указано") + "</span></p>" +
-                (newUserPatronymic != null && !newUserPatronymic.isBlank() ? 
-                "<p><span class=\"info-label\">Отчество:</span><span class=\"info-value\">" + newUserPatronymic + "</span></p>" : "") +
-                "<p><span class=\"info-label\">Email:</span><span class=\"info-value\">" + newUserEmail + "</span></p>" +
-                "</div>" +
-                "<p>Пожалуйста, проверьте систему для получения дополнительной информации.</p>" +
-                "</div>" +
-                "<div class=\"footer\">" +
-                "<p>Это автоматическое сообщение. Пожалуйста, не отвечайте на это письмо.</p>" +
-                "</div>" +
-                "</div>" +
-                "</body>" +
-                "</html>";
+        Map<String, Object> model = new HashMap<>();
+        model.put("recipientName", recipientName);
+        model.put("secondName", newUserSecondName != null && !newUserSecondName.isBlank() ? newUserSecondName : "Не указана");
+        model.put("firstName", newUserFirstName != null && !newUserFirstName.isBlank() ? newUserFirstName : "Не указано");
+        model.put("patronymic", newUserPatronymic != null && !newUserPatronymic.isBlank() ? newUserPatronymic : null);
+        model.put("email", newUserEmail);
+        return templateEngine.render("user-registration", model);
     }
 
     public void sendDeclarationRegisteredNotification(String recipientEmail, String recipientName,
@@ -284,7 +175,7 @@ public class EmailService {
                     executorName
             ), true);
 
-            mailSender.send(mimeMessage);
+            transportPool.send(mimeMessage);
             log.info("Email о регистрации декларации отправлен: recipient={}, declarationNumber={}",
                     recipientEmail, declarationNumber);
         } catch (MessagingException e) {
@@ -301,23 +192,8 @@ public class EmailService {
     private String buildDeclarationRegisteredEmailContent(String recipientName, String applicationNumber,
                                                           java.time.LocalDate applicationDate, String applicantName,
                                                           String declarationNumber, String executorName) {
-        String dateText = applicationDate != null
-                ? applicationDate.format(java.time.format.DateTimeFormatter.ofPattern("dd.MM.yyyy"))
-                : "не указана";
-        String applicantText = (applicantName != null && !applicantName.isBlank()) ? applicantName : "Не указан";
-
-        return "<!DOCTYPE html>" +
-                "<html>" +
-                "<head><meta charset=\"UTF-8\"></head>" +
-                "<body style=\"font-family: Arial, sans-serif; color:#333;\">" +
-                "<h2>Зарегистрирована декларация</h2>" +
-                "<p><strong>По заявке № " + applicationNumber + " от " + dateText +
-                " зарегистрирована декларация с номером " + declarationNumber + ".</strong></p>" +
-                "<p><strong>Заявитель: " + applicantText + ".</strong></p>" +
-                "<p><strong>Исполнитель: " + executorName + ".</strong></p>" +
-                "<p>Это автоматическое сообщение. Пожалуйста, не отвечайте на него.</p>" +
-                "</body>" +
-                "</html>";
+        return templateEngine.render("declaration-registered", registeredDocumentModel(
+                applicationNumber, applicationDate, applicantName, declarationNumber, executorName));
     }
 
     public void sendCertificateRegisteredNotification(String recipientEmail, String recipientName,
@@ -339,7 +215,7 @@ public class EmailService {
                     executorName
             ), true);
 
-            mailSender.send(mimeMessage);
+            transportPool.send(mimeMessage);
             log.info("Email о регистрации сертификата отправлен: recipient={}, certificateNumber={}",
                     recipientEmail, certificateNumber);
         } catch (MessagingException e) {
@@ -356,22 +232,77 @@ public class EmailService {
     private String buildCertificateRegisteredEmailContent(String recipientName, String applicationNumber,
                                                           java.time.LocalDate applicationDate, String applicantName,
                                                           String certificateNumber, String executorName) {
-        String dateText = applicationDate != null
-                ? applicationDate.format(java.time.format.DateTimeFormatter.ofPattern("dd.MM.yyyy"))
-                : "не указана";
-        String applicantText = (applicantName != null && !applicantName.isBlank()) ? applicantName : "Не указан";
-
-        return "<!DOCTYPE html>" +
-                "<html>" +
-                "<head><meta charset=\"UTF-8\"></head>" +
-                "<body style=\"font-family: Arial, sans-serif; color:#333;\">" +
-                "<h2>Зарегистрирован сертификат</h2>" +
-                "<p><strong>По заявке № " + applicationNumber + " от " + dateText +
-                " зарегистрирован сертификат с номером " + certificateNumber + ".</strong></p>" +
-                "<p><strong>Заявитель: " + applicantText + ".</strong></p>" +
-                "<p><strong>Исполнитель: " + executorName + ".</strong></p>" +
-                "<p>Это автоматическое сообщение. Пожалуйста, не отвечайте на него.</p>" +
-                "</body>" +
-                "</html>";
+        return templateEngine.render("certificate-registered", registeredDocumentModel(
+                applicationNumber, applicationDate, applicantName, certificateNumber, executorName));
+    }
+
+    private Map<String, Object> registeredDocumentModel(String applicationNumber, java.time.LocalDate applicationDate,
+                                                        String applicantName, String documentNumber,
+                                                        String executorName) {
+        Map<String, Object> model = new HashMap<>();
+        model.put("applicationNumber", applicationNumber);
+        model.put("applicationDate", applicationDate != null ? applicationDate.format(DATE_FORMAT) : "не указана");
+        model.put("applicantName", applicantName != null && !applicantName.isBlank() ? applicantName : "Не указан");
+        model.put("documentNumber", documentNumber);
+        model.put("executorName", executorName);
+        return model;
+    }
+
+    // Сводное письмо по нескольким уведомлениям одного типа для одного получателя
+    public void sendDigest(List<DigestItem> items) {
+        DigestItem first = items.get(0);
+        String title = digestTitle(first.getType());
+        try {
+            MimeMessage mimeMessage = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+
+            helper.setFrom(fromEmail, senderName);
+            helper.setTo(first.getRecipientEmail());
+            helper.setSubject(title + ": " + items.size());
+            helper.setText(buildDigestEmailContent(first.getRecipientName(), title, items), true);
+
+            transportPool.send(mimeMessage);
+            log.info("Сводное письмо отправлено: recipient={}, type={}, items={}",
+                    first.getRecipientEmail(), first.getType(), items.size());
+        } catch (MessagingException e) {
+            log.error("Ошибка отправки сводного письма: recipient={}, type={}", first.getRecipientEmail(), first.getType(), e);
+            throw new RuntimeException("Не удалось отправить сводное письмо", e);
+        } catch (Exception e) {
+            log.error("Неожиданная ошибка отправки сводного письма: recipient={}, type={}",
+                    first.getRecipientEmail(), first.getType(), e);
+            throw new RuntimeException("Не удалось отправить сводное письмо", e);
+        }
+    }
+
+    private String buildDigestEmailContent(String recipientName, String title, List<DigestItem> items) {
+        List<Map<String, Object>> rows = new ArrayList<>(items.size());
+        for (DigestItem item : items) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("documentNumber", item.getDocumentNumber());
+            row.put("applicationNumber", item.getApplicationNumber());
+            row.put("applicationDate", item.getApplicationDate() != null
+                    ? item.getApplicationDate().format(DATE_FORMAT) : "не указана");
+            row.put("applicantName", item.getApplicantName() != null && !item.getApplicantName().isBlank()
+                    ? item.getApplicantName() : "Не указан");
+            rows.add(row);
+        }
+        Map<String, Object> model = new HashMap<>();
+        model.put("recipientName", recipientName);
+        model.put("title", title);
+        boolean taskDecision = "TaskDecisionNotification".equals(items.get(0).getType());
+        model.put("numberLabel", taskDecision ? "Номер заявки" : "Номер документа");
+        // У решений номер документа и есть номер заявки
+        model.put("withApplication", taskDecision ? null : Boolean.TRUE);
+        model.put("items", rows);
+        return templateEngine.render("digest", model);
+    }
+
+    private String digestTitle(String type) {
+        return switch (type) {
+            case "TaskDecisionNotification" -> "Написаны решения по заявкам";
+            case "DeclarationRegisteredNotification" -> "Зарегистрированы декларации";
+            case "CertificateRegisteredNotification" -> "Зарегистрированы сертификаты";
+            default -> "Уведомления";
+        };
     }
 }
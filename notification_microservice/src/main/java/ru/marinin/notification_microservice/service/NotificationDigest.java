@@ -0,0 +1,250 @@
+package ru.marinin.notification_microservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.marinin.notification_microservice.config.NotificationRetryTopics;
+import ru.marinin.notification_microservice.consumer.NotificationConsumer;
+import ru.marinin.notification_microservice.model.DigestItem;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Объединение уведомлений в сводные письма.
+ * Уведомления о решениях и регистрации документов копятся по паре получатель + тип и уходят одним
+ * письмом, когда первое из них ждёт дольше window-ms или их набралось max-items. Типы из
+ * urgent-types отправляются сразу. Отложенные уведомления хранятся в NotificationDigestStore
+ * и переживают перезапуск.
+ * Неотправленная сводка повторяется с задержками из notification.retry.*, после последней попытки
+ * её уведомления уходят в dead-letter топик. Счётчик попыток хранится в памяти и сбрасывается при перезапуске.
+ */
+@Component
+@Slf4j
+public class NotificationDigest {
+
+    private static final Set<String> DIGEST_TYPES = Set.of(
+            "TaskDecisionNotification",
+            "DeclarationRegisteredNotification",
+            "CertificateRegisteredNotification"
+    );
+
+    private final NotificationDigestStore store;
+    private final EmailService emailService;
+    private final NotificationRetryTopics retryTopics;
+    private final KafkaTemplate<String, byte[]> forwardingKafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final Map<String, List<DigestItem>> groups = new LinkedHashMap<>();
+    // Неудачные отправки по группам: число попыток и время, раньше которого группа не отправляется
+    private final Map<String, Retry> retries = new HashMap<>();
+    // Сводки отправлены, но отметка в журнал не записалась; повторяется при следующей проверке
+    private final List<Long> unjournaledSent = new ArrayList<>();
+    private long lastId;
+
+    @Value("${notification.digest.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notification.digest.window-ms:300000}")
+    private long windowMs;
+
+    @Value("${notification.digest.max-items:20}")
+    private int maxItems;
+
+    @Value("${notification.digest.urgent-types:}")
+    private Set<String> urgentTypes;
+
+    @Value("${notification.consumer.forward-timeout-ms:30000}")
+    private long forwardTimeoutMs;
+
+    public NotificationDigest(NotificationDigestStore store,
+                              EmailService emailService,
+                              NotificationRetryTopics retryTopics,
+                              KafkaTemplate<String, byte[]> forwardingKafkaTemplate,
+                              ObjectMapper objectMapper) {
+        this.store = store;
+        this.emailService = emailService;
+        this.retryTopics = retryTopics;
+        this.forwardingKafkaTemplate = forwardingKafkaTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public synchronized void restore() {
+        List<DigestItem> items = store.load();
+        for (DigestItem item : items) {
+            groups.computeIfAbsent(groupKey(item), key -> new ArrayList<>()).add(item);
+            lastId = Math.max(lastId, item.getId());
+        }
+        if (!items.isEmpty()) {
+            log.info("Восстановлено {} отложенных уведомлений для сводок", items.size());
+        }
+    }
+
+    public boolean isDeferred(String type) {
+        return enabled && DIGEST_TYPES.contains(type) && !urgentTypes.contains(type);
+    }
+
+    // Возвращается после записи в журнал: после этого смещение в Kafka можно фиксировать
+    public synchronized void add(DigestItem item) {
+        item.setId(++lastId);
+        store.append(item);
+        groups.computeIfAbsent(groupKey(item), key -> new ArrayList<>()).add(item);
+        log.debug("Уведомление отложено для сводки: recipient={}, type={}, number={}",
+                item.getRecipientEmail(), item.getType(), item.getDocumentNumber());
+    }
+
+    @Scheduled(fixedDelayString = "${notification.digest.flush-interval-ms:5000}")
+    public void flush() {
+        journalSent(List.of());
+        for (List<DigestItem> items : takeDue()) {
+            try {
+                send(items);
+            } catch (Exception e) {
+                failed(items, e);
+                continue;
+            }
+            succeeded(items);
+            // Письмо уже ушло: ошибка журнала не должна вернуть сводку в очередь
+            journalSent(items.stream().map(DigestItem::getId).toList());
+        }
+        synchronized (this) {
+            if (store.needsCompaction(pendingCount())) {
+                compact();
+            }
+        }
+    }
+
+    public synchronized int pendingCount() {
+        return groups.values().stream().mapToInt(List::size).sum();
+    }
+
+    private synchronized List<List<DigestItem>> takeDue() {
+        long now = System.currentTimeMillis();
+        List<List<DigestItem>> due = new ArrayList<>();
+        groups.entrySet().removeIf(group -> {
+            List<DigestItem> items = group.getValue();
+            Retry retry = retries.get(group.getKey());
+            boolean ready = (retry == null || now >= retry.notBefore)
+                    && (items.size() >= maxItems || now - items.get(0).getReceivedAt() >= windowMs
+                    || !isDeferred(items.get(0).getType()));
+            if (ready) {
+                due.add(items);
+            }
+            return ready;
+        });
+        return due;
+    }
+
+    private synchronized void succeeded(List<DigestItem> items) {
+        retries.remove(groupKey(items.get(0)));
+    }
+
+    // Повтор с задержкой из notification.retry.*; после последней попытки уведомления уходят в dead-letter топик
+    private void failed(List<DigestItem> items, Exception error) {
+        DigestItem first = items.get(0);
+        int attempt = attemptsOf(first) + 1;
+        if (attempt <= retryTopics.getRetryTopics().size()) {
+            long delayMs = retryTopics.delayMs(attempt - 1);
+            log.error("Не удалось отправить сводку: recipient={}, type={}, items={}, попытка {}. Повтор через {} мс.",
+                    first.getRecipientEmail(), first.getType(), items.size(), attempt, delayMs, error);
+            putBack(items, new Retry(attempt, System.currentTimeMillis() + delayMs));
+            return;
+        }
+        try {
+            sendToDeadLetter(items, "Исчерпаны повторы сводки (" + (attempt - 1) + "): " + error.getMessage());
+        } catch (Exception e) {
+            long delayMs = retryTopics.delayMs(retryTopics.getRetryTopics().size() - 1);
+            log.error("Не удалось переслать сводку в dead-letter топик: recipient={}, type={}. Повтор через {} мс.",
+                    first.getRecipientEmail(), first.getType(), delayMs, e);
+            putBack(items, new Retry(attempt - 1, System.currentTimeMillis() + delayMs));
+            return;
+        }
+        succeeded(items);
+        journalSent(items.stream().map(DigestItem::getId).toList());
+    }
+
+    private void sendToDeadLetter(List<DigestItem> items, String reason) throws Exception {
+        for (DigestItem item : items) {
+            ProducerRecord<String, byte[]> deadLetter = new ProducerRecord<>(retryTopics.getDeadLetterTopic(),
+                    item.getRecipientEmail(), objectMapper.writeValueAsBytes(item.toNotification()));
+            deadLetter.headers().add(NotificationConsumer.TYPE_HEADER, item.getType().getBytes(StandardCharsets.UTF_8));
+            deadLetter.headers().add(NotificationConsumer.DLT_REASON_HEADER, reason.getBytes(StandardCharsets.UTF_8));
+            forwardingKafkaTemplate.send(deadLetter).get(forwardTimeoutMs, TimeUnit.MILLISECONDS);
+        }
+        log.error("Сводка переслана в {}: recipient={}, type={}, items={}, причина: {}",
+                retryTopics.getDeadLetterTopic(), items.get(0).getRecipientEmail(), items.get(0).getType(),
+                items.size(), reason);
+    }
+
+    // Отметка об отправке в журнале; при ошибке id запоминаются и записываются при следующей проверке
+    private synchronized void journalSent(List<Long> ids) {
+        unjournaledSent.addAll(ids);
+        if (unjournaledSent.isEmpty()) {
+            return;
+        }
+        try {
+            store.markSent(unjournaledSent);
+            unjournaledSent.clear();
+        } catch (RuntimeException e) {
+            log.error("Не удалось записать в журнал отправку {} уведомлений сводок. Повтор при следующей проверке.",
+                    unjournaledSent.size(), e);
+        }
+    }
+
+    // Сжатый журнал содержит только неотправленные уведомления, поэтому незаписанные отметки больше не нужны
+    private synchronized void compact() {
+        store.compact(groups.values().stream().flatMap(List::stream).toList());
+        unjournaledSent.clear();
+    }
+
+    private synchronized int attemptsOf(DigestItem item) {
+        Retry retry = retries.get(groupKey(item));
+        return retry != null ? retry.attempts : 0;
+    }
+
+    // Неотправленные уведомления возвращаются в начало своей группы
+    private synchronized void putBack(List<DigestItem> items, Retry retry) {
+        String key = groupKey(items.get(0));
+        groups.computeIfAbsent(key, k -> new ArrayList<>()).addAll(0, items);
+        retries.put(key, retry);
+    }
+
+    private void send(List<DigestItem> items) {
+        if (items.size() > 1) {
+            emailService.sendDigest(items);
+            return;
+        }
+        // Одиночное уведомление уходит обычным письмом
+        DigestItem item = items.get(0);
+        switch (item.getType()) {
+            case "TaskDecisionNotification" -> emailService.sendTaskDecisionNotification(
+                    item.getRecipientEmail(), item.getRecipientName(), item.getTaskId(), item.getDocumentNumber(),
+                    item.getApplicationDate(), item.getApplicantName());
+            case "DeclarationRegisteredNotification" -> emailService.sendDeclarationRegisteredNotification(
+                    item.getRecipientEmail(), item.getRecipientName(), item.getApplicationNumber(),
+                    item.getApplicationDate(), item.getApplicantName(), item.getDocumentNumber(), item.getExecutorName());
+            case "CertificateRegisteredNotification" -> emailService.sendCertificateRegisteredNotification(
+                    item.getRecipientEmail(), item.getRecipientName(), item.getApplicationNumber(),
+                    item.getApplicationDate(), item.getApplicantName(), item.getDocumentNumber(), item.getExecutorName());
+            default -> throw new IllegalStateException("Тип не поддерживает сводки: " + item.getType());
+        }
+    }
+
+    private static String groupKey(DigestItem item) {
+        return item.getRecipientEmail() + "|" + item.getType();
+    }
+
+    private record Retry(int attempts, long notBefore) {
+    }
+}
@@ -0,0 +1,109 @@
+package ru.marinin.notification_microservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.marinin.notification_microservice.model.DigestItem;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Журнал отложенных уведомлений на локальном диске.
+ * Каждое добавление и каждая отправка сводки дописываются строкой JSON с fsync, поэтому смещение
+ * в Kafka можно фиксировать сразу после записи. При старте журнал проигрывается и сжимается
+ * до неотправленных уведомлений.
+ */
+@Component
+@Slf4j
+public class NotificationDigestStore implements DisposableBean {
+
+    private static final String ADD = "add";
+    private static final String SENT = "sent";
+
+    private final ObjectMapper objectMapper;
+    private final AppendOnlyJournal journal;
+
+    public NotificationDigestStore(ObjectMapper objectMapper,
+                                   @Value("${notification.digest.store-path:data/notification-digest.journal}") String path) {
+        this.objectMapper = objectMapper;
+        this.journal = new AppendOnlyJournal(Path.of(path), "журнал сводок");
+    }
+
+    public synchronized List<DigestItem> load() {
+        Map<Long, DigestItem> pending = new LinkedHashMap<>();
+        journal.read(line -> {
+            JournalRecord record;
+            try {
+                record = objectMapper.readValue(line, JournalRecord.class);
+            } catch (IOException e) {
+                log.warn("Пропущена повреждённая запись журнала сводок: {}", e.getMessage());
+                return;
+            }
+            if (ADD.equals(record.getOp())) {
+                pending.put(record.getItem().getId(), record.getItem());
+            } else if (SENT.equals(record.getOp())) {
+                record.getIds().forEach(pending::remove);
+            }
+        });
+        List<DigestItem> items = new ArrayList<>(pending.values());
+        compact(items);
+        return items;
+    }
+
+    public synchronized void append(DigestItem item) {
+        journal.append(line(new JournalRecord(ADD, item, null)), true);
+    }
+
+    public synchronized void markSent(Collection<Long> ids) {
+        journal.append(line(new JournalRecord(SENT, null, List.copyOf(ids))), true);
+    }
+
+    // Журнал разросся относительно числа неотправленных уведомлений
+    public synchronized boolean needsCompaction(int pending) {
+        return journal.records() > 1000 && journal.records() > 4L * pending;
+    }
+
+    // Переписывает журнал во временный файл и атомарно подменяет им текущий
+    public synchronized void compact(Collection<DigestItem> pending) {
+        List<String> lines = new ArrayList<>(pending.size());
+        for (DigestItem item : pending) {
+            lines.add(line(new JournalRecord(ADD, item, null)));
+        }
+        journal.rewrite(lines);
+    }
+
+    @Override
+    public synchronized void destroy() throws IOException {
+        journal.close();
+    }
+
+    private String line(JournalRecord record) {
+        try {
+            return objectMapper.writeValueAsString(record);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Не удалось записать журнал сводок", e);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class JournalRecord {
+        private String op;
+        private DigestItem item;
+        private List<Long> ids;
+    }
+}
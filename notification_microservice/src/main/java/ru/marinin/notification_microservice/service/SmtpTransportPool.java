@@ -0,0 +1,175 @@
+package ru.marinin.notification_microservice.service;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пул постоянных SMTP-соединений.
+ * JavaMailSender открывает новое соединение (STARTTLS + AUTH) на каждое письмо; пул держит
+ * до pool-size аутентифицированных соединений и переиспользует их. Соединения открываются лениво,
+ * перед выдачей проверяются (NOOP), простаивающие дольше idle-timeout закрываются.
+ * Повторное подключение выполняется только до передачи письма серверу, чтобы не отправить его дважды.
+ */
+@Component
+@Slf4j
+public class SmtpTransportPool implements DisposableBean {
+
+    private final JavaMailSenderImpl mailSender;
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+
+    @Value("${notification.smtp.pool.borrow-timeout-ms:30000}")
+    private long borrowTimeoutMs;
+
+    @Value("${notification.smtp.pool.idle-timeout-ms:60000}")
+    private long idleTimeoutMs;
+
+    // Соединение, использованное недавно, не проверяем повторно
+    @Value("${notification.smtp.pool.validate-after-ms:5000}")
+    private long validateAfterMs;
+
+    public SmtpTransportPool(JavaMailSenderImpl mailSender,
+                             @Value("${notification.smtp.pool.size:4}") int poolSize) {
+        this.mailSender = mailSender;
+        this.permits = new Semaphore(poolSize, true);
+    }
+
+    public void send(MimeMessage message) throws MessagingException {
+        PooledTransport transport = borrow();
+        boolean healthy = false;
+        try {
+            boolean reused = transport.connected;
+            try {
+                transport.ensureConnected();
+            } catch (MessagingException e) {
+                if (!reused) {
+                    throw e;
+                }
+                // Письмо серверу ещё не передано: соединение из пула не прошло проверку, подключаемся заново
+                transport.close();
+                transport.ensureConnected();
+            }
+            // Ошибку sendMessage не повторяем: сервер мог уже принять письмо.
+            // Повторная отправка — через retry-топики потребителя
+            transport.send(message);
+            healthy = true;
+        } finally {
+            release(transport, healthy);
+        }
+    }
+
+    // Закрывает соединения, которые простаивают дольше idle-timeout
+    @Scheduled(fixedDelayString = "${notification.smtp.pool.eviction-interval-ms:30000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        for (PooledTransport transport : idle) {
+            if (now - transport.lastUsedAt > idleTimeoutMs && idle.remove(transport)) {
+                transport.close();
+                log.debug("SMTP-соединение закрыто по простою");
+            }
+        }
+    }
+
+    public int idleCount() {
+        return idle.size();
+    }
+
+    @Override
+    public void destroy() {
+        PooledTransport transport;
+        while ((transport = idle.poll()) != null) {
+            transport.close();
+        }
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("Нет свободного SMTP-соединения за " + borrowTimeoutMs + " мс");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Ожидание SMTP-соединения прервано", e);
+        }
+
+        try {
+            // Последнее возвращённое соединение — самое "тёплое"
+            PooledTransport transport = idle.pollFirst();
+            if (transport == null) {
+                String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp";
+                transport = new PooledTransport(mailSender.getSession().getTransport(protocol));
+            }
+            return transport;
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void release(PooledTransport transport, boolean healthy) {
+        try {
+            if (healthy) {
+                transport.lastUsedAt = System.currentTimeMillis();
+                idle.offerFirst(transport);
+            } else {
+                transport.close();
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private class PooledTransport {
+        private final Transport transport;
+        private volatile long lastUsedAt;
+        private boolean connected;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        private void send(MimeMessage message) throws MessagingException {
+            if (message.getSentDate() == null) {
+                message.setSentDate(new Date());
+            }
+            message.saveChanges();
+            transport.sendMessage(message, message.getAllRecipients());
+            lastUsedAt = System.currentTimeMillis();
+        }
+
+        private void ensureConnected() throws MessagingException {
+            if (connected) {
+                boolean fresh = System.currentTimeMillis() - lastUsedAt < validateAfterMs;
+                // isConnected() у SMTP-транспорта отправляет NOOP и проверяет ответ сервера
+                if (fresh || transport.isConnected()) {
+                    return;
+                }
+                close();
+            }
+            transport.connect(mailSender.getHost(), mailSender.getPort(),
+                    mailSender.getUsername(), mailSender.getPassword());
+            connected = true;
+        }
+
+        private void close() {
+            connected = false;
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Ошибка при закрытии SMTP-соединения: {}", e.getMessage());
+            }
+        }
+    }
+}
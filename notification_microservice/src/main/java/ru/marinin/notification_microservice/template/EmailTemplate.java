@@ -0,0 +1,216 @@
+package ru.marinin.notification_microservice.template;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Скомпилированный шаблон письма: массив сегментов, который после компиляции не меняется.
+ * Синтаксис — подмножество Mustache:
+ * {{name}} — значение с HTML-экранированием,
+ * {{#name}}...{{/name}} — блок выводится, если значение непустое; для списка — по разу на элемент,
+ * поля элемента-Map доступны внутри блока наряду с полями модели,
+ * {{^name}}...{{/name}} — блок выводится, если значение пустое.
+ * <p>
+ * При рендеринге текст не копируется в промежуточный буфер: собираются ссылки на строки-литералы
+ * и значения, а итоговая строка склеивается String.join одним выделением памяти нужной кодировки.
+ */
+public final class EmailTemplate {
+
+    private final String name;
+    private final Segment[] segments;
+    private final int partCount;
+
+    private EmailTemplate(String name, Segment[] segments) {
+        this.name = name;
+        this.segments = segments;
+        this.partCount = partCount(segments);
+    }
+
+    public static EmailTemplate compile(String name, String source) {
+        Parser parser = new Parser(name, source);
+        return new EmailTemplate(name, parser.parse(null));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String render(Map<String, ?> model) {
+        Parts out = new Parts(partCount);
+        render(segments, new Scope(model, null), out);
+        return out.join();
+    }
+
+    private static void render(Segment[] segments, Scope scope, Parts out) {
+        for (Segment segment : segments) {
+            switch (segment.kind) {
+                case Segment.LITERAL -> out.add(segment.text);
+                case Segment.VARIABLE -> {
+                    Object value = scope.get(segment.text);
+                    if (value != null) {
+                        out.addEscaped(value.toString());
+                    }
+                }
+                case Segment.SECTION -> renderSection(segment, scope, out);
+                default -> {
+                    if (!isPresent(scope.get(segment.text))) {
+                        render(segment.body, scope, out);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void renderSection(Segment section, Scope scope, Parts out) {
+        Object value = scope.get(section.text);
+        if (!isPresent(value)) {
+            return;
+        }
+        if (value instanceof Collection<?> items) {
+            for (Object item : items) {
+                render(section.body, item instanceof Map<?, ?> fields ? new Scope(fields, scope) : scope, out);
+            }
+        } else {
+            render(section.body, scope, out);
+        }
+    }
+
+    // Число частей при однократном проходе по всем блокам: начальный размер списка частей
+    private static int partCount(Segment[] segments) {
+        int count = 0;
+        for (Segment segment : segments) {
+            count += segment.body != null ? partCount(segment.body) : 1;
+        }
+        return count;
+    }
+
+    private static boolean isPresent(Object value) {
+        return value != null
+                && !(value instanceof CharSequence text && text.isEmpty())
+                && !(value instanceof Collection<?> items && items.isEmpty());
+    }
+
+    // Поля элемента списка поверх полей модели; без копирования модели на каждый элемент
+    private record Scope(Map<?, ?> fields, Scope parent) {
+        Object get(String key) {
+            for (Scope scope = this; scope != null; scope = scope.parent) {
+                Object value = scope.fields.get(key);
+                if (value != null || scope.fields.containsKey(key)) {
+                    return value;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Parts {
+        private String[] parts;
+        private int size;
+
+        private Parts(int capacity) {
+            this.parts = new String[Math.max(capacity, 1)];
+        }
+
+        private void add(String part) {
+            if (part.isEmpty()) {
+                return;
+            }
+            if (size == parts.length) {
+                parts = Arrays.copyOf(parts, size * 2);
+            }
+            parts[size++] = part;
+        }
+
+        // Куски значения между спецсимволами и замены добавляются отдельными частями, без промежуточного буфера
+        private void addEscaped(String value) {
+            int start = 0;
+            for (int i = 0, length = value.length(); i < length; i++) {
+                String replacement = HtmlEscaper.replacement(value.charAt(i));
+                if (replacement != null) {
+                    add(value.substring(start, i));
+                    add(replacement);
+                    start = i + 1;
+                }
+            }
+            // Частый случай: экранировать нечего, значение добавляется без копирования
+            add(start == 0 ? value : value.substring(start));
+        }
+
+        private String join() {
+            return String.join("", size == parts.length ? parts : Arrays.copyOf(parts, size));
+        }
+    }
+
+    // Один final-класс с видом сегмента вместо иерархии: обход шаблона обходится без виртуальных вызовов
+    private static final class Segment {
+        private static final int LITERAL = 0;
+        private static final int VARIABLE = 1;
+        private static final int SECTION = 2;
+        private static final int INVERTED_SECTION = 3;
+
+        private final int kind;
+        // Текст литерала или имя значения
+        private final String text;
+        private final Segment[] body;
+
+        private Segment(int kind, String text, Segment[] body) {
+            this.kind = kind;
+            this.text = text;
+            this.body = body;
+        }
+    }
+
+    private static final class Parser {
+        private final String name;
+        private final String source;
+        private int position;
+
+        private Parser(String name, String source) {
+            this.name = name;
+            this.source = source;
+        }
+
+        private Segment[] parse(String closingKey) {
+            List<Segment> segments = new ArrayList<>();
+            while (position < source.length()) {
+                int open = source.indexOf("{{", position);
+                if (open < 0) {
+                    segments.add(new Segment(Segment.LITERAL, source.substring(position), null));
+                    position = source.length();
+                    break;
+                }
+                if (open > position) {
+                    segments.add(new Segment(Segment.LITERAL, source.substring(position, open), null));
+                }
+                int close = source.indexOf("}}", open);
+                if (close < 0) {
+                    throw new IllegalArgumentException("Незакрытый тег в шаблоне " + name + " на позиции " + open);
+                }
+                String tag = source.substring(open + 2, close).trim();
+                position = close + 2;
+
+                if (tag.startsWith("#") || tag.startsWith("^")) {
+                    // Имена интернируются: ключи модели — строковые литералы, и поиск сравнивает их по ссылке
+                    String key = tag.substring(1).trim().intern();
+                    int kind = tag.charAt(0) == '^' ? Segment.INVERTED_SECTION : Segment.SECTION;
+                    segments.add(new Segment(kind, key, parse(key)));
+                } else if (tag.startsWith("/")) {
+                    String key = tag.substring(1).trim();
+                    if (!key.equals(closingKey)) {
+                        throw new IllegalArgumentException("Неожиданный {{/" + key + "}} в шаблоне " + name);
+                    }
+                    return segments.toArray(new Segment[0]);
+                } else {
+                    segments.add(new Segment(Segment.VARIABLE, tag.intern(), null));
+                }
+            }
+            if (closingKey != null) {
+                throw new IllegalArgumentException("Не закрыт блок {{#" + closingKey + "}} в шаблоне " + name);
+            }
+            return segments.toArray(new Segment[0]);
+        }
+    }
+}
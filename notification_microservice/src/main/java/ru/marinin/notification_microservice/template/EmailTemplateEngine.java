@@ -0,0 +1,65 @@
+package ru.marinin.notification_microservice.template;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Шаблоны писем из classpath:templates/email/*.html.
+ * Загружаются и компилируются один раз при старте.
+ */
+@Component
+public class EmailTemplateEngine {
+
+    private static final String LOCATION = "classpath:templates/email/*.html";
+
+    private final Map<String, EmailTemplate> templates;
+
+    public EmailTemplateEngine() {
+        this(loadTemplates());
+    }
+
+    public EmailTemplateEngine(Map<String, String> sources) {
+        Map<String, EmailTemplate> compiled = new HashMap<>();
+        sources.forEach((name, source) -> compiled.put(name, EmailTemplate.compile(name, source)));
+        this.templates = Map.copyOf(compiled);
+    }
+
+    public String render(String templateName, Map<String, ?> model) {
+        EmailTemplate template = templates.get(templateName);
+        if (template == null) {
+            throw new IllegalArgumentException("Шаблон письма не найден: " + templateName);
+        }
+        return template.render(model);
+    }
+
+    private static Map<String, String> loadTemplates() {
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver().getResources(LOCATION);
+            Map<String, String> sources = new HashMap<>();
+            for (Resource resource : resources) {
+                String fileName = resource.getFilename();
+                String name = fileName.substring(0, fileName.length() - ".html".length());
+                sources.put(name, minify(resource.getContentAsString(StandardCharsets.UTF_8)));
+            }
+            return sources;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось загрузить шаблоны писем", e);
+        }
+    }
+
+    // Шаблоны хранятся с отступами для читаемости; в письмо строки идут без них
+    private static String minify(String source) {
+        return source.lines()
+                .map(String::strip)
+                .filter(line -> !line.isEmpty())
+                .collect(Collectors.joining());
+    }
+}
@@ -0,0 +1,22 @@
+package ru.marinin.notification_microservice.template;
+
+// HTML-экранирование: замена для символа или null, если символ выводится как есть
+final class HtmlEscaper {
+
+    private HtmlEscaper() {
+    }
+
+    static String replacement(char c) {
+        if (c > '>') {
+            return null;
+        }
+        return switch (c) {
+            case '&' -> "&amp;";
+            case '<' -> "&lt;";
+            case '>' -> "&gt;";
+            case '"' -> "&quot;";
+            case '\'' -> "&#39;";
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,306 @@
+package ru.marinin.notification_microservice.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.marinin.notification_microservice.config.NotificationRetryTopics;
+import ru.marinin.notification_microservice.service.DeliveryLedger;
+import ru.marinin.notification_microservice.service.EmailService;
+import ru.marinin.notification_microservice.service.NotificationDigest;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class NotificationConsumerTest {
+
+    private EmailService emailService;
+    private KafkaTemplate<String, byte[]> forwardingTemplate;
+    private ExecutorService workers;
+    private NotificationConsumer consumer;
+    private Acknowledgment acknowledgment;
+    private MessageListenerContainer retryContainer;
+    private SimpleMeterRegistry meterRegistry;
+    private DeliveryLedger ledger;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        emailService = mock(EmailService.class);
+        forwardingTemplate = mock(KafkaTemplate.class);
+        when(forwardingTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+        workers = Executors.newFixedThreadPool(2);
+        acknowledgment = mock(Acknowledgment.class);
+
+        retryContainer = mock(MessageListenerContainer.class);
+        KafkaListenerEndpointRegistry registry = mock(KafkaListenerEndpointRegistry.class);
+        when(registry.getListenerContainer(NotificationConsumer.RETRY_LISTENER_ID)).thenReturn(retryContainer);
+        meterRegistry = new SimpleMeterRegistry();
+        ledger = new DeliveryLedger(directory.resolve("ledger.log").toString(), 60_000);
+
+        consumer = new NotificationConsumer(emailService, new ObjectMapper(), workers, forwardingTemplate,
+                mock(NotificationDigest.class),
+                new NotificationRetryTopics("task-assignments", "task-assignments.DLT", 2, 1000, 4.0, 60000),
+                meterRegistry, registry, mock(TaskScheduler.class), ledger);
+        ReflectionTestUtils.setField(consumer, "forwardTimeoutMs", 1000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        workers.shutdownNow();
+    }
+
+    @Test
+    void dispatchesByTypeHeader() {
+        ConsumerRecord<String, byte[]> record = record(0, "TaskAssignmentNotification",
+                "{\"recipientEmail\":\"a@b.ru\",\"recipientName\":\"Иван\",\"taskId\":1,\"message\":\"Текст\"}");
+
+        consumer.consumeNotifications(List.of(record), acknowledgment, mock(Consumer.class));
+
+        verify(emailService).sendTaskAssignmentNotification("a@b.ru", "Иван", "Текст");
+        verify(acknowledgment).acknowledge();
+        verifyNoInteractions(forwardingTemplate);
+    }
+
+    @Test
+    void skipsNotificationAlreadyDelivered() {
+        ConsumerRecord<String, byte[]> first = record(0, "TaskAssignmentNotification",
+                "{\"recipientEmail\":\"a@b.ru\",\"recipientName\":\"Иван\",\"taskId\":1,\"message\":\"Текст\"}");
+        first.headers().add(NotificationConsumer.ID_HEADER, "n-1".getBytes(StandardCharsets.UTF_8));
+        ConsumerRecord<String, byte[]> redelivered = record(1, "TaskAssignmentNotification",
+                "{\"recipientEmail\":\"a@b.ru\",\"recipientName\":\"Иван\",\"taskId\":1,\"message\":\"Текст\"}");
+        redelivered.headers().add(NotificationConsumer.ID_HEADER, "n-1".getBytes(StandardCharsets.UTF_8));
+
+        consumer.consumeNotifications(List.of(first), acknowledgment, mock(Consumer.class));
+        // После перезапуска журнал читается с диска
+        DeliveryLedger restarted = new DeliveryLedger(directory.resolve("ledger.log").toString(), 60_000);
+        restarted.load();
+        ReflectionTestUtils.setField(consumer, "deliveryLedger", restarted);
+        consumer.consumeNotifications(List.of(redelivered), acknowledgment, mock(Consumer.class));
+
+        verify(emailService, times(1)).sendTaskAssignmentNotification("a@b.ru", "Иван", "Текст");
+        assertEquals(1.0, meterRegistry.counter("notifications.consumed", "stage", "main", "outcome", "duplicate").count());
+    }
+
+    @Test
+    void routesMessagesWithoutHeaderByFields() {
+        ConsumerRecord<String, byte[]> record = record(0, null,
+                "{\"recipientEmail\":\"a@b.ru\",\"recipientName\":\"Иван\",\"newUserEmail\":\"new@b.ru\","
+                        + "\"newUserFirstName\":\"Пётр\",\"newUserSecondName\":\"Петров\",\"newUserPatronymic\":null}");
+
+        consumer.consumeNotifications(List.of(record), acknowledgment, mock(Consumer.class));
+
+        verify(emailService).sendUserRegistrationNotification("a@b.ru", "Иван", "new@b.ru", "Пётр", "Петров", null);
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendsUnknownTypeToDeadLetterTopic() {
+        ConsumerRecord<String, byte[]> record = record(0, "SomethingElse", "{\"recipientEmail\":\"a@b.ru\"}");
+
+        consumer.consumeNotifications(List.of(record), acknowledgment, mock(Consumer.class));
+
+        ArgumentCaptor<ProducerRecord<String, byte[]>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(forwardingTemplate).send(captor.capture());
+        ProducerRecord<String, byte[]> deadLetter = captor.getValue();
+        assertEquals("task-assignments.DLT", deadLetter.topic());
+        assertEquals("SomethingElse", new String(
+                deadLetter.headers().lastHeader(NotificationConsumer.TYPE_HEADER).value(), StandardCharsets.UTF_8));
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void sendsMalformedPayloadToDeadLetterTopic() {
+        ConsumerRecord<String, byte[]> record = record(0, "TaskDecisionNotification", "{not json");
+
+        consumer.consumeNotifications(List.of(record), acknowledgment, mock(Consumer.class));
+
+        verify(forwardingTemplate).send(any(ProducerRecord.class));
+        verify(emailService, never()).sendTaskDecisionNotification(any(), any(), any(), any(), any(), any());
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void forwardsFailedEmailToRetryTopicAndKeepsPartitionFlowing() {
+        doThrow(new RuntimeException("SMTP недоступен"))
+                .when(emailService).sendTaskAssignmentNotification(anyString(), anyString(), anyString());
+        ConsumerRecord<String, byte[]> record = record(0, "TaskAssignmentNotification",
+                "{\"recipientEmail\":\"a@b.ru\",\"recipientName\":\"Иван\",\"taskId\":1,\"message\":\"Текст\"}");
+
+        consumer.consumeNotifications(List.of(record), acknowledgment, mock(Consumer.class));
+
+        ArgumentCaptor<ProducerRecord<String, byte[]>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(forwardingTemplate).send(captor.capture());
+        assertEquals("task-assignments-retry-0", captor.getValue().topic());
+        assertEquals("1", header(captor.getValue(), NotificationConsumer.RETRY_ATTEMPT_HEADER));
+        verify(acknowledgment).acknowledge();
+        assertEquals(1.0, meterRegistry.counter("notifications.consumed", "stage", "main", "outcome", "retry").count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendsToDeadLetterTopicAfterLastRetryStage() {
+        doThrow(new RuntimeException("SMTP недоступен"))
+                .when(emailService).sendTaskAssignmentNotification(anyString(), anyString(), anyString());
+        ConsumerRecord<String, byte[]> record = record("task-assignments-retry-1", 0, "TaskAssignmentNotification",
+                "{\"recipientEmail\":\"a@b.ru\",\"recipientName\":\"Иван\",\"taskId\":1,\"message\":\"Текст\"}");
+        record.headers().add(NotificationConsumer.RETRY_ATTEMPT_HEADER, "2".getBytes(StandardCharsets.UTF_8));
+
+        consumer.consumeRetries(List.of(record), acknowledgment, mock(Consumer.class));
+
+        ArgumentCaptor<ProducerRecord<String, byte[]>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(forwardingTemplate).send(captor.capture());
+        assertEquals("task-assignments.DLT", captor.getValue().topic());
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void pausesRetryPartitionUntilRecordIsDue() {
+        ConsumerRecord<String, byte[]> record = record("task-assignments-retry-0", 5, "TaskAssignmentNotification",
+                "{\"recipientEmail\":\"a@b.ru\",\"message\":\"Текст\"}");
+        record.headers().add(NotificationConsumer.RETRY_NOT_BEFORE_HEADER,
+                String.valueOf(System.currentTimeMillis() + 60_000).getBytes(StandardCharsets.UTF_8));
+        Consumer<?, ?> kafkaConsumer = mock(Consumer.class);
+
+        consumer.consumeRetries(List.of(record), acknowledgment, kafkaConsumer);
+
+        TopicPartition partition = new TopicPartition("task-assignments-retry-0", 0);
+        verify(kafkaConsumer).seek(partition, 5);
+        verify(retryContainer).pausePartition(partition);
+        verify(acknowledgment, never()).acknowledge();
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    void processesPartitionsInParallelAndEachInOrder() {
+        List<ConsumerRecord<String, byte[]>> records = List.of(
+                assignment(0, 10, "first"), assignment(1, 20, "second"),
+                assignment(0, 11, "third"), assignment(1, 21, "fourth"));
+        Consumer<?, ?> kafkaConsumer = mock(Consumer.class);
+
+        consumer.consumeNotifications(records, acknowledgment, kafkaConsumer);
+
+        InOrder partition0 = inOrder(emailService);
+        partition0.verify(emailService).sendTaskAssignmentNotification("a@b.ru", "Иван", "first");
+        partition0.verify(emailService).sendTaskAssignmentNotification("a@b.ru", "Иван", "third");
+        InOrder partition1 = inOrder(emailService);
+        partition1.verify(emailService).sendTaskAssignmentNotification("a@b.ru", "Иван", "second");
+        partition1.verify(emailService).sendTaskAssignmentNotification("a@b.ru", "Иван", "fourth");
+        verify(acknowledgment).acknowledge();
+        verify(kafkaConsumer, never()).commitSync(anyMap());
+    }
+
+    @Test
+    void commitsProcessedPrefixWhenForwardingFailsOnOnePartition() {
+        doThrow(new RuntimeException("SMTP недоступен"))
+                .when(emailService).sendTaskAssignmentNotification(anyString(), anyString(), eq("broken"));
+        when(forwardingTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Kafka недоступна")));
+        List<ConsumerRecord<String, byte[]>> records = List.of(
+                assignment(0, 10, "first"), assignment(0, 11, "second"),
+                assignment(1, 20, "third"), assignment(1, 21, "broken"), assignment(1, 22, "fourth"));
+        Consumer<?, ?> kafkaConsumer = mock(Consumer.class);
+
+        consumer.consumeNotifications(records, acknowledgment, kafkaConsumer);
+
+        TopicPartition partition0 = new TopicPartition("task-assignments", 0);
+        TopicPartition partition1 = new TopicPartition("task-assignments", 1);
+        verify(kafkaConsumer).commitSync(Map.of(
+                partition0, new OffsetAndMetadata(12),
+                partition1, new OffsetAndMetadata(21)));
+        verify(kafkaConsumer).seek(partition1, 21);
+        verify(kafkaConsumer, never()).seek(eq(partition0), any(Long.class));
+        verify(acknowledgment, never()).acknowledge();
+        verify(emailService).sendTaskAssignmentNotification("a@b.ru", "Иван", "first");
+        verify(emailService).sendTaskAssignmentNotification("a@b.ru", "Иван", "second");
+        verify(emailService).sendTaskAssignmentNotification("a@b.ru", "Иван", "third");
+        verify(emailService, never()).sendTaskAssignmentNotification("a@b.ru", "Иван", "fourth");
+    }
+
+    @Test
+    void rereadsWholePartitionWhenItsWorkerFails() {
+        DeliveryLedger brokenLedger = mock(DeliveryLedger.class);
+        when(brokenLedger.isDelivered("n-2")).thenThrow(new IllegalStateException("Журнал недоступен"));
+        ReflectionTestUtils.setField(consumer, "deliveryLedger", brokenLedger);
+        ConsumerRecord<String, byte[]> broken = assignment(1, 20, "second");
+        broken.headers().add(NotificationConsumer.ID_HEADER, "n-2".getBytes(StandardCharsets.UTF_8));
+        List<ConsumerRecord<String, byte[]>> records = List.of(assignment(0, 10, "first"), broken);
+        Consumer<?, ?> kafkaConsumer = mock(Consumer.class);
+
+        consumer.consumeNotifications(records, acknowledgment, kafkaConsumer);
+
+        TopicPartition partition0 = new TopicPartition("task-assignments", 0);
+        TopicPartition partition1 = new TopicPartition("task-assignments", 1);
+        // Сбойная партиция не продвигается: фиксируется только соседняя
+        verify(kafkaConsumer).commitSync(Map.of(partition0, new OffsetAndMetadata(11)));
+        verify(kafkaConsumer).seek(partition1, 20);
+        verify(acknowledgment, never()).acknowledge();
+        verify(emailService).sendTaskAssignmentNotification("a@b.ru", "Иван", "first");
+        verify(emailService, never()).sendTaskAssignmentNotification("a@b.ru", "Иван", "second");
+    }
+
+    private String header(ProducerRecord<String, byte[]> record, String name) {
+        return new String(record.headers().lastHeader(name).value(), StandardCharsets.UTF_8);
+    }
+
+    private ConsumerRecord<String, byte[]> record(long offset, String type, String json) {
+        return record("task-assignments", offset, type, json);
+    }
+
+    private ConsumerRecord<String, byte[]> assignment(int partition, long offset, String message) {
+        return record("task-assignments", partition, offset, "TaskAssignmentNotification",
+                "{\"recipientEmail\":\"a@b.ru\",\"recipientName\":\"Иван\",\"taskId\":1,\"message\":\"" + message + "\"}");
+    }
+
+    private ConsumerRecord<String, byte[]> record(String topic, long offset, String type, String json) {
+        return record(topic, 0, offset, type, json);
+    }
+
+    private ConsumerRecord<String, byte[]> record(String topic, int partition, long offset, String type, String json) {
+        ConsumerRecord<String, byte[]> record = new ConsumerRecord<>(topic, partition, offset, "a@b.ru",
+                json.getBytes(StandardCharsets.UTF_8));
+        if (type != null) {
+            record.headers().add(NotificationConsumer.TYPE_HEADER, type.getBytes(StandardCharsets.UTF_8));
+        }
+        return record;
+    }
+}
@@ -0,0 +1,62 @@
+package ru.marinin.notification_microservice.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.marinin.notification_microservice.config.AdminTokenFilter;
+import ru.marinin.notification_microservice.config.SecurityConfig;
+import ru.marinin.notification_microservice.service.DeadLetterService;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(DeadLetterController.class)
+@Import(SecurityConfig.class)
+@TestPropertySource(properties = "notification.admin.token=secret")
+class DeadLetterControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private DeadLetterService deadLetterService;
+
+    @Test
+    void rejectsRequestsWithoutToken() throws Exception {
+        mockMvc.perform(get("/notifications/dlt")).andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/notifications/dlt/0/5/replay")).andExpect(status().isUnauthorized());
+
+        verify(deadLetterService, never()).findLatest(anyInt());
+        verify(deadLetterService, never()).replay(anyInt(), anyLong());
+    }
+
+    @Test
+    void rejectsWrongToken() throws Exception {
+        mockMvc.perform(get("/notifications/dlt").header(AdminTokenFilter.TOKEN_HEADER, "guess"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void allowsRequestsWithToken() throws Exception {
+        when(deadLetterService.findLatest(50)).thenReturn(List.of());
+
+        mockMvc.perform(get("/notifications/dlt").header(AdminTokenFilter.TOKEN_HEADER, "secret"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/notifications/dlt/0/5/replay").header(AdminTokenFilter.TOKEN_HEADER, "secret"))
+                .andExpect(status().isOk());
+
+        verify(deadLetterService).replay(0, 5L);
+    }
+}
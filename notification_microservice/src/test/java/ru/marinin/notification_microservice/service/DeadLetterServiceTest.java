@@ -0,0 +1,159 @@
+package ru.marinin.notification_microservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+import ru.marinin.notification_microservice.config.NotificationRetryTopics;
+import ru.marinin.notification_microservice.consumer.NotificationConsumer;
+import ru.marinin.notification_microservice.model.DeadLetterMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DeadLetterServiceTest {
+
+    private static final String DEAD_LETTER_TOPIC = "task-assignments.DLT";
+
+    private KafkaTemplate<String, byte[]> forwardingTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private DeadLetterService service;
+    // Содержимое dead-letter топика: записи по партициям
+    private final Map<Integer, List<ConsumerRecord<String, byte[]>>> topic = new HashMap<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        forwardingTemplate = mock(KafkaTemplate.class);
+        when(forwardingTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+        ConsumerFactory<String, byte[]> consumerFactory = mock(ConsumerFactory.class);
+        when(consumerFactory.createConsumer(isNull(), anyString(), isNull(), any())).thenAnswer(invocation -> reader());
+        meterRegistry = new SimpleMeterRegistry();
+
+        service = new DeadLetterService(consumerFactory, forwardingTemplate,
+                new NotificationRetryTopics("task-assignments", DEAD_LETTER_TOPIC, 2, 1000, 4.0, 60000),
+                meterRegistry);
+        ReflectionTestUtils.setField(service, "readTimeoutMs", 1000L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void replaysRecordToMainTopicWithoutPipelineHeaders() {
+        addRecord(0, 100, "first");
+        ConsumerRecord<String, byte[]> failed = addRecord(0, 200, "second");
+        failed.headers().add(NotificationConsumer.ID_HEADER, "n-2".getBytes(StandardCharsets.UTF_8));
+        failed.headers().add(NotificationConsumer.RETRY_ATTEMPT_HEADER, "2".getBytes(StandardCharsets.UTF_8));
+        failed.headers().add(NotificationConsumer.RETRY_NOT_BEFORE_HEADER, "123".getBytes(StandardCharsets.UTF_8));
+        failed.headers().add(NotificationConsumer.RETRY_ERROR_HEADER, "SMTP".getBytes(StandardCharsets.UTF_8));
+        failed.headers().add(NotificationConsumer.DLT_REASON_HEADER, "Исчерпаны повторы".getBytes(StandardCharsets.UTF_8));
+
+        service.replay(0, 1);
+
+        ArgumentCaptor<ProducerRecord<String, byte[]>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(forwardingTemplate).send(captor.capture());
+        ProducerRecord<String, byte[]> replay = captor.getValue();
+        assertEquals("task-assignments", replay.topic());
+        assertEquals("a@b.ru", replay.key());
+        assertArrayEquals("second".getBytes(StandardCharsets.UTF_8), replay.value());
+        assertEquals("TaskAssignmentNotification", header(replay, NotificationConsumer.TYPE_HEADER));
+        assertEquals("n-2", header(replay, NotificationConsumer.ID_HEADER));
+        assertNull(replay.headers().lastHeader(NotificationConsumer.RETRY_ATTEMPT_HEADER));
+        assertNull(replay.headers().lastHeader(NotificationConsumer.RETRY_NOT_BEFORE_HEADER));
+        assertNull(replay.headers().lastHeader(NotificationConsumer.RETRY_ERROR_HEADER));
+        assertNull(replay.headers().lastHeader(NotificationConsumer.DLT_REASON_HEADER));
+        assertEquals(1.0, meterRegistry.counter("notifications.dlt.replayed").count());
+    }
+
+    @Test
+    void rejectsReplayOfMissingOffset() {
+        addRecord(0, 100, "first");
+
+        ResponseStatusException error = assertThrows(ResponseStatusException.class, () -> service.replay(0, 1));
+        assertEquals(HttpStatus.NOT_FOUND, error.getStatusCode());
+        assertThrows(ResponseStatusException.class, () -> service.replay(3, 0));
+        verify(forwardingTemplate, never()).send(any(ProducerRecord.class));
+    }
+
+    @Test
+    void findsLatestMessagesOfAllPartitionsNewestFirst() {
+        addRecord(0, 100, "p0-old");
+        addRecord(0, 400, "p0-new");
+        addRecord(1, 200, "p1-old");
+        addRecord(1, 300, "p1-new");
+
+        List<DeadLetterMessage> messages = service.findLatest(2);
+
+        assertEquals(List.of("p0-new", "p1-new"), messages.stream().map(DeadLetterMessage::getPayload).toList());
+        assertEquals(0, messages.get(0).getPartition());
+        assertEquals(1, messages.get(0).getOffset());
+        assertEquals("TaskAssignmentNotification", messages.get(0).getType());
+    }
+
+    private ConsumerRecord<String, byte[]> addRecord(int partition, long timestamp, String payload) {
+        List<ConsumerRecord<String, byte[]>> records = topic.computeIfAbsent(partition, p -> new ArrayList<>());
+        ConsumerRecord<String, byte[]> record = new ConsumerRecord<>(DEAD_LETTER_TOPIC, partition, records.size(),
+                timestamp, TimestampType.CREATE_TIME, -1, -1, "a@b.ru", payload.getBytes(StandardCharsets.UTF_8),
+                new RecordHeaders(), Optional.empty());
+        record.headers().add(NotificationConsumer.TYPE_HEADER,
+                "TaskAssignmentNotification".getBytes(StandardCharsets.UTF_8));
+        records.add(record);
+        return record;
+    }
+
+    // Временный потребитель, который видит текущее содержимое топика; записи отдаются после assign
+    private MockConsumer<String, byte[]> reader() {
+        MockConsumer<String, byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        List<PartitionInfo> partitions = new ArrayList<>();
+        Map<TopicPartition, Long> beginning = new HashMap<>();
+        Map<TopicPartition, Long> end = new HashMap<>();
+        topic.forEach((partition, records) -> {
+            partitions.add(new PartitionInfo(DEAD_LETTER_TOPIC, partition, Node.noNode(), new Node[0], new Node[0]));
+            beginning.put(new TopicPartition(DEAD_LETTER_TOPIC, partition), 0L);
+            end.put(new TopicPartition(DEAD_LETTER_TOPIC, partition), (long) records.size());
+        });
+        consumer.updatePartitions(DEAD_LETTER_TOPIC, partitions);
+        consumer.updateBeginningOffsets(beginning);
+        consumer.updateEndOffsets(end);
+        consumer.schedulePollTask(() -> topic.forEach((partition, records) -> {
+            if (consumer.assignment().contains(new TopicPartition(DEAD_LETTER_TOPIC, partition))) {
+                records.forEach(consumer::addRecord);
+            }
+        }));
+        return consumer;
+    }
+
+    private String header(ProducerRecord<String, byte[]> record, String name) {
+        return new String(record.headers().lastHeader(name).value(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,104 @@
+package ru.marinin.notification_microservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeliveryLedgerTest {
+
+    private static final long TTL_MS = 60_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void remembersDeliveriesAcrossRestart() {
+        DeliveryLedger ledger = ledger(TTL_MS);
+        ledger.load();
+        ledger.markDelivered("n-1");
+        ledger.flush();
+
+        DeliveryLedger restarted = ledger(TTL_MS);
+        restarted.load();
+
+        assertTrue(restarted.isDelivered("n-1"));
+        assertFalse(restarted.isDelivered("n-2"));
+    }
+
+    @Test
+    void skipsTruncatedLastLine() throws IOException {
+        long now = System.currentTimeMillis();
+        Files.writeString(path(), now + " n-1\n" + now + " n-2\n" + now + " n-", StandardCharsets.UTF_8);
+
+        DeliveryLedger ledger = ledger(TTL_MS);
+        ledger.load();
+        ledger.markDelivered("n-3");
+
+        assertEquals(3, ledger.size());
+        assertFalse(ledger.isDelivered("n-"));
+        // После сжатия новая запись не склеивается с недописанной строкой
+        DeliveryLedger restarted = ledger(TTL_MS);
+        restarted.load();
+        assertTrue(restarted.isDelivered("n-2"));
+        assertTrue(restarted.isDelivered("n-3"));
+        assertEquals(3, restarted.size());
+    }
+
+    @Test
+    void compactsExpiredAndCorruptedRecordsOnLoad() throws IOException {
+        long now = System.currentTimeMillis();
+        Files.write(path(), List.of(
+                (now - 2 * TTL_MS) + " old",
+                "garbage",
+                now + " n-1"), StandardCharsets.UTF_8);
+
+        DeliveryLedger ledger = ledger(TTL_MS);
+        ledger.load();
+
+        assertFalse(ledger.isDelivered("old"));
+        assertTrue(ledger.isDelivered("n-1"));
+        assertEquals(List.of(now + " n-1"), Files.readAllLines(path(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void expiresDeliveriesAfterTtl() throws IOException, InterruptedException {
+        long ttlMs = 1000;
+        // Журнал в основном из записей, которые скоро устареют: после вытеснения он переписывается
+        long expiresSoon = System.currentTimeMillis() - ttlMs + 700;
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 10_001; i++) {
+            content.append(expiresSoon).append(" old-").append(i).append('\n');
+        }
+        Files.writeString(path(), content, StandardCharsets.UTF_8);
+        DeliveryLedger ledger = ledger(ttlMs);
+        ledger.load();
+        assertTrue(ledger.isDelivered("old-0"));
+
+        Thread.sleep(Math.max(0, expiresSoon + ttlMs - System.currentTimeMillis()) + 50);
+        ledger.markDelivered("fresh");
+
+        assertFalse(ledger.isDelivered("old-0"));
+        ledger.evictExpired();
+        ledger.flush();
+        assertEquals(1, ledger.size());
+        assertTrue(ledger.isDelivered("fresh"));
+        assertEquals(1, Files.readAllLines(path(), StandardCharsets.UTF_8).size());
+    }
+
+    private DeliveryLedger ledger(long ttlMs) {
+        return new DeliveryLedger(path().toString(), ttlMs);
+    }
+
+    private Path path() {
+        return directory.resolve("ledger.log");
+    }
+}
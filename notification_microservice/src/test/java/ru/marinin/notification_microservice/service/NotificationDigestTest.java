@@ -0,0 +1,198 @@
+package ru.marinin.notification_microservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.marinin.notification_microservice.config.NotificationRetryTopics;
+import ru.marinin.notification_microservice.consumer.NotificationConsumer;
+import ru.marinin.notification_microservice.model.CertificateRegisteredNotification;
+import ru.marinin.notification_microservice.model.DigestItem;
+import ru.marinin.notification_microservice.model.TaskDecisionNotification;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationDigestTest {
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final EmailService emailService = mock(EmailService.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, byte[]> forwardingTemplate = mock(KafkaTemplate.class);
+
+    @BeforeEach
+    void setUp() {
+        when(forwardingTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    void sendsOneDigestWhenCountIsReached() {
+        NotificationDigest digest = digest(3);
+        digest.add(decision("1"));
+        digest.add(decision("2"));
+
+        digest.flush();
+        verify(emailService, never()).sendDigest(anyList());
+
+        digest.add(decision("3"));
+        digest.flush();
+
+        verify(emailService).sendDigest(any());
+        assertEquals(0, digest.pendingCount());
+    }
+
+    @Test
+    void restoresPendingItemsAfterRestart() {
+        NotificationDigest digest = digest(10);
+        digest.add(decision("1"));
+        digest.add(DigestItem.of(new CertificateRegisteredNotification(
+                "a@b.ru", "Иван", "12", LocalDate.of(2025, 3, 14), "ООО Ромашка", "RU C-1", "Петров")));
+
+        NotificationDigest restarted = digest(10);
+
+        assertEquals(2, restarted.pendingCount());
+        restarted.add(decision("2"));
+        assertEquals(3, restarted.pendingCount());
+    }
+
+    @Test
+    void keepsItemsWhenSendingFails() {
+        NotificationDigest digest = digest(2);
+        digest.add(decision("1"));
+        digest.add(decision("2"));
+        doThrow(new RuntimeException("SMTP недоступен")).when(emailService).sendDigest(anyList());
+
+        digest.flush();
+        assertEquals(2, digest.pendingCount());
+
+        reset(emailService);
+        digest.flush();
+        assertEquals(0, digest.pendingCount());
+        assertEquals(0, digest(2).pendingCount());
+    }
+
+    @Test
+    void urgentTypesBypassTheWindow() {
+        NotificationDigest digest = digest(10);
+        ReflectionTestUtils.setField(digest, "urgentTypes", Set.of("TaskDecisionNotification"));
+
+        assertFalse(digest.isDeferred("TaskDecisionNotification"));
+        assertTrue(digest.isDeferred("DeclarationRegisteredNotification"));
+        assertFalse(digest.isDeferred("TaskAssignmentNotification"));
+    }
+
+    @Test
+    void doesNotResendDigestWhenJournalWriteFails() {
+        NotificationDigestStore store = spy(store());
+        NotificationDigest digest = digest(store, 2);
+        digest.add(decision("1"));
+        digest.add(decision("2"));
+        doThrow(new UncheckedIOException(new IOException("диск заполнен"))).doCallRealMethod()
+                .when(store).markSent(anyCollection());
+
+        digest.flush();
+        assertEquals(0, digest.pendingCount());
+
+        // Отметка дописывается при следующей проверке, письмо повторно не отправляется
+        digest.flush();
+        verify(emailService, times(1)).sendDigest(anyList());
+        assertEquals(0, digest(2).pendingCount());
+    }
+
+    @Test
+    void sendsItemsToDeadLetterTopicWhenRetriesAreExhausted() {
+        NotificationDigest digest = digest(2);
+        digest.add(decision("1"));
+        digest.add(decision("2"));
+        doThrow(new RuntimeException("SMTP недоступен")).when(emailService).sendDigest(anyList());
+
+        digest.flush();
+        verify(forwardingTemplate, never()).send(any(ProducerRecord.class));
+        assertEquals(2, digest.pendingCount());
+
+        digest.flush();
+        ArgumentCaptor<ProducerRecord<String, byte[]>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(forwardingTemplate, times(2)).send(captor.capture());
+        ProducerRecord<String, byte[]> record = captor.getAllValues().get(0);
+        assertEquals("task-assignments.DLT", record.topic());
+        assertEquals("a@b.ru", record.key());
+        assertEquals("TaskDecisionNotification",
+                new String(record.headers().lastHeader(NotificationConsumer.TYPE_HEADER).value(), StandardCharsets.UTF_8));
+        assertTrue(new String(record.value(), StandardCharsets.UTF_8).contains("\"taskNumber\":\"1\""));
+        assertEquals(0, digest.pendingCount());
+        assertEquals(0, digest(2).pendingCount());
+    }
+
+    @Test
+    void waitsForBackoffBeforeRetrying() {
+        NotificationDigest digest = digest(2);
+        ReflectionTestUtils.setField(digest, "retryTopics", new NotificationRetryTopics(
+                "task-assignments", "task-assignments.DLT", 1, 60_000, 1.0, 60_000));
+        digest.add(decision("1"));
+        digest.add(decision("2"));
+        doThrow(new RuntimeException("SMTP недоступен")).when(emailService).sendDigest(anyList());
+
+        digest.flush();
+        digest.flush();
+
+        verify(emailService, times(1)).sendDigest(anyList());
+        assertEquals(2, digest.pendingCount());
+    }
+
+    private NotificationDigestStore store() {
+        return new NotificationDigestStore(objectMapper, directory.resolve("digest.journal").toString());
+    }
+
+    private NotificationDigest digest(int maxItems) {
+        return digest(store(), maxItems);
+    }
+
+    @SuppressWarnings("unchecked")
+    private NotificationDigest digest(NotificationDigestStore store, int maxItems) {
+        // Одна попытка повтора без задержки, затем dead-letter топик
+        NotificationRetryTopics retryTopics = new NotificationRetryTopics(
+                "task-assignments", "task-assignments.DLT", 1, 0, 1.0, 0);
+        NotificationDigest digest = new NotificationDigest(store, emailService, retryTopics, forwardingTemplate,
+                objectMapper);
+        ReflectionTestUtils.setField(digest, "enabled", true);
+        ReflectionTestUtils.setField(digest, "windowMs", 60_000L);
+        ReflectionTestUtils.setField(digest, "maxItems", maxItems);
+        ReflectionTestUtils.setField(digest, "urgentTypes", Set.of());
+        ReflectionTestUtils.setField(digest, "forwardTimeoutMs", 1000L);
+        digest.restore();
+        return digest;
+    }
+
+    private DigestItem decision(String taskNumber) {
+        return DigestItem.of(new TaskDecisionNotification(
+                "a@b.ru", "Иван", 1L, taskNumber, LocalDate.of(2025, 3, 14), "ООО Ромашка"));
+    }
+}
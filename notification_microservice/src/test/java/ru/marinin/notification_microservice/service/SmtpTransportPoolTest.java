@@ -0,0 +1,80 @@
+package ru.marinin.notification_microservice.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SmtpTransportPoolTest {
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private JavaMailSenderImpl mailSender;
+    private SmtpTransportPool pool;
+
+    @BeforeEach
+    void setUp() {
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+        pool = new SmtpTransportPool(mailSender, 2);
+        ReflectionTestUtils.setField(pool, "borrowTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(pool, "idleTimeoutMs", 60000L);
+        ReflectionTestUtils.setField(pool, "validateAfterMs", 5000L);
+    }
+
+    @Test
+    void sendsOverOneReusedConnection() throws Exception {
+        for (String to : List.of("a@example.com", "b@example.com", "c@example.com", "d@example.com")) {
+            pool.send(message(to));
+        }
+
+        assertEquals(4, greenMail.getReceivedMessages().length);
+        assertEquals(1, pool.idleCount());
+    }
+
+    @Test
+    void reconnectsWhenPooledConnectionFailsValidation() throws Exception {
+        pool.send(message("a@example.com"));
+        // Соединение из пула проверяется NOOP перед каждой выдачей
+        ReflectionTestUtils.setField(pool, "validateAfterMs", -1L);
+        greenMail.reset();
+
+        pool.send(message("b@example.com"));
+
+        assertEquals(1, greenMail.getReceivedMessages().length);
+        assertEquals(1, pool.idleCount());
+    }
+
+    @Test
+    void evictsIdleConnections() throws Exception {
+        pool.send(message("a@example.com"));
+        ReflectionTestUtils.setField(pool, "idleTimeoutMs", -1L);
+
+        pool.evictIdle();
+
+        assertEquals(0, pool.idleCount());
+    }
+
+    private MimeMessage message(String to) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+        helper.setFrom("noreply@example.com");
+        helper.setTo(to);
+        helper.setSubject("Проверка");
+        helper.setText("Тест");
+        return message;
+    }
+}
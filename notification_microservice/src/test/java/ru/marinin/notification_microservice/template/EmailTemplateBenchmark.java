@@ -0,0 +1,87 @@
+package ru.marinin.notification_microservice.template;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Скорость и аллокации на одно письмо: скомпилированные шаблоны против прежней конкатенации.
+ * Запуск: собрать тестовые классы (mvn test-compile) и выполнить main с тестовым classpath;
+ * аллокации на операцию — метрика gc.alloc.rate.norm профилировщика GC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    private EmailTemplateEngine engine;
+    private final LocalDate applicationDate = LocalDate.of(2025, 3, 14);
+
+    @Setup
+    public void setUp() {
+        engine = new EmailTemplateEngine();
+    }
+
+    @Benchmark
+    public String taskDecisionLegacy() {
+        return LegacyEmailContent.buildTaskDecisionEmailContent(
+                "Иванов И.И.", 42L, "ТС-2025/042", applicationDate, "ООО \"Ромашка\"");
+    }
+
+    @Benchmark
+    public String taskDecisionTemplate() {
+        Map<String, Object> model = new HashMap<>();
+        model.put("recipientName", "Иванов И.И.");
+        model.put("taskNumber", "ТС-2025/042");
+        model.put("applicationDate", applicationDate.format(DATE_FORMAT));
+        model.put("applicantName", "ООО \"Ромашка\"");
+        model.put("taskLink", "http://91.184.244.246/tasks/" + 42L);
+        return engine.render("task-decision", model);
+    }
+
+    @Benchmark
+    public String userRegistrationLegacy() {
+        return LegacyEmailContent.buildUserRegistrationEmailContent(
+                "Иванов И.И.", "petrov@example.com", "Пётр", "Петров", "Петрович");
+    }
+
+    @Benchmark
+    public String userRegistrationTemplate() {
+        Map<String, Object> model = new HashMap<>();
+        model.put("recipientName", "Иванов И.И.");
+        model.put("secondName", "Петров");
+        model.put("firstName", "Пётр");
+        model.put("patronymic", "Петрович");
+        model.put("email", "petrov@example.com");
+        return engine.render("user-registration", model);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmailTemplateBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
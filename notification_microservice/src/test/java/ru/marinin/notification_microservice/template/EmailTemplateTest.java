@@ -0,0 +1,69 @@
+package ru.marinin.notification_microservice.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmailTemplateTest {
+
+    @Test
+    void escapesValuesAndRendersSections() {
+        EmailTemplateEngine engine = new EmailTemplateEngine(Map.of(
+                "greeting", "<p>Здравствуйте{{#name}}, {{name}}{{/name}}!</p>{{^link}}<p>нет ссылки</p>{{/link}}"));
+
+        Map<String, Object> model = new HashMap<>();
+        model.put("name", "ООО \"Рога & Копыта\" <script>");
+        model.put("link", null);
+
+        assertEquals("<p>Здравствуйте, ООО &quot;Рога &amp; Копыта&quot; &lt;script&gt;!</p><p>нет ссылки</p>",
+                engine.render("greeting", model));
+        assertEquals("<p>Здравствуйте!</p>", engine.render("greeting", Map.of("link", "x")));
+    }
+
+    @Test
+    void repeatsSectionForEveryListItem() {
+        EmailTemplateEngine engine = new EmailTemplateEngine(Map.of(
+                "list", "<ul>{{#items}}<li>{{number}} ({{owner}})</li>{{/items}}</ul>{{^items}}пусто{{/items}}"));
+
+        assertEquals("<ul><li>1 (Иванов)</li><li>2 (Иванов)</li></ul>", engine.render("list", Map.of(
+                "owner", "Иванов",
+                "items", List.of(Map.of("number", "1"), Map.of("number", "2")))));
+        assertEquals("<ul></ul>пусто", engine.render("list", Map.of("items", List.of())));
+    }
+
+    @Test
+    void itemFieldsShadowModelFields() {
+        EmailTemplateEngine engine = new EmailTemplateEngine(Map.of(
+                "list", "{{#items}}[{{name}}]{{/items}} {{name}}"));
+        Map<String, Object> withoutName = new HashMap<>();
+        withoutName.put("name", null);
+
+        assertEquals("[&lt;a&gt;][] &quot;&amp;&#39;", engine.render("list", Map.of(
+                "name", "\"&'",
+                "items", List.of(Map.of("name", "<a>"), withoutName))));
+    }
+
+    @Test
+    void rejectsUnclosedSection() {
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("broken", "{{#name}}без конца"));
+    }
+
+    @Test
+    void loadsBundledTemplates() {
+        String html = new EmailTemplateEngine().render("task-decision", Map.of(
+                "recipientName", "Иванов И.И.",
+                "taskNumber", "42",
+                "applicationDate", "14.03.2025",
+                "applicantName", "ООО <Ромашка>"));
+
+        assertTrue(html.startsWith("<!DOCTYPE html><html><head>"));
+        assertTrue(html.contains("ООО &lt;Ромашка&gt;"));
+        assertTrue(html.contains("Дополнительную информацию вы можете получить в системе."));
+    }
+}
@@ -0,0 +1,205 @@
+package ru.marinin.notification_microservice.template;
+
+/**
+ * Прежняя сборка писем конкатенацией строк — базовая линия для EmailTemplateBenchmark.
+ */
+final class LegacyEmailContent {
+
+    private LegacyEmailContent() {
+    }
+
+    static String buildEmailContent(String recipientName, String message) {
+        return "<!DOCTYPE html>" +
+                "<html>" +
+                "<head>" +
+                "<meta charset=\"UTF-8\">" +
+                "<style>" +
+                "body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }" +
+                ".container { max-width: 600px; margin: 0 auto; padding: 20px; }" +
+                ".header { background-color: #4CAF50; color: white; padding: 20px; text-align: center; }" +
+                ".content { padding: 20px; background-color: #f9f9f9; }" +
+                ".message { font-size: 16px; margin: 20px 0; }" +
+                ".footer { text-align: center; padding: 20px; color: #666; font-size: 12px; }" +
+                "</style>" +
+                "</head>" +
+                "<body>" +
+                "<div class=\"container\">" +
+                "<div class=\"header\">" +
+                "<h1>Уведомление</h1>" +
+                "</div>" +
+                "<div class=\"content\">" +
+                "<p>Здравствуйте" + (recipientName != null && !recipientName.isEmpty() ? ", " + recipientName : "") + "!</p>" +
+                "<div class=\"message\">" +
+                "<p><strong>" + message + "</strong></p>" +
+                "</div>" +
+                "<p>Пожалуйста, проверьте систему для получения дополнительной информации.</p>" +
+                "</div>" +
+                "<div class=\"footer\">" +
+                "<p>Это автоматическое сообщение. Пожалуйста, не отвечайте на это письмо.</p>" +
+                "</div>" +
+                "</div>" +
+                "</body>" +
+                "</html>";
+    }
+
+    static String buildTaskDecisionEmailContent(String recipientName, Long taskId, String taskNumber,
+                                                 java.time.LocalDate applicationDate, String applicantName) {
+        String formattedDate = applicationDate != null ?
+            applicationDate.format(java.time.format.DateTimeFormatter.ofPattern("dd.MM.yyyy")) : "Не указана";
+        String taskLink = taskId != null ? "http://91.184.244.246/tasks/" + taskId : null;
+        
+        return "<!DOCTYPE html>" +
+                "<html>" +
+                "<head>" +
+                "<meta charset=\"UTF-8\">" +
+                "<style>" +
+                "body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }" +
+                ".container { max-width: 600px; margin: 0 auto; padding: 20px; }" +
+                ".header { background-color: #2196F3; color: white; padding: 20px; text-align: center; }" +
+                ".content { padding: 20px; background-color: #f9f9f9; }" +
+                ".info-block { background-color: white; padding: 15px; margin: 15px 0; border-left: 4px solid #2196F3; }" +
+                ".info-label { font-weight: bold; color: #555; }" +
+                ".info-value { color: #333; margin-left: 10px; }" +
+                ".message { font-size: 16px; margin: 20px 0; color: #2196F3; }" +
+                ".footer { text-align: center; padding: 20px; color: #666; font-size: 12px; }" +
+                "</style>" +
+                "</head>" +
+                "<body>" +
+                "<div class=\"container\">" +
+                "<div class=\"header\">" +
+                "<h1>Решение по заявке готово</h1>" +
+                "</div>" +
+                "<div class=\"content\">" +
+                "<p>Здравствуйте" + (recipientName != null && !recipientName.isEmpty() ? ", " + recipientName : "") + "!</p>" +
+                "<div class=\"message\">" +
+                "<p><strong>Написано решение по заявке</strong></p>" +
+                "</div>" +
+                "<div class=\"info-block\">" +
+                "<p><span class=\"info-label\">Номер заявки:</span><span class=\"info-value\">" + taskNumber + "</span></p>" +
+                "<p><span class=\"info-label\">Дата заявки:</span><span class=\"info-value\">" + formattedDate + "</span></p>" +
+                "<p><span class=\"info-label\">Наименование заявителя:</span><span class=\"info-value\">" + applicantName + "</span></p>" +
+                "</div>" +
+                (taskLink != null
+                        ? "<p>Дополнительную информацию вы можете получить по ссылке <a href=\"" + taskLink + "\">" + taskLink + "</a>.</p>"
+                        : "<p>Дополнительную информацию вы можете получить в системе.</p>") +
+                "</div>" +
+                "<div class=\"footer\">" +
+                "<p>Это автоматическое сообщение. Пожалуйста, не отвечайте на это письмо.</p>" +
+                "</div>" +
+                "</div>" +
+                "</body>" +
+                "</html>";
+    }
+
+    static String buildUserRegistrationEmailContent(String recipientName, String newUserEmail,
+                                                    String newUserFirstName, String newUserSecondName,
+                                                    String newUserPatronymic) {
+        // Формируем полное ФИО нового пользователя
+        StringBuilder fullName = new StringBuilder();
+        if (newUserSecondName != null && !newUserSecondName.isBlank()) {
+            fullName.append(newUserSecondName);
+        }
+        if (newUserFirstName != null && !newUserFirstName.isBlank()) {
+            if (fullName.length() > 0) {
+                fullName.append(" ");
+            }
+            fullName.append(newUserFirstName);
+        }
+        if (newUserPatronymic != null && !newUserPatronymic.isBlank()) {
+            if (fullName.length() > 0) {
+                fullName.append(" ");
+            }
+            fullName.append(newUserPatronymic);
+        }
+        
+        String fullNameStr = fullName.length() > 0 ? fullName.toString() : "Не указано";
+        
+        return "<!DOCTYPE html>" +
+                "<html>" +
+                "<head>" +
+                "<meta charset=\"UTF-8\">" +
+                "<style>" +
+                "body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }" +
+                ".container { max-width: 600px; margin: 0 auto; padding: 20px; }" +
+                ".header { background-color: #FF9800; color: white; padding: 20px; text-align: center; }" +
+                ".content { padding: 20px; background-color: #f9f9f9; }" +
+                ".info-block { background-color: white; padding: 15px; margin: 15px 0; border-left: 4px solid #FF9800; }" +
+                ".info-label { font-weight: bold; color: #555; }" +
+                ".info-value { color: #333; margin-left: 10px; }" +
+                ".message { font-size: 16px; margin: 20px 0; color: #FF9800; }" +
+                ".footer { text-align: center; padding: 20px; color: #666; font-size: 12px; }" +
+                "</style>" +
+                "</head>" +
+                "<body>" +
+                "<div class=\"container\">" +
+                "<div class=\"header\">" +
+                "<h1>Регистрация нового пользователя</h1>" +
+                "</div>" +
+                "<div class=\"content\">" +
+                "<p>Здравствуйте" + (recipientName != null && !recipientName.isEmpty() ? ", " + recipientName : "") + "!</p>" +
+                "<div class=\"message\">" +
+                "<p><strong>Зарегистрирован новый пользователь в системе</strong></p>" +
+                "</div>" +
+                "<div class=\"info-block\">" +
+                "<p><span class=\"info-label\">Фамилия:</span><span class=\"info-value\">" + 
+                (newUserSecondName != null && !newUserSecondName.isBlank() ? newUserSecondName : "Не указана") + "</span></p>" +
+                "<p><span class=\"info-label\">Имя:</span><span class=\"info-value\">" + 
+                (newUserFirstName != null && !newUserFirstName.isBlank() ? newUserFirstName : "Не указано") + "</span></p>" +
+                (newUserPatronymic != null && !newUserPatronymic.isBlank() ? 
+                "<p><span class=\"info-label\">Отчество:</span><span class=\"info-value\">" + newUserPatronymic + "</span></p>" : "") +
+                "<p><span class=\"info-label\">Email:</span><span class=\"info-value\">" + newUserEmail + "</span></p>" +
+                "</div>" +
+                "<p>Пожалуйста, проверьте систему для получения дополнительной информации.</p>" +
+                "</div>" +
+                "<div class=\"footer\">" +
+                "<p>Это автоматическое сообщение. Пожалуйста, не отвечайте на это письмо.</p>" +
+                "</div>" +
+                "</div>" +
+                "</body>" +
+                "</html>";
+    }
+
+    static String buildDeclarationRegisteredEmailContent(String recipientName, String applicationNumber,
+                                                          java.time.LocalDate applicationDate, String applicantName,
+                                                          String declarationNumber, String executorName) {
+        String dateText = applicationDate != null
+                ? applicationDate.format(java.time.format.DateTimeFormatter.ofPattern("dd.MM.yyyy"))
+                : "не указана";
+        String applicantText = (applicantName != null && !applicantName.isBlank()) ? applicantName : "Не указан";
+
+        return "<!DOCTYPE html>" +
+                "<html>" +
+                "<head><meta charset=\"UTF-8\"></head>" +
+                "<body style=\"font-family: Arial, sans-serif; color:#333;\">" +
+                "<h2>Зарегистрирована декларация</h2>" +
+                "<p><strong>По заявке № " + applicationNumber + " от " + dateText +
+                " зарегистрирована декларация с номером " + declarationNumber + ".</strong></p>" +
+                "<p><strong>Заявитель: " + applicantText + ".</strong></p>" +
+                "<p><strong>Исполнитель: " + executorName + ".</strong></p>" +
+                "<p>Это автоматическое сообщение. Пожалуйста, не отвечайте на него.</p>" +
+                "</body>" +
+                "</html>";
+    }
+
+    static String buildCertificateRegisteredEmailContent(String recipientName, String applicationNumber,
+                                                          java.time.LocalDate applicationDate, String applicantName,
+                                                          String certificateNumber, String executorName) {
+        String dateText = applicationDate != null
+                ? applicationDate.format(java.time.format.DateTimeFormatter.ofPattern("dd.MM.yyyy"))
+                : "не указана";
+        String applicantText = (applicantName != null && !applicantName.isBlank()) ? applicantName : "Не указан";
+
+        return "<!DOCTYPE html>" +
+                "<html>" +
+                "<head><meta charset=\"UTF-8\"></head>" +
+                "<body style=\"font-family: Arial, sans-serif; color:#333;\">" +
+                "<h2>Зарегистрирован сертификат</h2>" +
+                "<p><strong>По заявке № " + applicationNumber + " от " + dateText +
+                " зарегистрирован сертификат с номером " + certificateNumber + ".</strong></p>" +
+                "<p><strong>Заявитель: " + applicantText + ".</strong></p>" +
+                "<p><strong>Исполнитель: " + executorName + ".</strong></p>" +
+                "<p>Это автоматическое сообщение. Пожалуйста, не отвечайте на него.</p>" +
+                "</body>" +
+                "</html>";
+    }
+}